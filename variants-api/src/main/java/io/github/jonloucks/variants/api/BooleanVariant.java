@@ -0,0 +1,21 @@
+package io.github.jonloucks.variants.api;
+
+/**
+ * Responsibility: A Variant of primitive boolean values which can be retrieved without boxing.
+ * <p>
+ * Source text is present when it is not null and not blank.
+ * See {@link Environment#getBoolean(BooleanVariant)}
+ * </p>
+ */
+public interface BooleanVariant extends Variant<Boolean> {
+    
+    /**
+     * Parses the text directly into a boolean
+     * Note: only invoked with text that is not null and not blank
+     *
+     * @param rawText the text to be parsed
+     * @return the boolean value
+     * @throws IllegalArgumentException when the text is not valid
+     */
+    boolean ofBoolean(CharSequence rawText);
+}
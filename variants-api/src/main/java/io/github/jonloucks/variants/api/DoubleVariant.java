@@ -0,0 +1,21 @@
+package io.github.jonloucks.variants.api;
+
+/**
+ * Responsibility: A Variant of primitive double values which can be retrieved without boxing.
+ * <p>
+ * Source text is present when it is not null and not blank.
+ * See {@link Environment#getDouble(DoubleVariant)}
+ * </p>
+ */
+public interface DoubleVariant extends Variant<Double> {
+    
+    /**
+     * Parses the text directly into a double
+     * Note: only invoked with text that is not null and not blank
+     *
+     * @param rawText the text to be parsed
+     * @return the double value
+     * @throws IllegalArgumentException when the text is not valid
+     */
+    double ofDouble(CharSequence rawText);
+}
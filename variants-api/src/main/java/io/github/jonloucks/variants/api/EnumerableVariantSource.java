@@ -0,0 +1,62 @@
+package io.github.jonloucks.variants.api;
+
+import java.util.stream.StreamSupport;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: A VariantSource that can also list its keys.
+ * <p>
+ * Listing keys lets an Environment skip a source for keys it lacks, merge sources into an index,
+ * and lets tools export or compare sources. Sources that are plain lookups, such as lambdas,
+ * remain a {@link VariantSource} and are searched as before.
+ * </p>
+ * <p>
+ * The keys are iterated lazily where the source allows it. A listed key may still have no text,
+ * for example a Map entry with a null value, {@link #getSourceText(String)} is always the answer.
+ * </p>
+ */
+public interface EnumerableVariantSource extends VariantSource {
+    
+    /**
+     * The keys version of a source that can not tell when its keys change
+     */
+    long UNKNOWN_VERSION = Long.MIN_VALUE;
+    
+    /**
+     * @return the keys, each listed once
+     */
+    Iterable<String> getKeys();
+    
+    /**
+     * List the keys starting with a prefix.
+     * Sources keeping their keys sorted can override this to skip to the prefix.
+     *
+     * @param prefix the prefix, an empty prefix lists all keys
+     * @return the keys starting with the prefix
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default Iterable<String> getKeys(String prefix) {
+        final String validPrefix = nullCheck(prefix, "Prefix must be present.");
+        return () -> StreamSupport.stream(getKeys().spliterator(), false)
+            .filter(key -> key.startsWith(validPrefix))
+            .iterator();
+    }
+    
+    /**
+     * @return the expected number of keys, or a negative number if not known
+     */
+    default int getSizeHint() {
+        return -1;
+    }
+    
+    /**
+     * A value that changes whenever the keys or texts may have changed.
+     * Keys read after reading a version are at least as new as that version.
+     *
+     * @return the version, or {@link #UNKNOWN_VERSION} if changes can not be detected
+     */
+    default long getKeysVersion() {
+        return UNKNOWN_VERSION;
+    }
+}
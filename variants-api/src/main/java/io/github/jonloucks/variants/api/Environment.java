@@ -1,9 +1,19 @@
 package io.github.jonloucks.variants.api;
 
+import io.github.jonloucks.contracts.api.AutoClose;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
 import static io.github.jonloucks.variants.api.Checks.keyCheck;
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 
@@ -40,6 +50,295 @@ public interface Environment {
         return findVariance(variant).orElseThrow(() -> new VariantException("Variant not found. " + variant + "."));
     }
     
+    /**
+     * Trace how a Variant is resolved: every source consulted, each key tried, the raw text seen,
+     * the conversion result, link hops and the fallback decision.
+     * The sources are always consulted, a cached variance is not used.
+     * A conversion that throws is recorded in the explanation instead of being thrown.
+     * Meant for diagnostics, lookups do not pay for tracing.
+     *
+     * @param variant the Variant to explain
+     * @return the explanation
+     * @param <T> the type of variance value
+     * @throws VariantException if this Environment does not support explanations
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default <T> Explanation<T> explain(Variant<T> variant) {
+        throw new VariantException("Explanations are not supported.");
+    }
+    
+    /**
+     * Construct an object from variances, same as {@link #bind(Class, String)} with an empty prefix.
+     *
+     * @param type the record or class to bind
+     * @return the bound object
+     * @param <R> the type of bound object
+     * @throws VariantException if a required variance is not found
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default <R> R bind(Class<R> type) {
+        return bind(type, "");
+    }
+    
+    /**
+     * Construct an object from variances.
+     * A record is bound through its canonical constructor, any other concrete class through its only public
+     * constructor, which must be compiled with {@code -parameters}.
+     * Each record component or constructor parameter becomes a Variant keyed by the prefix and its name,
+     * parsed by the built-in {@link Parsers} for String, int, long, double, float, boolean, their wrappers,
+     * Duration and enums. {@code Optional}, {@code OptionalInt}, {@code OptionalLong} and {@code OptionalDouble}
+     * of those are empty when not found, every other component is required.
+     * The Variants and constructor are derived once per type and prefix, all variances are found in one
+     * {@link #findVariances(Collection)} batch.
+     *
+     * @param type the record or class to bind, it must be public and exported
+     * @param prefix prepended to every key, for example "server."
+     * @return the bound object
+     * @param <R> the type of bound object
+     * @throws VariantException if a required variance is not found, or if this Environment does not support binding
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default <R> R bind(Class<R> type, String prefix) {
+        throw new VariantException("Binding is not supported.");
+    }
+    
+    /**
+     * Subscribe to changes of the resolved variance of a Variant.
+     * The consumer is invoked only when the variance differs from the last one seen, compared after parsing.
+     * Changes are detected when a source notifies a change, see {@link VariantSource#addChangeListener(Runnable)},
+     * and on {@link #invalidate()}. The current variance is not delivered on subscribe.
+     * By default variances are treated as never changing and the consumer is never invoked.
+     *
+     * @param variant the Variant
+     * @param consumer receives the new variance, empty if the Variant is no longer found
+     * @return closing ends the subscription
+     * @param <T> the type of variance value
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default <T> AutoClose subscribe(Variant<T> variant, Consumer<Optional<T>> consumer) {
+        variantCheck(variant);
+        nullCheck(consumer, "Consumer must be present.");
+        return AutoClose.NONE;
+    }
+    
+    /**
+     * Bind the variance of a Variant into a handle the JIT can constant-fold.
+     * Meant for variances read often and changed rarely, such as feature flags.
+     * The variance is resolved now and again only when it changes, as delivered by {@link #subscribe(Variant, Consumer)}.
+     * <p>
+     * The handle targets a constant of the current variance through a MutableCallSite. Each change re-reads
+     * the variance while holding the call site, rather than using the delivered one, so a delivery computed
+     * before the initial read can not replace a newer variance. The call site is then synchronized,
+     * compiled callers that folded the old constant are deoptimized once.
+     * </p>
+     *
+     * @param variant the Variant
+     * @return the stable variance, closing it ends the subscription
+     * @param <T> the type of variance value
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default <T> StableVariance<T> stable(Variant<T> variant) {
+        final Variant<T> validVariant = variantCheck(variant);
+        final MutableCallSite callSite = new MutableCallSite(MethodType.methodType(Optional.class));
+        final MethodHandle handle = callSite.dynamicInvoker();
+        final Runnable update = () -> {
+            synchronized (callSite) {
+                callSite.setTarget(MethodHandles.constant(Optional.class, findVariance(validVariant)));
+                MutableCallSite.syncAll(new MutableCallSite[]{callSite});
+            }
+        };
+        final AutoClose subscription = subscribe(validVariant, changed -> update.run());
+        update.run();
+        return new StableVariance<T>() {
+            @Override
+            public Variant<T> getVariant() {
+                return validVariant;
+            }
+            
+            @Override
+            @SuppressWarnings("unchecked")
+            public Optional<T> get() {
+                try {
+                    return (Optional<T>) handle.invokeExact();
+                } catch (RuntimeException | Error thrown) {
+                    throw thrown;
+                } catch (Throwable thrown) {
+                    throw new VariantException("Unable to get stable variance.", thrown);
+                }
+            }
+            
+            @Override
+            public MethodHandle getHandle() {
+                return handle;
+            }
+            
+            @Override
+            public void close() {
+                subscription.close();
+            }
+            
+            @Override
+            public String toString() {
+                return "StableVariance[variant=" + validVariant + ", value=" + get() + "]";
+            }
+        };
+    }
+    
+    /**
+     * Find the variances of many Variants together.
+     * Each Variant is resolved exactly as {@link #findVariance(Variant)} would,
+     * Environments may visit each source once for the whole request.
+     *
+     * @param variants the Variants
+     * @return the resolved variances
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default Variances findVariances(Collection<? extends Variant<?>> variants) {
+        final Map<Variant<?>, Optional<?>> found = new HashMap<>();
+        for (Variant<?> variant : nullCheck(variants, "Variants must be present.")) {
+            found.put(variant, findVariance(variant));
+        }
+        return new Variances() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> Optional<T> findVariance(Variant<T> variant) {
+                return (Optional<T>) found.getOrDefault(variantCheck(variant), Optional.empty());
+            }
+        };
+    }
+    
+    /**
+     * Find an int variance if it exists, without boxing when the Environment supports it.
+     *
+     * @param variant the Variant
+     * @return the optional value
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default OptionalInt findInt(IntVariant variant) {
+        final Optional<Integer> optionalVariance = findVariance(variant);
+        return optionalVariance.isPresent() ? OptionalInt.of(optionalVariance.get()) : OptionalInt.empty();
+    }
+    
+    /**
+     * Get required int variance or throw an exception, without boxing when the Environment supports it.
+     *
+     * @param variant the Variant
+     * @return the variance
+     * @throws VariantException if not found
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default int getInt(IntVariant variant) {
+        return getVariance(variant);
+    }
+    
+    /**
+     * Find a long variance if it exists, without boxing when the Environment supports it.
+     *
+     * @param variant the Variant
+     * @return the optional value
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default OptionalLong findLong(LongVariant variant) {
+        final Optional<Long> optionalVariance = findVariance(variant);
+        return optionalVariance.isPresent() ? OptionalLong.of(optionalVariance.get()) : OptionalLong.empty();
+    }
+    
+    /**
+     * Get required long variance or throw an exception, without boxing when the Environment supports it.
+     *
+     * @param variant the Variant
+     * @return the variance
+     * @throws VariantException if not found
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default long getLong(LongVariant variant) {
+        return getVariance(variant);
+    }
+    
+    /**
+     * Find a double variance if it exists, without boxing when the Environment supports it.
+     *
+     * @param variant the Variant
+     * @return the optional value
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default OptionalDouble findDouble(DoubleVariant variant) {
+        final Optional<Double> optionalVariance = findVariance(variant);
+        return optionalVariance.isPresent() ? OptionalDouble.of(optionalVariance.get()) : OptionalDouble.empty();
+    }
+    
+    /**
+     * Get required double variance or throw an exception, without boxing when the Environment supports it.
+     *
+     * @param variant the Variant
+     * @return the variance
+     * @throws VariantException if not found
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default double getDouble(DoubleVariant variant) {
+        return getVariance(variant);
+    }
+    
+    /**
+     * Get required boolean variance or throw an exception, without boxing when the Environment supports it.
+     *
+     * @param variant the Variant
+     * @return the variance
+     * @throws VariantException if not found
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default boolean getBoolean(BooleanVariant variant) {
+        return getVariance(variant);
+    }
+    
+    /**
+     * Discard any cached variances, the next lookup of each Variant searches the sources again.
+     * Note: Only applicable when the Environment was created with caching or snapshots enabled.
+     * When snapshots are enabled a new snapshot is taken and swapped in atomically.
+     * Sources copied once, see {@link Config.Builder#addSystemPropertiesSnapshot()}, are copied again first.
+     * Subscriptions are re-evaluated afterward, see {@link #subscribe(Variant, Consumer)}.
+     */
+    default void invalidate() {
+    }
+    
+    /**
+     * Create an immutable snapshot of this Environment.
+     * <p>
+     * Every key of each {@link EnumerableVariantSource} is copied into an immutable table,
+     * later changes to those sources are not visible to the snapshot.
+     * A source that can not list its keys is copied for the keys of the Variants this Environment
+     * has already resolved. Other keys are read from that source on every lookup, without being copied,
+     * so only the copied keys are guaranteed to stay unchanged.
+     * </p>
+     * @return the new immutable Environment
+     * @throws VariantException if this Environment does not support snapshots
+     */
+    default Environment snapshot() {
+        throw new VariantException("Snapshots are not supported.");
+    }
+    
+    /**
+     * Create a lightweight child Environment that consults the given sources before the sources of this one.
+     * <p>
+     * The sources are searched in the given order, each with every key of the Variant and its links,
+     * so an overlay value wins exactly as if its source was added first.
+     * A Variant the overlay sources do not answer is resolved by this Environment,
+     * using its cache or snapshot, and the fallback is applied there.
+     * The child copies no sources and caches nothing itself, it is meant for per-request or per-tenant overrides.
+     * An overlay of an overlay places the new sources before the existing ones.
+     * Invalidating the child does not invalidate this Environment, subscribers of the child are notified
+     * when this Environment is invalidated.
+     * </p>
+     *
+     * @param sources the overriding sources, highest precedence first
+     * @return the child Environment
+     * @throws VariantException if this Environment does not support overlays
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default Environment overlay(VariantSource... sources) {
+        throw new VariantException("Overlays are not supported.");
+    }
+    
     /**
      * Responsibility: Configuration for creating a new Environment
      */
@@ -52,6 +351,53 @@ public interface Environment {
             return emptyList();
         }
         
+        /**
+         * When enabled the resolved variance of each Variant is retained until {@link Environment#invalidate()}
+         * Note: Sources are not consulted again for a cached Variant, even if they change.
+         * Variants are cached by identity up to a limit, Variants created on the fly beyond it are resolved
+         * on every lookup, so caching is meant for Variants declared once, such as constants.
+         * @return if true, resolved variances are cached per Variant
+         */
+        default boolean useCache() {
+            return false;
+        }
+        
+        /**
+         * When enabled lookups are answered from an immutable snapshot of the sources.
+         * {@link Environment#invalidate()} takes a new snapshot and swaps it in atomically, a snapshot never
+         * changes once taken, see {@link Environment#snapshot()}.
+         * Readers never lock and see one consistent generation of every {@link EnumerableVariantSource}.
+         * A source that can not list its keys is copied for the keys of Variants already looked up,
+         * other keys are read from that source on every lookup until the next invalidate copies them.
+         * @return if true, lookups are answered from snapshots
+         */
+        default boolean useSnapshots() {
+            return false;
+        }
+        
+        /**
+         * When enabled and every source can list its keys and tell when they change, the texts of every source
+         * are merged into one table, keyed by key with each defining source in order,
+         * so a key costs one lookup instead of one per source.
+         * File, mapped, snapshot, singleton and system environment sources qualify.
+         * Map, Properties and system properties sources can change unseen, as can plain {@link VariantSource}s,
+         * a single one of them disables the index and every source is searched as usual.
+         * The table re-reads a source only after its keys changed, but each change copies the whole table,
+         * costing time in proportion to the keys of all sources.
+         * @return if true, lookups use a merged index of the sources when possible
+         */
+        default boolean useIndex() {
+            return false;
+        }
+        
+        /**
+         * Listener notified of lookups that consult the sources, see {@link EnvironmentMetrics}
+         * @return the listener, by default {@link EnvironmentListener#NONE} which is never called
+         */
+        default EnvironmentListener getListener() {
+            return EnvironmentListener.NONE;
+        }
+        
         /**
          * Responsibility: Builder a configuration used to create a new Environment
          */
@@ -66,6 +412,55 @@ public interface Environment {
              */
             Builder addSource(VariantSource source);
             
+            /**
+             * @param useCache enables or disables caching of resolved variances per Variant
+             * @return this builder
+             * @throws VariantException if enabled and this builder does not support caching
+             */
+            default Builder useCache(boolean useCache) {
+                if (useCache) {
+                    throw new VariantException("Caching is not supported.");
+                }
+                return this;
+            }
+            
+            /**
+             * @param useSnapshots enables or disables answering lookups from atomically swapped snapshots
+             * @return this builder
+             * @throws VariantException if enabled and this builder does not support snapshots
+             */
+            default Builder useSnapshots(boolean useSnapshots) {
+                if (useSnapshots) {
+                    throw new VariantException("Snapshots are not supported.");
+                }
+                return this;
+            }
+            
+            /**
+             * @param useIndex enables or disables answering lookups from a merged index of the sources
+             * @return this builder
+             * @throws VariantException if enabled and this builder does not support indexes
+             */
+            default Builder useIndex(boolean useIndex) {
+                if (useIndex) {
+                    throw new VariantException("Indexes are not supported.");
+                }
+                return this;
+            }
+            
+            /**
+             * @param listener the listener notified of lookups
+             * @return this builder
+             * @throws VariantException if not {@link EnvironmentListener#NONE} and this builder does not support listeners
+             * @throws IllegalArgumentException when arguments are null or invalid
+             */
+            default Builder listener(EnvironmentListener listener) {
+                if (nullCheck(listener, "Listener must be present.") != EnvironmentListener.NONE) {
+                    throw new VariantException("Listeners are not supported.");
+                }
+                return this;
+            }
+            
             /**
              * Add a new source based on a java.util.Map.
              *
@@ -90,6 +485,52 @@ public interface Environment {
                 return addSource(k -> ofNullable(validProperties.getProperty(k)));
             }
             
+            /**
+             * Add a properties file as a source, checked for changes every second.
+             * See {@link #addFileSource(Path, Duration)}
+             *
+             * @param path the file path
+             * @return this builder
+             * @throws IllegalArgumentException when arguments are null or invalid
+             */
+            default Builder addFileSource(Path path) {
+                return addFileSource(path, Duration.ofSeconds(1));
+            }
+            
+            /**
+             * Add a properties file as a source.
+             * <p>
+             * The file is read in {@link Properties#load(java.io.Reader)} format as UTF-8.
+             * Lookups never wait on the disk, the file is reloaded in the background when its
+             * modification time or size changes and the new content is swapped in atomically.
+             * A missing file has no keys. A file that can not be read keeps the previous content.
+             * While change listeners are registered the file is watched for changes and every change
+             * notified by the file system is reloaded, see {@link VariantSource#addChangeListener(Runnable)}.
+             * </p>
+             *
+             * @param path the file path
+             * @param interval the longest time between checks for changes
+             * @return this builder
+             * @throws VariantException if this builder does not support file sources
+             * @throws IllegalArgumentException when arguments are null or invalid
+             */
+            default Builder addFileSource(Path path, Duration interval) {
+                throw new VariantException("File sources are not supported.");
+            }
+            
+            /**
+             * Add a file in the binary format as a source, see {@link MappedSources}
+             *
+             * @param path the file path
+             * @return this builder
+             * @throws VariantException if the file can not be read or is not in the binary format,
+             * or if this builder does not support mapped sources
+             * @throws IllegalArgumentException when arguments are null or invalid
+             */
+            default Builder addMappedSource(Path path) {
+                throw new VariantException("Mapped sources are not supported.");
+            }
+            
             /**
              * Add System.getProperty as a source.
              *
@@ -110,6 +551,36 @@ public interface Environment {
                 return this;
             }
             
+            /**
+             * Add a copy of the system properties as a source.
+             * <p>
+             * The properties are copied once into an immutable table, so lookups never lock the
+             * synchronized system Properties. Changes made afterward are only seen once
+             * {@link Environment#invalidate()} copies the properties again.
+             * By default the properties are copied into a Map source once and never copied again.
+             * </p>
+             *
+             * @return this builder
+             */
+            default Builder addSystemPropertiesSnapshot() {
+                final Properties properties = System.getProperties();
+                final Map<String, String> copy = new HashMap<>();
+                for (String key : properties.stringPropertyNames()) {
+                    copy.put(key, properties.getProperty(key));
+                }
+                return addMapSource(copy);
+            }
+            
+            /**
+             * Add a copy of the environment variables as a source.
+             * The variables are copied once into an immutable table, see {@link #addSystemPropertiesSnapshot()}.
+             *
+             * @return this builder
+             */
+            default Builder addSystemEnvironmentSnapshot() {
+                return addMapSource(new HashMap<>(System.getenv()));
+            }
+            
             /**
              * Create a VariantSource with a single key value pair
              *
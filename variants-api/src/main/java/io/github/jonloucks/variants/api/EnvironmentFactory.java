@@ -31,4 +31,14 @@ public interface EnvironmentFactory {
      * @throws IllegalArgumentException when arguments are null or invalid
      */
     Environment createEnvironment(Consumer<Environment.Config.Builder> builderConsumer);
+    
+    /**
+     * Create a new EnvironmentMetrics to be used as the listener of one or more Environments
+     *
+     * @return the new metrics
+     * @throws VariantException if this factory does not support metrics
+     */
+    default EnvironmentMetrics createMetrics() {
+        throw new VariantException("Metrics are not supported.");
+    }
 }
@@ -0,0 +1,136 @@
+package io.github.jonloucks.variants.api;
+
+import java.util.Optional;
+
+/**
+ * Responsibility: Observe how an Environment resolves Variants.
+ * <p>
+ * Every method has an empty default, implement only the events of interest.
+ * Methods are called on the thread performing the lookup and should return quickly.
+ * Lookups answered from a cache are not reported, only lookups that consult the sources.
+ * An Environment created without a listener does not measure or report anything.
+ * </p>
+ * See {@link Environment.Config#getListener()}
+ */
+public interface EnvironmentListener {
+    
+    /**
+     * The listener used when none is configured, nothing is reported to it
+     */
+    EnvironmentListener NONE = new EnvironmentListener() {};
+    
+    /**
+     * Checked once at the start of each lookup, a lookup started while disabled is neither timed nor reported.
+     * Listeners that are only interested some of the time, such as during a recording, can return false
+     * to make lookups as cheap as lookups without a listener.
+     *
+     * @return true if lookups should be reported
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+    
+    /**
+     * A Variant is about to be resolved, called on the thread performing the lookup before any source is searched
+     *
+     * @param variant the Variant being resolved
+     * @return a context handed back with the Resolution, see {@link Resolution#getContext()}
+     */
+    default Object onResolving(Variant<?> variant) {
+        return null;
+    }
+    
+    /**
+     * A source was asked for the keys of a Variant
+     *
+     * @param source the source
+     * @param found true if a variance was found in the source
+     * @param nanos the time spent in the source, including converting the text found
+     */
+    default void onSourceLookup(VariantSource source, boolean found, long nanos) {
+    }
+    
+    /**
+     * A Variant was resolved
+     *
+     * @param variant the Variant
+     * @param found true if a variance was found in a source, false if the fallback chain was used
+     */
+    default void onResolved(Variant<?> variant, boolean found) {
+    }
+    
+    /**
+     * A Variant was resolved, with the details of where the variance was found.
+     * By default forwards to {@link #onResolved(Variant, boolean)}
+     *
+     * @param resolution the details
+     */
+    default void onResolved(Resolution resolution) {
+        onResolved(resolution.getVariant(), resolution.getKey().isPresent());
+    }
+    
+    /**
+     * A source had text for a key but the Variant owning the key did not convert it.
+     * The Variant either returned an empty value for text that is not blank or threw an exception,
+     * which is still thrown to the caller of the lookup.
+     *
+     * @param variant the Variant owning the key, which may be a link of the Variant being resolved
+     * @param key the key
+     * @param text the text
+     */
+    default void onParseFailure(Variant<?> variant, String key, CharSequence text) {
+    }
+    
+    /**
+     * A Variant was not found in any source and a fallback was used
+     *
+     * @param variant the Variant being resolved
+     * @param fallbackVariant the Variant in the link chain providing the fallback
+     */
+    default void onFallback(Variant<?> variant, Variant<?> fallbackVariant) {
+    }
+    
+    /**
+     * Responsibility: Describe how a Variant was resolved
+     */
+    interface Resolution {
+        
+        /**
+         * @return the Variant being resolved
+         */
+        Variant<?> getVariant();
+        
+        /**
+         * @return the index of the source in search order that found the variance, or -1 if not found
+         */
+        int getSourceIndex();
+        
+        /**
+         * @return the key that matched, empty if not found
+         */
+        Optional<String> getKey();
+        
+        /**
+         * @return the position in the link chain of the Variant owning the matched key,
+         * zero for the Variant itself and -1 if not found
+         */
+        int getLinkDepth();
+        
+        /**
+         * @return true if the variance was not found and a fallback was used
+         */
+        boolean isFallback();
+        
+        /**
+         * @return the time spent resolving
+         */
+        long getNanos();
+        
+        /**
+         * @return the context returned by {@link #onResolving(Variant)} for this Variant, or null
+         */
+        default Object getContext() {
+            return null;
+        }
+    }
+}
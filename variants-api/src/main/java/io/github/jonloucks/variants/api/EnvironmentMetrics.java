@@ -0,0 +1,69 @@
+package io.github.jonloucks.variants.api;
+
+/**
+ * Responsibility: EnvironmentListener counting lookups per source and per Variant name.
+ * <p>
+ * Counters are updated without locking and may be read while lookups are running.
+ * One instance may be shared by several Environments to aggregate their lookups.
+ * A Variant is counted by its name, or its first key when it has none, so Variants created on the fly
+ * share the counters of their name. The number of names and sources counted is bounded.
+ * </p>
+ * See {@link EnvironmentFactory#createMetrics()}
+ */
+public interface EnvironmentMetrics extends EnvironmentListener {
+    
+    /**
+     * Number of histogram buckets, see {@link #getLatencies(VariantSource)}
+     */
+    int LATENCY_BUCKETS = 64;
+    
+    /**
+     * @param source the source
+     * @return the number of times the source was asked for the keys of a Variant
+     */
+    long getLookups(VariantSource source);
+    
+    /**
+     * @param source the source
+     * @return the number of lookups answered by the source
+     */
+    long getHits(VariantSource source);
+    
+    /**
+     * Latency histogram of the lookups in a source with power of two buckets.
+     * The bucket at index i counts lookups that took less than 2^i nanoseconds and at least 2^(i-1) nanoseconds.
+     *
+     * @param source the source
+     * @return a copy of the histogram with {@link #LATENCY_BUCKETS} buckets
+     */
+    long[] getLatencies(VariantSource source);
+    
+    /**
+     * @param variant the Variant
+     * @return the number of resolutions of the Variant found in a source
+     */
+    long getHits(Variant<?> variant);
+    
+    /**
+     * @param variant the Variant
+     * @return the number of resolutions of the Variant not found in any source
+     */
+    long getMisses(Variant<?> variant);
+    
+    /**
+     * @param variant the Variant
+     * @return the number of resolutions of the Variant answered by a fallback
+     */
+    long getFallbacks(Variant<?> variant);
+    
+    /**
+     * @param variant the Variant owning the keys
+     * @return the number of texts the Variant did not convert
+     */
+    long getParseFailures(Variant<?> variant);
+    
+    /**
+     * Reset every counter to zero
+     */
+    void reset();
+}
@@ -0,0 +1,94 @@
+package io.github.jonloucks.variants.api;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Responsibility: Trace of how an Environment resolves a Variant.
+ * <p>
+ * The steps follow the lookup order: each source in priority order, and within a source the keys of
+ * the Variant and then the keys of each link. The trace stops where the lookup stops, at the first
+ * converted value. The {@link #toString()} is a readable multi-line report for logs.
+ * </p>
+ * <p>
+ * The trace reflects plain per-key probing, each step is one {@link VariantSource#getSourceText(String)}.
+ * A lookup may take shortcuts that do not change its answer and are not traced: bulk requests
+ * ({@link VariantSource#getSourceTexts}), skipping sources that lack a key, or a merged index of the sources.
+ * A source whose bulk and single key answers differ can therefore resolve differently than explained.
+ * </p>
+ * See {@link Environment#explain(Variant)}
+ * @param <T> the type of Variant value
+ */
+public interface Explanation<T> {
+    
+    /**
+     * @return the Variant explained
+     */
+    Variant<T> getVariant();
+    
+    /**
+     * @return the variance the lookup resolves to, empty if the lookup finds nothing or fails
+     */
+    Optional<T> getVariance();
+    
+    /**
+     * @return every key tried, in lookup order
+     */
+    List<Step> getSteps();
+    
+    /**
+     * @return the Variant in the link chain providing the fallback, empty if no fallback was used
+     */
+    Optional<Variant<T>> getFallbackVariant();
+    
+    /**
+     * @return the exception thrown converting text, which a lookup would throw
+     */
+    Optional<RuntimeException> getFailure();
+    
+    /**
+     * Responsibility: One key tried in one source
+     */
+    interface Step {
+        
+        /**
+         * @return the source
+         */
+        VariantSource getSource();
+        
+        /**
+         * @return the index of the source in priority order
+         */
+        int getSourceIndex();
+        
+        /**
+         * @return the key
+         */
+        String getKey();
+        
+        /**
+         * @return the Variant owning the key, the explained Variant or one of its links
+         */
+        Variant<?> getOwner();
+        
+        /**
+         * @return the position of the owner in the link chain, zero for the explained Variant
+         */
+        int getLinkDepth();
+        
+        /**
+         * @return the raw text the source has for the key, empty if it has none
+         */
+        Optional<CharSequence> getText();
+        
+        /**
+         * @return the value converted from the text, empty if there was no text or it was not converted
+         */
+        Optional<?> getValue();
+        
+        /**
+         * @return the exception thrown converting the text
+         */
+        Optional<RuntimeException> getFailure();
+    }
+}
@@ -48,6 +48,54 @@ public final class GlobalVariants {
         return INSTANCE.variants.createVariant(config);
     }
     
+    /**
+     * Create an int Variant by configuration builder callback
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @see VariantFactory#createIntVariant(Consumer)
+     */
+    public static IntVariant createIntVariant(Consumer<Variant.Config.Builder<Integer>> builderConsumer) {
+        return INSTANCE.variants.createIntVariant(builderConsumer);
+    }
+    
+    /**
+     * Create a long Variant by configuration builder callback
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @see VariantFactory#createLongVariant(Consumer)
+     */
+    public static LongVariant createLongVariant(Consumer<Variant.Config.Builder<Long>> builderConsumer) {
+        return INSTANCE.variants.createLongVariant(builderConsumer);
+    }
+    
+    /**
+     * Create a double Variant by configuration builder callback
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @see VariantFactory#createDoubleVariant(Consumer)
+     */
+    public static DoubleVariant createDoubleVariant(Consumer<Variant.Config.Builder<Double>> builderConsumer) {
+        return INSTANCE.variants.createDoubleVariant(builderConsumer);
+    }
+    
+    /**
+     * Create a boolean Variant by configuration builder callback
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @see VariantFactory#createBooleanVariant(Consumer)
+     */
+    public static BooleanVariant createBooleanVariant(Consumer<Variant.Config.Builder<Boolean>> builderConsumer) {
+        return INSTANCE.variants.createBooleanVariant(builderConsumer);
+    }
+    
     /**
      * Create an Environment by configuration
      *
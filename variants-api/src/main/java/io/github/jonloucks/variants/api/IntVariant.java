@@ -0,0 +1,21 @@
+package io.github.jonloucks.variants.api;
+
+/**
+ * Responsibility: A Variant of primitive int values which can be retrieved without boxing.
+ * <p>
+ * Source text is present when it is not null and not blank.
+ * See {@link Environment#getInt(IntVariant)}
+ * </p>
+ */
+public interface IntVariant extends Variant<Integer> {
+    
+    /**
+     * Parses the text directly into an int
+     * Note: only invoked with text that is not null and not blank
+     *
+     * @param rawText the text to be parsed
+     * @return the int value
+     * @throws IllegalArgumentException when the text is not valid
+     */
+    int ofInt(CharSequence rawText);
+}
@@ -0,0 +1,21 @@
+package io.github.jonloucks.variants.api;
+
+/**
+ * Responsibility: A Variant of primitive long values which can be retrieved without boxing.
+ * <p>
+ * Source text is present when it is not null and not blank.
+ * See {@link Environment#getLong(LongVariant)}
+ * </p>
+ */
+public interface LongVariant extends Variant<Long> {
+    
+    /**
+     * Parses the text directly into a long
+     * Note: only invoked with text that is not null and not blank
+     *
+     * @param rawText the text to be parsed
+     * @return the long value
+     * @throws IllegalArgumentException when the text is not valid
+     */
+    long ofLong(CharSequence rawText);
+}
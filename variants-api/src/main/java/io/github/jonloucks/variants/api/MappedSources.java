@@ -0,0 +1,68 @@
+package io.github.jonloucks.variants.api;
+
+import io.github.jonloucks.contracts.api.Contract;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Write and open the compact binary source format.
+ * <p>
+ * The format holds a table of keys sorted for binary search and a pool of the key and value text.
+ * Opening maps the file into memory, lookups read straight from the mapping without parsing the file,
+ * and the operating system shares the pages between every process that opens the same file.
+ * </p>
+ * <p>
+ * Writing is only offered through this interface, there is no command line tool.
+ * Call {@link #write(Properties, Path)} from a build step or a small program to produce the file.
+ * </p>
+ */
+public interface MappedSources {
+    /**
+     * Contract for MappedSources
+     */
+    Contract<MappedSources> CONTRACT = Contract.create(MappedSources.class, b -> b.name("Variant Mapped Sources"));
+    
+    /**
+     * Write the entries of a Map into the binary format.
+     * The file is replaced atomically when the file system supports it.
+     *
+     * @param map the entries, values are converted with toString
+     * @param path the file to write
+     * @throws VariantException if the file can not be written
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    void write(Map<String, ?> map, Path path);
+    
+    /**
+     * Write Properties into the binary format.
+     * See {@link #write(Map, Path)}
+     *
+     * @param properties the Properties
+     * @param path the file to write
+     * @throws VariantException if the file can not be written
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default void write(Properties properties, Path path) {
+        final Properties validProperties = nullCheck(properties, "Properties must be present.");
+        final Map<String, String> map = new HashMap<>();
+        for (String name : validProperties.stringPropertyNames()) {
+            map.put(name, validProperties.getProperty(name));
+        }
+        write(map, path);
+    }
+    
+    /**
+     * Open a file in the binary format as a VariantSource
+     *
+     * @param path the file to open
+     * @return the new source
+     * @throws VariantException if the file can not be read or is not in the binary format
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    VariantSource open(Path path);
+}
@@ -4,9 +4,16 @@ import io.github.jonloucks.contracts.api.Contract;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
 
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
 import static io.github.jonloucks.variants.api.Checks.parserCheck;
 import static io.github.jonloucks.variants.api.Checks.textCheck;
 import static java.util.Optional.ofNullable;
@@ -124,6 +131,61 @@ public interface Parsers {
         return ofTrimAndSkipEmpty(longParser());
     }
 
+    /**
+     * Leading and trailing white space is ignored
+     *
+     * @return a parser that converts a valid text value into an int without boxing
+     */
+    default ToIntFunction<CharSequence> toIntParser() {
+        return text -> {
+            final CharSequence trimmed = trim(textCheck(text));
+            return Integer.parseInt(trimmed, 0, trimmed.length(), 10);
+        };
+    }
+    
+    /**
+     * Leading and trailing white space is ignored
+     *
+     * @return a parser that converts a valid text value into a long without boxing
+     */
+    default ToLongFunction<CharSequence> toLongParser() {
+        return text -> {
+            final CharSequence trimmed = trim(textCheck(text));
+            return Long.parseLong(trimmed, 0, trimmed.length(), 10);
+        };
+    }
+    
+    /**
+     * Leading and trailing white space is ignored
+     *
+     * @return a parser that converts a valid text value into a double without boxing
+     */
+    default ToDoubleFunction<CharSequence> toDoubleParser() {
+        return text -> Double.parseDouble(trim(textCheck(text)).toString());
+    }
+    
+    /**
+     * Leading and trailing white space is ignored.
+     * Same as {@link Boolean#parseBoolean(String)}, only "true" ignoring case is true.
+     *
+     * @return a parser that converts a valid text value into a boolean without boxing
+     */
+    default Predicate<CharSequence> toBooleanParser() {
+        return text -> {
+            final CharSequence trimmed = trim(textCheck(text));
+            final String expected = "true";
+            if (trimmed.length() != expected.length()) {
+                return false;
+            }
+            for (int index = 0; index < expected.length(); index++) {
+                if (Character.toLowerCase(trimmed.charAt(index)) != expected.charAt(index)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+    
     /**
      * @return a parser that converts a valid text value into a Boolean instance
      */
@@ -149,6 +211,26 @@ public interface Parsers {
      */
     <T extends Enum<T>> Function<CharSequence, T> enumParser(Class<T> enumClass);
     
+    /**
+     * A parser that converts a valid text value into an Enum instance.
+     * Text matches a constant name, an alias, or a constant ordinal.
+     * Names and aliases are matched first, so an alias may start with a digit or even be an ordinal.
+     *
+     * @param enumClass the Enum class
+     * @param ignoreCase true if names and aliases match regardless of case
+     * @param aliases additional names for constants
+     * @return A parser that converts a valid text value into an Enum instance
+     * @param <T> the type of Enum
+     * @throws IllegalArgumentException if a name or alias matches more than one constant
+     * @throws VariantException if case or aliases are requested and not supported by these Parsers
+     */
+    default <T extends Enum<T>> Function<CharSequence, T> enumParser(Class<T> enumClass, boolean ignoreCase, Map<String, T> aliases) {
+        if (ignoreCase || !nullCheck(aliases, "Aliases must be present.").isEmpty()) {
+            throw new VariantException("Enum case and aliases are not supported.");
+        }
+        return enumParser(enumClass);
+    }
+    
     /**
      * text conversion to a Enm instance
      *
@@ -161,6 +243,20 @@ public interface Parsers {
         return ofTrimAndSkipEmpty(enumParser(enumClass));
     }
     
+    /**
+     * text conversion to an Enum instance
+     * Input is trimmed and empty values are skipped
+     *
+     * @param enumClass the enum class
+     * @param ignoreCase true if names and aliases match regardless of case
+     * @param aliases additional names for constants
+     * @return a text conversion to an Enum instance
+     * @param <T> the type of Enum
+     */
+    default <T extends Enum<T>> Function<CharSequence, Optional<T>> ofEnum(Class<T> enumClass, boolean ignoreCase, Map<String, T> aliases) {
+        return ofTrimAndSkipEmpty(enumParser(enumClass, ignoreCase, aliases));
+    }
+    
     /**
      * trim leading and trailing white space
      *
@@ -211,4 +307,17 @@ public interface Parsers {
      * @param <T> the return type of the given parser
      */
     <T> Function<CharSequence, Optional<List<T>>> ofList(Function<CharSequence, Optional<T>> of, String delimiter);
+    
+    /**
+     * Split the input text on a single character and parse each part into a list.
+     * Same results as {@link #ofList(Function, String)} with the character as a literal delimiter.
+     *
+     * @param of the delegate text to value function
+     * @param delimiter the character delimiter
+     * @return the new parser
+     * @param <T> the return type of the given parser
+     */
+    default <T> Function<CharSequence, Optional<List<T>>> ofList(Function<CharSequence, Optional<T>> of, char delimiter) {
+        return ofList(of, Pattern.quote(String.valueOf(delimiter)));
+    }
 }
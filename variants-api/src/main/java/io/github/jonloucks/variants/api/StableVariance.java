@@ -0,0 +1,40 @@
+package io.github.jonloucks.variants.api;
+
+import io.github.jonloucks.contracts.api.AutoClose;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Optional;
+
+/**
+ * Responsibility: The variance of a Variant that rarely changes, bound as a constant the JIT can fold.
+ * <p>
+ * The value is only recomputed when a source of the Environment reports a change or the Environment
+ * is invalidated, see {@link Environment#subscribe(Variant, java.util.function.Consumer)}.
+ * Reads never search the sources.
+ * </p>
+ * <p>
+ * For the JIT to fold the value into callers, keep the handle in a {@code static final} field
+ * and call it with {@code (Optional<T>) handle.invokeExact()}. A change then deoptimizes those callers
+ * instead of every read paying for a check.
+ * </p>
+ * Closing stops following changes, the last value is retained.
+ *
+ * @param <T> the type of variance value
+ */
+public interface StableVariance<T> extends AutoClose {
+    
+    /**
+     * @return the Variant
+     */
+    Variant<T> getVariant();
+    
+    /**
+     * @return the current variance
+     */
+    Optional<T> get();
+    
+    /**
+     * @return a handle of type {@code ()Optional} returning the current variance
+     */
+    MethodHandle getHandle();
+}
@@ -0,0 +1,34 @@
+package io.github.jonloucks.variants.api;
+
+import java.util.Optional;
+
+/**
+ * Responsibility: The variances of many Variants resolved together.
+ * See {@link Environment#findVariances(java.util.Collection)}
+ */
+@FunctionalInterface
+public interface Variances {
+    
+    /**
+     * Find a resolved variance.
+     *
+     * @param variant the Variant
+     * @return the optional value, empty if not found or the Variant was not part of the request
+     * @param <T> the type of variance value
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    <T> Optional<T> findVariance(Variant<T> variant);
+    
+    /**
+     * Get a required resolved variance or throw an exception.
+     *
+     * @param variant the Variant
+     * @return the variance
+     * @throws VariantException if not found
+     * @param <T> the type of variance value
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default <T> T getVariance(Variant<T> variant) {
+        return findVariance(variant).orElseThrow(() -> new VariantException("Variant not found. " + variant + "."));
+    }
+}
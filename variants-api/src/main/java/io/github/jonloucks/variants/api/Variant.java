@@ -18,6 +18,7 @@ public interface Variant<T> {
     
     /**
      * The primary use case of getting a property value by key
+     * Note: The keys must not change, an Environment reads them once per Variant.
      * @return the ordered list of keys used to search for values.
      */
     default List<String> getKeys() {
@@ -50,6 +51,7 @@ public interface Variant<T> {
     /**
      * Links can be helpful when a Variant which does not
      * have an explicit value can default the value of another Variant.
+     * Note: The link must not change, an Environment reads it once per Variant.
      * @return The optional link to another Variant
      */
     default Optional<Variant<T>> getLink() {
@@ -104,6 +106,17 @@ public interface Variant<T> {
             return Optional.empty();
         }
         
+        /**
+         * Supplies the fallback each time a lookup needs it.
+         * By default the fallback is evaluated once, when the Variant is created.
+         *
+         * @return the fallback supplier
+         */
+        default Supplier<Optional<T>> getFallbackSupplier() {
+            final Optional<T> fallback = getFallback();
+            return () -> fallback;
+        }
+        
         /**
          * Links can be helpful when a Variant which does not
          * have an explicit value can default the value of another Variant.
@@ -212,6 +225,31 @@ public interface Variant<T> {
              */
             Builder<T> fallback(Supplier<T> fallback);
             
+            /**
+             * Assign a fallback value supplier that is not invoked when the Variant is created,
+             * but the first time a lookup needs the fallback. The value is retained afterward.
+             * A supplier that throws is invoked again by the next lookup.
+             *
+             * @param fallback the fallback value supplier
+             * @return this Builder
+             * @throws VariantException if this builder does not support lazy fallbacks
+             */
+            default Builder<T> lazyFallback(Supplier<T> fallback) {
+                throw new VariantException("Lazy fallbacks are not supported.");
+            }
+            
+            /**
+             * Assign a fallback value supplier that is invoked every time a lookup needs the fallback.
+             * Note: Environments with caching or snapshots enabled retain the resolved variance, including a fallback.
+             *
+             * @param fallback the fallback value supplier
+             * @return this Builder
+             * @throws VariantException if this builder does not support dynamic fallbacks
+             */
+            default Builder<T> dynamicFallback(Supplier<T> fallback) {
+                throw new VariantException("Dynamic fallbacks are not supported.");
+            }
+            
             /**
              * Assign a link
              * @param link the link
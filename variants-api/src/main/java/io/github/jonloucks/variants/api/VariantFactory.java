@@ -43,4 +43,56 @@ public interface VariantFactory {
      * @throws IllegalArgumentException when arguments are null or invalid
      */
     <T> Variant<T> createVariant(Variant.Config<T> config);
+    
+    /**
+     * Create an int Variant by configuration builder callback
+     * Note: If a parser is not assigned the {@link Parsers#toIntParser()} is used, an assigned parser must not return null.
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @throws VariantException if this factory does not support int Variants
+     */
+    default IntVariant createIntVariant(Consumer<Variant.Config.Builder<Integer>> builderConsumer) {
+        throw new VariantException("Int Variants are not supported.");
+    }
+    
+    /**
+     * Create a long Variant by configuration builder callback
+     * Note: If a parser is not assigned the {@link Parsers#toLongParser()} is used, an assigned parser must not return null.
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @throws VariantException if this factory does not support long Variants
+     */
+    default LongVariant createLongVariant(Consumer<Variant.Config.Builder<Long>> builderConsumer) {
+        throw new VariantException("Long Variants are not supported.");
+    }
+    
+    /**
+     * Create a double Variant by configuration builder callback
+     * Note: If a parser is not assigned the {@link Parsers#toDoubleParser()} is used, an assigned parser must not return null.
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @throws VariantException if this factory does not support double Variants
+     */
+    default DoubleVariant createDoubleVariant(Consumer<Variant.Config.Builder<Double>> builderConsumer) {
+        throw new VariantException("Double Variants are not supported.");
+    }
+    
+    /**
+     * Create a boolean Variant by configuration builder callback
+     * Note: If a parser is not assigned the {@link Parsers#toBooleanParser()} is used, an assigned parser must not return null.
+     *
+     * @param builderConsumer receives the configuration builder
+     * @return the new Variant
+     * @throws IllegalArgumentException when arguments are null or invalid
+     * @throws VariantException if this factory does not support boolean Variants
+     */
+    default BooleanVariant createBooleanVariant(Consumer<Variant.Config.Builder<Boolean>> builderConsumer) {
+        throw new VariantException("Boolean Variants are not supported.");
+    }
 }
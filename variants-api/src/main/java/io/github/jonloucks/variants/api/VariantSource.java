@@ -1,6 +1,13 @@
 package io.github.jonloucks.variants.api;
 
+import io.github.jonloucks.contracts.api.AutoClose;
+
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.keysCheck;
 
 /**
  * Responsibility: Retrieve variance in text format
@@ -16,4 +23,35 @@ public interface VariantSource {
      */
     Optional<CharSequence> getSourceText(String key);
     
+    /**
+     * Get the source text of many keys at once.
+     * Sources backed by a file, a socket or a database can override this to answer in one round-trip.
+     * Only keys that have text are passed to the sink, in any order.
+     *
+     * @param keys the variance keys to lookup
+     * @param sink receives each key and its text
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default void getSourceTexts(Collection<String> keys, BiConsumer<String, CharSequence> sink) {
+        final BiConsumer<String, CharSequence> validSink = nullCheck(sink, "Sink must be present.");
+        for (String key : keysCheck(keys)) {
+            final Optional<CharSequence> optionalText = getSourceText(key);
+            if (optionalText.isPresent()) {
+                validSink.accept(key, optionalText.get());
+            }
+        }
+    }
+    
+    /**
+     * Register to be notified when the text of this source may have changed.
+     * Sources that can not detect changes never notify.
+     *
+     * @param listener invoked after a change, possibly on another thread
+     * @return closing removes the listener
+     * @throws IllegalArgumentException when arguments are null or invalid
+     */
+    default AutoClose addChangeListener(Runnable listener) {
+        nullCheck(listener, "Listener must be present.");
+        return AutoClose.NONE;
+    }
 }
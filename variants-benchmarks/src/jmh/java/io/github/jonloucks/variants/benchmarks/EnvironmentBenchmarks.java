@@ -0,0 +1,107 @@
+package io.github.jonloucks.variants.benchmarks;
+
+import io.github.jonloucks.contracts.api.GlobalContracts;
+import io.github.jonloucks.variants.api.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Responsibility: Measure Environment resolution across source counts, key counts and link depths.
+ * The only value lives in the last source under the last key of the deepest link, the worst case search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EnvironmentBenchmarks {
+    
+    @Param({"1", "4", "16"})
+    public int sourceCount;
+    
+    @Param({"1", "4", "16"})
+    public int keyCount;
+    
+    @Param({"0", "2", "8"})
+    public int linkDepth;
+    
+    @Setup
+    public void setup() {
+        final Parsers parsers = GlobalContracts.claimContract(Parsers.CONTRACT);
+        Variant<Integer> link = null;
+        String lastKey = null;
+        for (int depth = linkDepth; depth >= 0; depth--) {
+            final List<String> keys = new ArrayList<>();
+            for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+                keys.add("benchmark.depth" + depth + ".key" + keyIndex);
+            }
+            if (lastKey == null) {
+                lastKey = keys.get(keys.size() - 1);
+            }
+            final Variant<Integer> next = link;
+            link = GlobalVariants.createVariant(b -> {
+                b.keys(keys).of(parsers.ofInteger());
+                if (next != null) {
+                    b.link(next);
+                }
+            });
+        }
+        variant = link;
+        
+        final String valueKey = lastKey;
+        final IntVariant deepest = GlobalVariants.createIntVariant(b -> b.key(valueKey));
+        intVariant = linkDepth == 0 ? deepest : GlobalVariants.createIntVariant(b -> b.key("benchmark.missing").link(deepest));
+        
+        environment = GlobalVariants.createEnvironment(b -> addSources(b, valueKey));
+        cachedEnvironment = GlobalVariants.createEnvironment(b -> addSources(b.useCache(true), valueKey));
+        stableVariance = environment.stable(variant);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        stableVariance.close();
+    }
+    
+    @Benchmark
+    public Optional<Integer> findVariance() {
+        return environment.findVariance(variant);
+    }
+    
+    @Benchmark
+    public Optional<Integer> findVarianceCached() {
+        return cachedEnvironment.findVariance(variant);
+    }
+    
+    @Benchmark
+    public Optional<Integer> stableVariance() {
+        return stableVariance.get();
+    }
+    
+    @Benchmark
+    public int getInt() {
+        return environment.getInt(intVariant);
+    }
+    
+    private void addSources(Environment.Config.Builder builder, String valueKey) {
+        for (int sourceIndex = 0; sourceIndex < sourceCount; sourceIndex++) {
+            final Map<String, String> map = new HashMap<>();
+            for (int filler = 0; filler < 16; filler++) {
+                map.put("benchmark.filler" + sourceIndex + "." + filler, Integer.toString(filler));
+            }
+            if (sourceIndex == sourceCount - 1) {
+                map.put(valueKey, "42");
+            }
+            builder.addMapSource(map);
+        }
+    }
+    
+    private Environment environment;
+    private Environment cachedEnvironment;
+    private StableVariance<Integer> stableVariance;
+    private Variant<Integer> variant;
+    private IntVariant intVariant;
+}
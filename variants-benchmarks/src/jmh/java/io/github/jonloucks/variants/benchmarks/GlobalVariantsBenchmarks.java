@@ -0,0 +1,38 @@
+package io.github.jonloucks.variants.benchmarks;
+
+import io.github.jonloucks.contracts.api.AutoClose;
+import io.github.jonloucks.contracts.api.Contracts;
+import io.github.jonloucks.contracts.api.GlobalContracts;
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.GlobalVariants;
+import io.github.jonloucks.variants.api.Variants;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Responsibility: Measure start up cost, creating and opening Contracts and Variants then resolving a first value
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SingleShotTime, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GlobalVariantsBenchmarks {
+    
+    @Benchmark
+    public Object startup() {
+        final Contracts contracts = GlobalContracts.createContracts(new Contracts.Config() {});
+        try (AutoClose closeContracts = contracts.open()) {
+            final Variants variants = GlobalVariants.createVariants(new Variants.Config() {
+                @Override
+                public Contracts contracts() {
+                    return contracts;
+                }
+            });
+            try (AutoClose closeVariants = variants.open()) {
+                final Environment environment = variants.createEnvironment(b -> b.addSingletonSource("key", "value"));
+                return environment.findVariance(variants.<CharSequence>createVariant(b -> b.key("key").of(Optional::ofNullable)));
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.jonloucks.variants.benchmarks;
+
+import io.github.jonloucks.contracts.api.GlobalContracts;
+import io.github.jonloucks.variants.api.Parsers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Responsibility: Measure Parsers.ofList by list size and delimiter kind
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OfListBenchmarks {
+    
+    @Param({"1", "8", "64"})
+    public int size;
+    
+    @Param({",", ", ", "\\s*,\\s*"})
+    public String delimiter;
+    
+    @Setup
+    public void setup() {
+        final Parsers parsers = GlobalContracts.claimContract(Parsers.CONTRACT);
+        final StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < size; index++) {
+            if (index > 0) {
+                builder.append(", ");
+            }
+            builder.append(index);
+        }
+        text = builder.toString();
+        ofList = parsers.ofList(parsers.ofInteger(), delimiter);
+        ofCharList = parsers.ofList(parsers.ofInteger(), ',');
+    }
+    
+    @Benchmark
+    public Optional<List<Integer>> ofList() {
+        return ofList.apply(text);
+    }
+    
+    @Benchmark
+    public Optional<List<Integer>> ofListByChar() {
+        return ofCharList.apply(text);
+    }
+    
+    private CharSequence text;
+    private Function<CharSequence, Optional<List<Integer>>> ofList;
+    private Function<CharSequence, Optional<List<Integer>>> ofCharList;
+}
@@ -0,0 +1,217 @@
+package io.github.jonloucks.variants.benchmarks;
+
+import io.github.jonloucks.contracts.api.GlobalContracts;
+import io.github.jonloucks.variants.api.Parsers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Responsibility: Measure every Parsers method on representative, untrimmed input.
+ * Parsers are created once in setup, only the parsing is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParsersBenchmarks {
+    
+    @Setup
+    public void setup() {
+        parsers = GlobalContracts.claimContract(Parsers.CONTRACT);
+        stringParser = parsers.stringParser();
+        ofRawString = parsers.ofRawString();
+        ofString = parsers.ofString();
+        booleanParser = parsers.booleanParser();
+        ofBoolean = parsers.ofBoolean();
+        toBooleanParser = parsers.toBooleanParser();
+        floatParser = parsers.floatParser();
+        ofFloat = parsers.ofFloat();
+        doubleParser = parsers.doubleParser();
+        ofDouble = parsers.ofDouble();
+        toDoubleParser = parsers.toDoubleParser();
+        integerParser = parsers.integerParser();
+        ofInteger = parsers.ofInteger();
+        toIntParser = parsers.toIntParser();
+        longParser = parsers.longParser();
+        ofLong = parsers.ofLong();
+        toLongParser = parsers.toLongParser();
+        durationParser = parsers.durationParser();
+        ofDuration = parsers.ofDuration();
+        enumParser = parsers.enumParser(Thread.State.class);
+        ofEnum = parsers.ofEnum(Thread.State.class);
+        ignoreCaseEnumParser = parsers.enumParser(Thread.State.class, true, Collections.emptyMap());
+    }
+    
+    @Benchmark
+    public String stringParser() {
+        return stringParser.apply(TEXT);
+    }
+    
+    @Benchmark
+    public Optional<String> ofRawString() {
+        return ofRawString.apply(PADDED_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<String> ofString() {
+        return ofString.apply(PADDED_TEXT);
+    }
+    
+    @Benchmark
+    public Boolean booleanParser() {
+        return booleanParser.apply(BOOLEAN_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<Boolean> ofBoolean() {
+        return ofBoolean.apply(PADDED_BOOLEAN_TEXT);
+    }
+    
+    @Benchmark
+    public boolean toBooleanParser() {
+        return toBooleanParser.test(PADDED_BOOLEAN_TEXT);
+    }
+    
+    @Benchmark
+    public Float floatParser() {
+        return floatParser.apply(DECIMAL_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<Float> ofFloat() {
+        return ofFloat.apply(PADDED_DECIMAL_TEXT);
+    }
+    
+    @Benchmark
+    public Double doubleParser() {
+        return doubleParser.apply(DECIMAL_TEXT);
+    }
+    
+    @Benchmark
+    public Double doubleParserWithExponent() {
+        return doubleParser.apply(EXPONENT_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<Double> ofDouble() {
+        return ofDouble.apply(PADDED_DECIMAL_TEXT);
+    }
+    
+    @Benchmark
+    public double toDoubleParser() {
+        return toDoubleParser.applyAsDouble(PADDED_DECIMAL_TEXT);
+    }
+    
+    @Benchmark
+    public Integer integerParser() {
+        return integerParser.apply(INTEGER_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<Integer> ofInteger() {
+        return ofInteger.apply(PADDED_INTEGER_TEXT);
+    }
+    
+    @Benchmark
+    public int toIntParser() {
+        return toIntParser.applyAsInt(PADDED_INTEGER_TEXT);
+    }
+    
+    @Benchmark
+    public Long longParser() {
+        return longParser.apply(INTEGER_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<Long> ofLong() {
+        return ofLong.apply(PADDED_INTEGER_TEXT);
+    }
+    
+    @Benchmark
+    public long toLongParser() {
+        return toLongParser.applyAsLong(PADDED_INTEGER_TEXT);
+    }
+    
+    @Benchmark
+    public Duration durationParser() {
+        return durationParser.apply(DURATION_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<Duration> ofDuration() {
+        return ofDuration.apply(PADDED_DURATION_TEXT);
+    }
+    
+    @Benchmark
+    public Thread.State enumParser() {
+        return enumParser.apply(ENUM_TEXT);
+    }
+    
+    @Benchmark
+    public Thread.State enumParserByOrdinal() {
+        return enumParser.apply(ORDINAL_TEXT);
+    }
+    
+    @Benchmark
+    public Thread.State enumParserIgnoreCase() {
+        return ignoreCaseEnumParser.apply(LOWER_ENUM_TEXT);
+    }
+    
+    @Benchmark
+    public Optional<Thread.State> ofEnum() {
+        return ofEnum.apply(PADDED_ENUM_TEXT);
+    }
+    
+    @Benchmark
+    public CharSequence trim() {
+        return parsers.trim(PADDED_TEXT);
+    }
+    
+    private static final CharSequence TEXT = "value";
+    private static final CharSequence PADDED_TEXT = "  value  ";
+    private static final CharSequence BOOLEAN_TEXT = "true";
+    private static final CharSequence PADDED_BOOLEAN_TEXT = " true ";
+    private static final CharSequence DECIMAL_TEXT = "1234.5678";
+    private static final CharSequence PADDED_DECIMAL_TEXT = " 1234.5678 ";
+    private static final CharSequence EXPONENT_TEXT = "1.2345678e3";
+    private static final CharSequence INTEGER_TEXT = "123456";
+    private static final CharSequence PADDED_INTEGER_TEXT = " 123456 ";
+    private static final CharSequence DURATION_TEXT = "PT15M";
+    private static final CharSequence PADDED_DURATION_TEXT = " PT15M ";
+    private static final CharSequence ENUM_TEXT = "TIMED_WAITING";
+    private static final CharSequence LOWER_ENUM_TEXT = "timed_waiting";
+    private static final CharSequence PADDED_ENUM_TEXT = " TIMED_WAITING ";
+    private static final CharSequence ORDINAL_TEXT = "4";
+    
+    private Parsers parsers;
+    private Function<CharSequence, String> stringParser;
+    private Function<CharSequence, Optional<String>> ofRawString;
+    private Function<CharSequence, Optional<String>> ofString;
+    private Function<CharSequence, Boolean> booleanParser;
+    private Function<CharSequence, Optional<Boolean>> ofBoolean;
+    private Predicate<CharSequence> toBooleanParser;
+    private Function<CharSequence, Float> floatParser;
+    private Function<CharSequence, Optional<Float>> ofFloat;
+    private Function<CharSequence, Double> doubleParser;
+    private Function<CharSequence, Optional<Double>> ofDouble;
+    private ToDoubleFunction<CharSequence> toDoubleParser;
+    private Function<CharSequence, Integer> integerParser;
+    private Function<CharSequence, Optional<Integer>> ofInteger;
+    private ToIntFunction<CharSequence> toIntParser;
+    private Function<CharSequence, Long> longParser;
+    private Function<CharSequence, Optional<Long>> ofLong;
+    private ToLongFunction<CharSequence> toLongParser;
+    private Function<CharSequence, Duration> durationParser;
+    private Function<CharSequence, Optional<Duration>> ofDuration;
+    private Function<CharSequence, Thread.State> enumParser;
+    private Function<CharSequence, Optional<Thread.State>> ofEnum;
+    private Function<CharSequence, Thread.State> ignoreCaseEnumParser;
+}
@@ -0,0 +1,50 @@
+package io.github.jonloucks.variants.benchmarks;
+
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.GlobalVariants;
+import io.github.jonloucks.variants.api.IntVariant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Responsibility: Measure system property lookups from many threads, read live from the synchronized
+ * system Properties or from a copy taken once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class SystemSourcesBenchmarks {
+    
+    @Setup
+    public void setup() {
+        System.setProperty(KEY, "42");
+        intVariant = GlobalVariants.createIntVariant(b -> b.key("benchmark.missing").link(
+            GlobalVariants.createIntVariant(l -> l.key(KEY))));
+        liveEnvironment = GlobalVariants.createEnvironment(b -> b.addSystemPropertiesSource());
+        snapshotEnvironment = GlobalVariants.createEnvironment(b -> b.addSystemPropertiesSnapshot());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(KEY);
+    }
+    
+    @Benchmark
+    public OptionalInt findIntLive() {
+        return liveEnvironment.findInt(intVariant);
+    }
+    
+    @Benchmark
+    public OptionalInt findIntSnapshot() {
+        return snapshotEnvironment.findInt(intVariant);
+    }
+    
+    private static final String KEY = "benchmark.system.key";
+    
+    private Environment liveEnvironment;
+    private Environment snapshotEnvironment;
+    private IntVariant intVariant;
+}
@@ -0,0 +1,299 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Parsers;
+import io.github.jonloucks.variants.api.Variances;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static java.util.Collections.singletonList;
+
+/**
+ * Responsibility: Construct objects from the variances of their record components or constructor parameters.
+ * <p>
+ * Built once per class and prefix and shared by every Environment. The Variants, the conversion of each
+ * variance and a spreading MethodHandle to the constructor are derived up front, so binding is one
+ * {@link Environment#findVariances(Collection)} batch and one handle invocation.
+ * </p>
+ * <p>
+ * A binding references its class, so the cache holds it softly. A value of a ClassValue that strongly
+ * references its class keeps the class and its loader from being unloaded.
+ * </p>
+ * <p>
+ * Records are detected reflectively, this module targets a Java release that predates them.
+ * </p>
+ * @param <R> the type of bound object
+ */
+final class BindingImpl<R> {
+    
+    @SuppressWarnings("unchecked")
+    static <R> BindingImpl<R> of(Class<R> type, String prefix) {
+        final Class<R> validType = nullCheck(type, "Type must be present.");
+        final String validPrefix = nullCheck(prefix, "Prefix must be present.");
+        final ConcurrentMap<String, SoftReference<BindingImpl<?>>> bindings = BINDINGS.get(validType);
+        final SoftReference<BindingImpl<?>> reference = bindings.get(validPrefix);
+        final BindingImpl<?> cached = reference == null ? null : reference.get();
+        if (cached != null) {
+            return (BindingImpl<R>) cached;
+        }
+        final BindingImpl<R> binding = new BindingImpl<>(validType, validPrefix);
+        bindings.put(validPrefix, new SoftReference<>(binding));
+        return binding;
+    }
+    
+    R bind(Environment environment) {
+        final Variances variances = nullCheck(environment, "Environment must be present.").findVariances(variantList);
+        final Object[] arguments = new Object[variants.length];
+        for (int index = 0; index < variants.length; index++) {
+            arguments[index] = shapes[index].toArgument(variances, variants[index]);
+        }
+        try {
+            final Object bound = constructor.invokeExact(arguments);
+            return type.cast(bound);
+        } catch (RuntimeException | Error thrown) {
+            throw thrown;
+        } catch (Throwable thrown) {
+            throw new VariantException("Unable to bind " + type.getName() + ".", thrown);
+        }
+    }
+    
+    /**
+     * @return the Variants in constructor order
+     */
+    List<Variant<?>> getVariants() {
+        return variantList;
+    }
+    
+    private BindingImpl(Class<R> type, String prefix) {
+        this.type = type;
+        final Constructor<?> bindConstructor;
+        final String[] names;
+        final Type[] types;
+        final Object[] components = findRecordComponents(type);
+        if (components == null) {
+            bindConstructor = findPublicConstructor(type);
+            final Parameter[] parameters = bindConstructor.getParameters();
+            names = new String[parameters.length];
+            types = new Type[parameters.length];
+            for (int index = 0; index < parameters.length; index++) {
+                if (!parameters[index].isNamePresent()) {
+                    throw new IllegalArgumentException("Constructor parameter names of " + type.getName()
+                        + " are not available, compile with -parameters.");
+                }
+                names[index] = parameters[index].getName();
+                types[index] = parameters[index].getParameterizedType();
+            }
+        } else {
+            names = new String[components.length];
+            types = new Type[components.length];
+            final Class<?>[] rawTypes = new Class<?>[components.length];
+            for (int index = 0; index < components.length; index++) {
+                names[index] = (String) invoke(COMPONENT_NAME, components[index]);
+                types[index] = (Type) invoke(COMPONENT_GENERIC_TYPE, components[index]);
+                rawTypes[index] = (Class<?>) invoke(COMPONENT_TYPE, components[index]);
+            }
+            bindConstructor = findCanonicalConstructor(type, rawTypes);
+        }
+        this.variants = new Variant<?>[names.length];
+        this.shapes = new Shape[names.length];
+        for (int index = 0; index < names.length; index++) {
+            shapes[index] = Shape.of(types[index]);
+            variants[index] = createVariant(type, prefix + names[index], names[index],
+                shapes[index].getValueType(types[index]));
+        }
+        this.variantList = Collections.unmodifiableList(Arrays.asList(variants));
+        this.constructor = toSpreader(type, bindConstructor);
+    }
+    
+    /**
+     * How a variance is passed to the constructor
+     */
+    private enum Shape {
+        REQUIRED,
+        OPTIONAL,
+        OPTIONAL_INT,
+        OPTIONAL_LONG,
+        OPTIONAL_DOUBLE;
+        
+        static Shape of(Type type) {
+            if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Optional.class) {
+                return OPTIONAL;
+            } else if (type == OptionalInt.class) {
+                return OPTIONAL_INT;
+            } else if (type == OptionalLong.class) {
+                return OPTIONAL_LONG;
+            } else if (type == OptionalDouble.class) {
+                return OPTIONAL_DOUBLE;
+            }
+            return REQUIRED;
+        }
+        
+        Type getValueType(Type type) {
+            switch (this) {
+                case OPTIONAL:
+                    return ((ParameterizedType) type).getActualTypeArguments()[0];
+                case OPTIONAL_INT:
+                    return Integer.class;
+                case OPTIONAL_LONG:
+                    return Long.class;
+                case OPTIONAL_DOUBLE:
+                    return Double.class;
+                default:
+                    return type;
+            }
+        }
+        
+        Object toArgument(Variances variances, Variant<?> variant) {
+            switch (this) {
+                case OPTIONAL:
+                    return variances.findVariance(variant);
+                case OPTIONAL_INT: {
+                    final Optional<?> optional = variances.findVariance(variant);
+                    return optional.isPresent() ? OptionalInt.of((Integer) optional.get()) : OptionalInt.empty();
+                }
+                case OPTIONAL_LONG: {
+                    final Optional<?> optional = variances.findVariance(variant);
+                    return optional.isPresent() ? OptionalLong.of((Long) optional.get()) : OptionalLong.empty();
+                }
+                case OPTIONAL_DOUBLE: {
+                    final Optional<?> optional = variances.findVariance(variant);
+                    return optional.isPresent() ? OptionalDouble.of((Double) optional.get()) : OptionalDouble.empty();
+                }
+                default:
+                    return variances.getVariance(variant);
+            }
+        }
+    }
+    
+    private static final ClassValue<ConcurrentMap<String, SoftReference<BindingImpl<?>>>> BINDINGS =
+        new ClassValue<ConcurrentMap<String, SoftReference<BindingImpl<?>>>>() {
+            @Override
+            protected ConcurrentMap<String, SoftReference<BindingImpl<?>>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    
+    private static final Parsers PARSERS = new ParsersImpl();
+    private static final Method GET_RECORD_COMPONENTS = findMethod(Class.class, "getRecordComponents");
+    private static final Class<?> RECORD_COMPONENT = findClass("java.lang.reflect.RecordComponent");
+    private static final Method COMPONENT_NAME = findMethod(RECORD_COMPONENT, "getName");
+    private static final Method COMPONENT_TYPE = findMethod(RECORD_COMPONENT, "getType");
+    private static final Method COMPONENT_GENERIC_TYPE = findMethod(RECORD_COMPONENT, "getGenericType");
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Variant<?> createVariant(Class<?> owner, String key, String name, Type valueType) {
+        final Function<CharSequence, ? extends Optional<?>> of;
+        if (valueType == String.class) {
+            of = PARSERS.ofString();
+        } else if (valueType == int.class || valueType == Integer.class) {
+            of = PARSERS.ofInteger();
+        } else if (valueType == long.class || valueType == Long.class) {
+            of = PARSERS.ofLong();
+        } else if (valueType == double.class || valueType == Double.class) {
+            of = PARSERS.ofDouble();
+        } else if (valueType == float.class || valueType == Float.class) {
+            of = PARSERS.ofFloat();
+        } else if (valueType == boolean.class || valueType == Boolean.class) {
+            of = PARSERS.ofBoolean();
+        } else if (valueType == Duration.class) {
+            of = PARSERS.ofDuration();
+        } else if (valueType instanceof Class && ((Class<?>) valueType).isEnum()) {
+            of = PARSERS.ofEnum((Class) valueType);
+        } else {
+            throw new IllegalArgumentException("Unsupported type " + valueType.getTypeName()
+                + " of '" + name + "' in " + owner.getName() + ".");
+        }
+        final VariantBuilderImpl builder = new VariantBuilderImpl();
+        builder.name(owner.getSimpleName() + "." + name).keys(singletonList(key)).of(of);
+        return new VariantImpl<>(builder);
+    }
+    
+    private static Object[] findRecordComponents(Class<?> type) {
+        return GET_RECORD_COMPONENTS == null ? null : (Object[]) invoke(GET_RECORD_COMPONENTS, type);
+    }
+    
+    private static Constructor<?> findCanonicalConstructor(Class<?> type, Class<?>[] rawTypes) {
+        try {
+            return type.getDeclaredConstructor(rawTypes);
+        } catch (NoSuchMethodException thrown) {
+            throw new IllegalArgumentException("Canonical constructor of " + type.getName() + " not found.", thrown);
+        }
+    }
+    
+    private static Constructor<?> findPublicConstructor(Class<?> type) {
+        final Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1 || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("Bound type " + type.getName()
+                + " must be a record or a concrete class with exactly one public constructor.");
+        }
+        return constructors[0];
+    }
+    
+    private static MethodHandle toSpreader(Class<?> type, Constructor<?> constructor) {
+        try {
+            return MethodHandles.publicLookup().unreflectConstructor(constructor)
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException thrown) {
+            throw new IllegalArgumentException("Bound type " + type.getName()
+                + " and its constructor must be public and exported.", thrown);
+        }
+    }
+    
+    private static Object invoke(Method method, Object target) {
+        try {
+            return method.invoke(target);
+        } catch (IllegalAccessException | InvocationTargetException thrown) {
+            throw new VariantException("Unable to inspect record " + target + ".", thrown);
+        }
+    }
+    
+    /**
+     * @return the public method or null if it does not exist on this Java release
+     */
+    private static Method findMethod(Class<?> type, String name) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException thrown) {
+            return null;
+        }
+    }
+    
+    /**
+     * @return the class or null if it does not exist on this Java release
+     */
+    private static Class<?> findClass(String name) {
+        try {
+            return Class.forName(name, false, Class.class.getClassLoader());
+        } catch (ClassNotFoundException thrown) {
+            return null;
+        }
+    }
+    
+    private final Class<R> type;
+    private final Variant<?>[] variants;
+    private final Shape[] shapes;
+    private final List<Variant<?>> variantList;
+    private final MethodHandle constructor;
+}
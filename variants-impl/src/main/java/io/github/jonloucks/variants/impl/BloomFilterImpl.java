@@ -0,0 +1,65 @@
+package io.github.jonloucks.variants.impl;
+
+/**
+ * Responsibility: Immutable Bloom filter of String keys.
+ * <p>
+ * Probes are derived from {@link String#hashCode()}, which a String caches, so a check
+ * reads no characters. At least 10 bits per key and 4 probes keep false positives under about 1%.
+ * </p>
+ */
+final class BloomFilterImpl {
+    
+    /**
+     * @param keys the keys
+     * @param expectedKeys the number of keys the filter is sized for
+     */
+    BloomFilterImpl(Iterable<String> keys, int expectedKeys) {
+        final int bitCount = Integer.highestOneBit(Math.max(64, Math.min(expectedKeys, 1 << 26) * BITS_PER_KEY) - 1) << 1;
+        this.words = new long[bitCount >>> 6];
+        this.mask = bitCount - 1;
+        for (String key : keys) {
+            final long hash = mix(key.hashCode());
+            final int first = (int) hash;
+            final int step = (int) (hash >>> 32) | 1;
+            for (int probe = 0; probe < PROBES; probe++) {
+                final int bit = (first + probe * step) & mask;
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+    
+    /**
+     * @param key the key
+     * @return false if the key is definitely not present
+     */
+    boolean mightContain(String key) {
+        final long hash = mix(key.hashCode());
+        final int first = (int) hash;
+        final int step = (int) (hash >>> 32) | 1;
+        for (int probe = 0; probe < PROBES; probe++) {
+            final int bit = (first + probe * step) & mask;
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Spread the 32-bit hash into two independent halves, the MurmurHash3 finalizer
+     */
+    private static long mix(int hashCode) {
+        long hash = hashCode * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+    
+    private static final int BITS_PER_KEY = 10;
+    private static final int PROBES = 4;
+    
+    private final long[] words;
+    private final int mask;
+}
@@ -0,0 +1,38 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.BooleanVariant;
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Immutable BooleanVariant implementation.
+ */
+final class BooleanVariantImpl extends PrimitiveVariantImpl<Boolean> implements BooleanVariant {
+    @Override
+    public boolean ofBoolean(CharSequence rawText) {
+        return parser.test(rawText);
+    }
+    
+    BooleanVariantImpl(Variant.Config<Boolean> config, Predicate<CharSequence> defaultParser) {
+        super(config);
+        final Optional<Function<CharSequence, Boolean>> optionalParser = config.getParser();
+        if (optionalParser.isPresent()) {
+            final Function<CharSequence, Boolean> validParser = requireValue(optionalParser.get());
+            this.parser = text -> validParser.apply(text).booleanValue();
+        } else {
+            this.parser = nullCheck(defaultParser, "Parser must be present.");
+        }
+    }
+    
+    @Override
+    Boolean box(CharSequence rawText) {
+        return ofBoolean(rawText);
+    }
+    
+    private final Predicate<CharSequence> parser;
+}
@@ -0,0 +1,61 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: VariantSource answering from an immutable copy of another source, copied again on refresh.
+ * <p>
+ * Lookups read a plain hash table without locking, unlike the synchronized system Properties.
+ * An Environment refreshes the copy when it is invalidated, see {@link EnvironmentImpl#refreshSources()}.
+ * </p>
+ */
+final class CopiedSourceImpl implements EnumerableVariantSource {
+    
+    @Override
+    public Optional<CharSequence> getSourceText(String key) {
+        return copy.getSourceText(key);
+    }
+    
+    @Override
+    public Collection<String> getKeys() {
+        return copy.getKeys();
+    }
+    
+    @Override
+    public int getSizeHint() {
+        return copy.getSizeHint();
+    }
+    
+    @Override
+    public long getKeysVersion() {
+        return version;
+    }
+    
+    /**
+     * Copy the source again and swap the copy in atomically
+     */
+    synchronized void refresh() {
+        copy = copy(source);
+        version++;
+    }
+    
+    CopiedSourceImpl(EnumerableVariantSource source) {
+        this.source = nullCheck(source, "Source must be present.");
+        this.copy = copy(source);
+    }
+    
+    private static SnapshotSourceImpl copy(EnumerableVariantSource source) {
+        // a source listing its keys is copied completely
+        return new SnapshotSourceImpl(source, Collections.<String>emptyList());
+    }
+    
+    private final EnumerableVariantSource source;
+    private volatile SnapshotSourceImpl copy;
+    private volatile long version;
+}
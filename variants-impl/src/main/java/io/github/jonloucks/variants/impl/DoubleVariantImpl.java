@@ -0,0 +1,38 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.DoubleVariant;
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Immutable DoubleVariant implementation.
+ */
+final class DoubleVariantImpl extends PrimitiveVariantImpl<Double> implements DoubleVariant {
+    @Override
+    public double ofDouble(CharSequence rawText) {
+        return parser.applyAsDouble(rawText);
+    }
+    
+    DoubleVariantImpl(Variant.Config<Double> config, ToDoubleFunction<CharSequence> defaultParser) {
+        super(config);
+        final Optional<Function<CharSequence, Double>> optionalParser = config.getParser();
+        if (optionalParser.isPresent()) {
+            final Function<CharSequence, Double> validParser = requireValue(optionalParser.get());
+            this.parser = text -> validParser.apply(text).doubleValue();
+        } else {
+            this.parser = nullCheck(defaultParser, "Parser must be present.");
+        }
+    }
+    
+    @Override
+    Double box(CharSequence rawText) {
+        return ofDouble(rawText);
+    }
+    
+    private final ToDoubleFunction<CharSequence> parser;
+}
@@ -1,5 +1,6 @@
 package io.github.jonloucks.variants.impl;
 
+import java.util.Map;
 import java.util.function.Function;
 
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
@@ -9,7 +10,16 @@ import static java.lang.Character.isDigit;
 final class EnumParserImpl<T extends Enum<T>> {
     EnumParserImpl(Class<T> enumClass) {
         this.enumClass = nullCheck(enumClass, "Enum class must be present.");
-        this.constants = nullCheck(enumClass.getEnumConstants(), "Unsupported enum class.");
+        this.table = EnumTableImpl.shared(enumClass, false);
+    }
+    
+    EnumParserImpl(Class<T> enumClass, boolean ignoreCase, Map<String, T> aliases) {
+        this.enumClass = nullCheck(enumClass, "Enum class must be present.");
+        if (nullCheck(aliases, "Aliases must be present.").isEmpty()) {
+            this.table = EnumTableImpl.shared(enumClass, ignoreCase);
+        } else {
+            this.table = new EnumTableImpl<>(enumClass, ignoreCase, aliases);
+        }
     }
     
     Function<CharSequence, T> compile() {
@@ -18,18 +28,18 @@ final class EnumParserImpl<T extends Enum<T>> {
             if (validChars.length() == 0) {
                 throw new IllegalArgumentException("Enum text must not be empty.");
             }
-            try {
-                if (isDigit(validChars.charAt(0))) {
-                    return constants[Integer.parseInt(validChars.toString())];
-                } else {
-                    return Enum.valueOf(enumClass, validChars.toString());
-                }
-            } catch (Exception thrown) {
-                throw new IllegalArgumentException("Invalid " + enumClass.getSimpleName() + " value '" + validChars + "'.", thrown);
+            // an alias such as "2x" may start with a digit, ordinals are only tried when nothing matches
+            T constant = table.find(validChars);
+            if (constant == null && isDigit(validChars.charAt(0))) {
+                constant = table.findOrdinal(validChars);
+            }
+            if (constant == null) {
+                throw new IllegalArgumentException("Invalid " + enumClass.getSimpleName() + " value '" + validChars + "'.");
             }
+            return constant;
         };
     }
     
     private final Class<T> enumClass;
-    private final T[] constants;
+    private final EnumTableImpl<T> table;
 }
@@ -0,0 +1,144 @@
+package io.github.jonloucks.variants.impl;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Open addressing lookup of enum constants by CharSequence content.
+ * Built once and read without locking; tables without aliases are shared per enum class.
+ */
+final class EnumTableImpl<T extends Enum<T>> {
+    
+    @SuppressWarnings("unchecked")
+    static <T extends Enum<T>> EnumTableImpl<T> shared(Class<T> enumClass, boolean ignoreCase) {
+        return (EnumTableImpl<T>) (ignoreCase ? IGNORE_CASE_TABLES : EXACT_TABLES).get(enumClass);
+    }
+    
+    EnumTableImpl(Class<T> enumClass, boolean ignoreCase, Map<String, T> aliases) {
+        final T[] constants = nullCheck(nullCheck(enumClass, "Enum class must be present.").getEnumConstants(),
+            "Unsupported enum class.");
+        final Map<String, T> validAliases = nullCheck(aliases, "Aliases must be present.");
+        final int capacity = Integer.highestOneBit(Math.max(2, (constants.length + validAliases.size()) * 2) - 1) << 1;
+        this.ignoreCase = ignoreCase;
+        this.keys = new String[capacity];
+        this.values = constants;
+        this.slots = new Enum<?>[capacity];
+        this.mask = capacity - 1;
+        for (T constant : constants) {
+            put(constant.name(), constant);
+        }
+        validAliases.forEach((alias, constant) -> put(
+            nullCheck(alias, "Alias must be present."),
+            nullCheck(constant, "Alias value must be present.")));
+    }
+    
+    /**
+     * @param text the text to find
+     * @return the matching constant, or null if there is none
+     */
+    T find(CharSequence text) {
+        for (int slot = hash(text) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (matches(keys[slot], text)) {
+                return cast(slots[slot]);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Decimal digits only, parsed in place
+     *
+     * @param text the text
+     * @return the constant at the ordinal, or null if the text is not an ordinal in range
+     */
+    T findOrdinal(CharSequence text) {
+        final int length = text.length();
+        int ordinal = 0;
+        for (int index = 0; index < length; index++) {
+            final int digit = Character.digit(text.charAt(index), 10);
+            if (digit < 0) {
+                return null;
+            }
+            ordinal = ordinal * 10 + digit;
+            if (ordinal >= values.length) {
+                return null;
+            }
+        }
+        return length == 0 ? null : values[ordinal];
+    }
+    
+    private static final ClassValue<EnumTableImpl<?>> EXACT_TABLES = new ClassValue<EnumTableImpl<?>>() {
+        @Override
+        protected EnumTableImpl<?> computeValue(Class<?> type) {
+            return create(type, false);
+        }
+    };
+    
+    private static final ClassValue<EnumTableImpl<?>> IGNORE_CASE_TABLES = new ClassValue<EnumTableImpl<?>>() {
+        @Override
+        protected EnumTableImpl<?> computeValue(Class<?> type) {
+            return create(type, true);
+        }
+    };
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static EnumTableImpl<?> create(Class<?> type, boolean ignoreCase) {
+        if (!type.isEnum()) {
+            throw new IllegalArgumentException("Unsupported enum class.");
+        }
+        return new EnumTableImpl(type, ignoreCase, Collections.emptyMap());
+    }
+    
+    private void put(String key, T constant) {
+        int slot = hash(key) & mask;
+        for (; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (matches(keys[slot], key)) {
+                if (slots[slot] != constant) {
+                    throw new IllegalArgumentException("Ambiguous enum value '" + key + "'.");
+                }
+                return;
+            }
+        }
+        keys[slot] = key;
+        slots[slot] = constant;
+    }
+    
+    private int hash(CharSequence text) {
+        int hash = 0;
+        final int length = text.length();
+        for (int index = 0; index < length; index++) {
+            hash = 31 * hash + fold(text.charAt(index));
+        }
+        return hash ^ (hash >>> 16);
+    }
+    
+    private boolean matches(String key, CharSequence text) {
+        final int length = key.length();
+        if (length != text.length()) {
+            return false;
+        }
+        for (int index = 0; index < length; index++) {
+            if (fold(key.charAt(index)) != fold(text.charAt(index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private char fold(char ch) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(ch)) : ch;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private T cast(Enum<?> constant) {
+        return (T) constant;
+    }
+    
+    private final boolean ignoreCase;
+    private final String[] keys;
+    private final Enum<?>[] slots;
+    private final T[] values;
+    private final int mask;
+}
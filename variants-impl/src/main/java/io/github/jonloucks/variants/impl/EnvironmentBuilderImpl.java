@@ -1,10 +1,13 @@
 package io.github.jonloucks.variants.impl;
 
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
 import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.EnvironmentListener;
 import io.github.jonloucks.variants.api.VariantSource;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
 
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
 
@@ -19,14 +22,113 @@ final class EnvironmentBuilderImpl implements Environment.Config.Builder {
         return this;
     }
     
+    @Override
+    public EnvironmentBuilderImpl addFileSource(Path path, Duration interval) {
+        return addSource(new FileSourceImpl(path, interval));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl addMappedSource(Path path) {
+        return addSource(new MappedSourceImpl(path));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl addMapSource(Map<String, ?> map) {
+        return addSource(new MapSourceImpl(map, EnumerableVariantSource.UNKNOWN_VERSION));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl addPropertiesSource(Properties properties) {
+        final Properties validProperties = nullCheck(properties, "Properties must be present.");
+        return addSource(new PropertiesSourceImpl(() -> validProperties));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl addSystemPropertiesSource() {
+        return addSource(new PropertiesSourceImpl(System::getProperties));
+    }
+    
+    /**
+     * The environment of the process does not change, its keys version is constant
+     */
+    @Override
+    public EnvironmentBuilderImpl addSystemEnvironmentSource() {
+        return addSource(new MapSourceImpl(System.getenv(), 0));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl addSystemPropertiesSnapshot() {
+        return addSource(new CopiedSourceImpl(new PropertiesSourceImpl(System::getProperties)));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl addSystemEnvironmentSnapshot() {
+        return addSource(new CopiedSourceImpl(new MapSourceImpl(System.getenv(), 0)));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl addSingletonSource(String key, CharSequence text) {
+        return addSource(new SingletonSourceImpl(key, text));
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl useCache(boolean useCache) {
+        this.useCache = useCache;
+        return this;
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl useSnapshots(boolean useSnapshots) {
+        this.useSnapshots = useSnapshots;
+        return this;
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl useIndex(boolean useIndex) {
+        this.useIndex = useIndex;
+        return this;
+    }
+    
+    @Override
+    public EnvironmentBuilderImpl listener(EnvironmentListener listener) {
+        this.listener = nullCheck(listener, "Listener must be present.");
+        return this;
+    }
+    
     @Override
     public List<VariantSource> getSources() {
         return sources;
     }
     
+    @Override
+    public boolean useCache() {
+        return useCache;
+    }
+    
+    @Override
+    public boolean useSnapshots() {
+        return useSnapshots;
+    }
+    
+    @Override
+    public boolean useIndex() {
+        return useIndex;
+    }
+    
+    @Override
+    public EnvironmentListener getListener() {
+        return listener;
+    }
+    
     EnvironmentBuilderImpl() {
     }
     
     
     private final List<VariantSource> sources = new ArrayList<>();
+    private boolean useCache = DEFAULT_CONFIG.useCache();
+    private boolean useSnapshots = DEFAULT_CONFIG.useSnapshots();
+    private boolean useIndex = DEFAULT_CONFIG.useIndex();
+    private EnvironmentListener listener = DEFAULT_CONFIG.getListener();
+    
+    private static final Environment.Config DEFAULT_CONFIG = new Environment.Config() {};
 }
@@ -2,10 +2,12 @@ package io.github.jonloucks.variants.impl;
 
 import io.github.jonloucks.variants.api.Environment;
 import io.github.jonloucks.variants.api.EnvironmentFactory;
+import io.github.jonloucks.variants.api.EnvironmentMetrics;
 
 import java.util.function.Consumer;
 
 import static io.github.jonloucks.contracts.api.Checks.builderConsumerCheck;
+import static io.github.jonloucks.contracts.api.Checks.configCheck;
 
 /**
  * Responsibility: EnvironmentFactory implementation
@@ -13,7 +15,11 @@ import static io.github.jonloucks.contracts.api.Checks.builderConsumerCheck;
 final class EnvironmentFactoryImpl implements EnvironmentFactory {
     @Override
     public Environment createEnvironment(Environment.Config config) {
-        return new EnvironmentImpl(config);
+        final Environment.Config validConfig = configCheck(config);
+        if (validConfig.useSnapshots()) {
+            return new ReloadableEnvironmentImpl(validConfig);
+        }
+        return new EnvironmentImpl(validConfig);
     }
     
     @Override
@@ -21,6 +27,11 @@ final class EnvironmentFactoryImpl implements EnvironmentFactory {
         final Consumer<Environment.Config.Builder> validBuilderConsumer = builderConsumerCheck(builderConsumer);
         final EnvironmentBuilderImpl builder = new EnvironmentBuilderImpl();
         validBuilderConsumer.accept(builder);
-        return new EnvironmentImpl(builder);
+        return createEnvironment(builder);
+    }
+    
+    @Override
+    public EnvironmentMetrics createMetrics() {
+        return new EnvironmentMetricsImpl();
     }
 }
@@ -1,14 +1,24 @@
 package io.github.jonloucks.variants.impl;
 
-import io.github.jonloucks.variants.api.Environment;
-import io.github.jonloucks.variants.api.Variant;
-import io.github.jonloucks.variants.api.VariantSource;
+import io.github.jonloucks.contracts.api.AutoClose;
+import io.github.jonloucks.variants.api.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import static io.github.jonloucks.contracts.api.Checks.configCheck;
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
 
 /**
  * Responsibility: Environment implementation
@@ -17,12 +27,285 @@ final class EnvironmentImpl implements Environment {
 
     @Override
     public <T> Optional<T> findVariance(Variant<T> variant) {
-        return new FindVariantImpl<>(sources, variant).findVariance();
+        final Variant<T> validVariant = variantCheck(variant);
+        if (useCache) {
+            return findCachedVariance(validVariant);
+        }
+        return resolve(validVariant);
+    }
+    
+    @Override
+    public <T> AutoClose subscribe(Variant<T> variant, Consumer<Optional<T>> consumer) {
+        return subscriptions.subscribe(variant, consumer);
+    }
+    
+    @Override
+    public <T> Explanation<T> explain(Variant<T> variant) {
+        return new ExplainVariantImpl<>(sources, getPlan(variantCheck(variant))).explain();
+    }
+    
+    @Override
+    public <R> R bind(Class<R> type, String prefix) {
+        return BindingImpl.of(type, prefix).bind(this);
+    }
+    
+    @Override
+    public Variances findVariances(Collection<? extends Variant<?>> variants) {
+        final ConcurrentHashMap<Variant<?>, Optional<?>> currentVariances = variances;
+        final Map<Variant<?>, Optional<?>> found = new HashMap<>();
+        final Map<Variant<?>, VariantPlanImpl<?>> pending = new LinkedHashMap<>();
+        for (Variant<?> variant : nullCheck(variants, "Variants must be present.")) {
+            final Variant<?> validVariant = variantCheck(variant);
+            final Optional<?> cached = useCache ? currentVariances.get(validVariant) : null;
+            if (cached != null) {
+                found.put(validVariant, cached);
+            } else if (!pending.containsKey(validVariant)) {
+                pending.put(validVariant, getPlan(validVariant));
+            }
+        }
+        if (!pending.isEmpty()) {
+            final Map<Variant<?>, Optional<?>> resolved = index == null
+                ? new FindVariancesImpl(sources, filters, pending.values(), listener).findVariances()
+                : findIndexedVariances(pending.values());
+            for (Map.Entry<Variant<?>, Optional<?>> entry : resolved.entrySet()) {
+                final Optional<?> existing = useCache ? cache(currentVariances, entry.getKey(), entry.getValue()) : null;
+                found.put(entry.getKey(), existing == null ? entry.getValue() : existing);
+            }
+        }
+        return new VariancesImpl(found);
+    }
+    
+    @Override
+    public OptionalInt findInt(IntVariant variant) {
+        variantCheck(variant);
+        if (useCache || listener != null || index != null) {
+            return Environment.super.findInt(variant);
+        }
+        final FindVariantImpl<Integer> find = newFindVariant(variant);
+        return find.findPrimitive() ? OptionalInt.of(find.getInt()) : OptionalInt.empty();
+    }
+    
+    @Override
+    public int getInt(IntVariant variant) {
+        variantCheck(variant);
+        if (useCache || listener != null || index != null) {
+            return Environment.super.getInt(variant);
+        }
+        final FindVariantImpl<Integer> find = newFindVariant(variant);
+        find.findPrimitive();
+        return find.getInt();
+    }
+    
+    @Override
+    public OptionalLong findLong(LongVariant variant) {
+        variantCheck(variant);
+        if (useCache || listener != null || index != null) {
+            return Environment.super.findLong(variant);
+        }
+        final FindVariantImpl<Long> find = newFindVariant(variant);
+        return find.findPrimitive() ? OptionalLong.of(find.getLong()) : OptionalLong.empty();
+    }
+    
+    @Override
+    public long getLong(LongVariant variant) {
+        variantCheck(variant);
+        if (useCache || listener != null || index != null) {
+            return Environment.super.getLong(variant);
+        }
+        final FindVariantImpl<Long> find = newFindVariant(variant);
+        find.findPrimitive();
+        return find.getLong();
+    }
+    
+    @Override
+    public OptionalDouble findDouble(DoubleVariant variant) {
+        variantCheck(variant);
+        if (useCache || listener != null || index != null) {
+            return Environment.super.findDouble(variant);
+        }
+        final FindVariantImpl<Double> find = newFindVariant(variant);
+        return find.findPrimitive() ? OptionalDouble.of(find.getDouble()) : OptionalDouble.empty();
+    }
+    
+    @Override
+    public double getDouble(DoubleVariant variant) {
+        variantCheck(variant);
+        if (useCache || listener != null || index != null) {
+            return Environment.super.getDouble(variant);
+        }
+        final FindVariantImpl<Double> find = newFindVariant(variant);
+        find.findPrimitive();
+        return find.getDouble();
+    }
+    
+    @Override
+    public boolean getBoolean(BooleanVariant variant) {
+        variantCheck(variant);
+        if (useCache || listener != null || index != null) {
+            return Environment.super.getBoolean(variant);
+        }
+        final FindVariantImpl<Boolean> find = newFindVariant(variant);
+        find.findPrimitive();
+        return find.getBoolean();
+    }
+    
+    @Override
+    public void invalidate() {
+        refreshSources();
+        if (useCache) {
+            variances = new ConcurrentHashMap<>();
+        }
+        subscriptions.publish();
+    }
+    
+    @Override
+    public SnapshotEnvironmentImpl snapshot() {
+        return new SnapshotEnvironmentImpl(sources, knownKeys, useIndex, listener);
+    }
+    
+    @Override
+    public Environment overlay(VariantSource... overlays) {
+        return new OverlayEnvironmentImpl(this, this, subscriptions, overlays);
     }
     
     EnvironmentImpl(Environment.Config config) {
-        sources.addAll(configCheck(config).getSources());
+        final Environment.Config validConfig = configCheck(config);
+        this.sources = nullCheck(validConfig.getSources(), "Sources must be present.").toArray(new VariantSource[0]);
+        this.useIndex = validConfig.useIndex();
+        this.index = useIndex ? SourceIndexImpl.create(sources) : null;
+        this.filters = index == null ? SourceFilterImpl.create(sources) : null;
+        this.useCache = validConfig.useCache();
+        this.listener = ListenerImpl.create(nullCheck(validConfig.getListener(), "Listener must be present."));
+        this.subscriptions = new SubscriptionsImpl(sources, this);
     }
     
-    private final List<VariantSource> sources = new ArrayList<>();
+    EnvironmentImpl(VariantSource[] sources, boolean useCache, boolean useIndex, ListenerImpl listener) {
+        this.sources = nullCheck(sources, "Sources must be present.");
+        this.useIndex = useIndex;
+        this.index = useIndex ? SourceIndexImpl.create(sources) : null;
+        this.filters = index == null ? SourceFilterImpl.create(sources) : null;
+        this.useCache = useCache;
+        this.listener = listener;
+        this.subscriptions = new SubscriptionsImpl(sources, this);
+    }
+    
+    VariantSource[] getSources() {
+        return sources;
+    }
+    
+    /**
+     * Copy the sources that were copied once again, such as a snapshot of the system properties
+     */
+    void refreshSources() {
+        refreshSources(sources);
+    }
+    
+    /**
+     * Copy the sources that are copied once again, see {@link CopiedSourceImpl}
+     */
+    static void refreshSources(VariantSource[] sources) {
+        for (VariantSource source : sources) {
+            if (source instanceof CopiedSourceImpl) {
+                ((CopiedSourceImpl) source).refresh();
+            }
+        }
+    }
+    
+    SubscriptionsImpl getSubscriptions() {
+        return subscriptions;
+    }
+    
+    /**
+     * @param overlays the sources consulted before the sources of this Environment
+     * @return an immutable snapshot of the overlays and the sources of this Environment
+     */
+    SnapshotEnvironmentImpl snapshot(VariantSource[] overlays) {
+        final VariantSource[] combined = Arrays.copyOf(overlays, overlays.length + sources.length);
+        System.arraycopy(sources, 0, combined, overlays.length, sources.length);
+        return new SnapshotEnvironmentImpl(combined, knownKeys, useIndex, listener);
+    }
+    
+    /**
+     * The plan of a Variant is retained for the first {@link #MAX_PLANS} Variants,
+     * later Variants are planned again on every lookup so Variants created on the fly do not leak.
+     * The keys are recorded up to {@link #MAX_KNOWN_KEYS}, a snapshot copies them from sources that can not
+     * list their keys and answers later keys from those sources.
+     */
+    @SuppressWarnings("unchecked")
+    <T> VariantPlanImpl<T> getPlan(Variant<T> variant) {
+        final VariantPlanImpl<?> plan = plans.get(variant);
+        if (plan != null) {
+            return (VariantPlanImpl<T>) plan;
+        }
+        final VariantPlanImpl<T> compiled = new VariantPlanImpl<>(variant);
+        if (knownKeys.size() < MAX_KNOWN_KEYS) {
+            knownKeys.addAll(compiled.getDistinctKeys());
+        }
+        if (plans.size() >= MAX_PLANS) {
+            return compiled;
+        }
+        final VariantPlanImpl<?> existing = plans.putIfAbsent(variant, compiled);
+        return existing == null ? compiled : (VariantPlanImpl<T>) existing;
+    }
+    
+    private <T> Optional<T> resolve(Variant<T> variant) {
+        if (index != null) {
+            return index.findVariance(getPlan(variant), listener);
+        }
+        return newFindVariant(variant).findVariance();
+    }
+    
+    private Map<Variant<?>, Optional<?>> findIndexedVariances(Collection<VariantPlanImpl<?>> pending) {
+        final Map<Variant<?>, Optional<?>> resolved = new HashMap<>(pending.size() * 2);
+        for (VariantPlanImpl<?> plan : pending) {
+            resolved.put(plan.getVariant(), index.findVariance(plan, listener));
+        }
+        return resolved;
+    }
+    
+    private <T> FindVariantImpl<T> newFindVariant(Variant<T> variant) {
+        return new FindVariantImpl<>(sources, filters, getPlan(variant), listener);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> findCachedVariance(Variant<T> variant) {
+        // read once, an invalidate while resolving must not receive a stale variance
+        final ConcurrentHashMap<Variant<?>, Optional<?>> currentVariances = variances;
+        final Optional<?> cached = currentVariances.get(variant);
+        if (cached != null) {
+            return (Optional<T>) cached;
+        }
+        final Optional<T> resolved = resolve(variant);
+        final Optional<?> existing = cache(currentVariances, variant, resolved);
+        return existing == null ? resolved : (Optional<T>) existing;
+    }
+    
+    /**
+     * The variances of the first {@link #MAX_VARIANCES} Variants are cached until invalidated,
+     * later Variants are resolved again on every lookup so Variants created on the fly do not leak.
+     *
+     * @return the variance already cached, or null
+     */
+    private static Optional<?> cache(ConcurrentHashMap<Variant<?>, Optional<?>> currentVariances,
+                                     Variant<?> variant, Optional<?> variance) {
+        if (currentVariances.size() >= MAX_VARIANCES) {
+            return currentVariances.get(variant);
+        }
+        return currentVariances.putIfAbsent(variant, variance);
+    }
+    
+    private static final int MAX_VARIANCES = 4096;
+    private static final int MAX_PLANS = 4096;
+    private static final int MAX_KNOWN_KEYS = 4 * MAX_PLANS;
+    
+    private final VariantSource[] sources;
+    private final SourceFilterImpl[] filters;
+    private final SourceIndexImpl index;
+    private final boolean useIndex;
+    private final boolean useCache;
+    private final ListenerImpl listener;
+    private final SubscriptionsImpl subscriptions;
+    private final ConcurrentHashMap<Variant<?>, VariantPlanImpl<?>> plans = new ConcurrentHashMap<>();
+    private final Set<String> knownKeys = ConcurrentHashMap.newKeySet();
+    private volatile ConcurrentHashMap<Variant<?>, Optional<?>> variances = new ConcurrentHashMap<>();
 }
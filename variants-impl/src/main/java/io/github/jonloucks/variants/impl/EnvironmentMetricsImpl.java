@@ -0,0 +1,177 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnvironmentMetrics;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
+
+/**
+ * Responsibility: EnvironmentMetrics implementation
+ * <p>
+ * Variants are counted by name, so Variants created on the fly for the same name share their counters.
+ * At most {@link #MAX_COUNTERS} names and sources are counted, later ones are not, so per-request Variants
+ * and overlay sources do not leak.
+ * </p>
+ */
+final class EnvironmentMetricsImpl implements EnvironmentMetrics {
+    
+    @Override
+    public void onSourceLookup(VariantSource source, boolean found, long nanos) {
+        final SourceCounters counters = getSourceCounters(source);
+        if (counters == null) {
+            return;
+        }
+        counters.lookups.increment();
+        if (found) {
+            counters.hits.increment();
+        }
+        counters.latencies.incrementAndGet(Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos))));
+    }
+    
+    @Override
+    public void onResolved(Variant<?> variant, boolean found) {
+        final VariantCounters counters = getVariantCounters(variant);
+        if (counters != null) {
+            (found ? counters.hits : counters.misses).increment();
+        }
+    }
+    
+    @Override
+    public void onParseFailure(Variant<?> variant, String key, CharSequence text) {
+        final VariantCounters counters = getVariantCounters(variant);
+        if (counters != null) {
+            counters.parseFailures.increment();
+        }
+    }
+    
+    @Override
+    public void onFallback(Variant<?> variant, Variant<?> fallbackVariant) {
+        final VariantCounters counters = getVariantCounters(variant);
+        if (counters != null) {
+            counters.fallbacks.increment();
+        }
+    }
+    
+    @Override
+    public long getLookups(VariantSource source) {
+        final SourceCounters counters = sources.get(sourceCheck(source));
+        return counters == null ? 0 : counters.lookups.sum();
+    }
+    
+    @Override
+    public long getHits(VariantSource source) {
+        final SourceCounters counters = sources.get(sourceCheck(source));
+        return counters == null ? 0 : counters.hits.sum();
+    }
+    
+    @Override
+    public long[] getLatencies(VariantSource source) {
+        final SourceCounters counters = sources.get(sourceCheck(source));
+        final long[] latencies = new long[LATENCY_BUCKETS];
+        if (counters != null) {
+            for (int index = 0; index < LATENCY_BUCKETS; index++) {
+                latencies[index] = counters.latencies.get(index);
+            }
+        }
+        return latencies;
+    }
+    
+    @Override
+    public long getHits(Variant<?> variant) {
+        final VariantCounters counters = variants.get(nameOf(variantCheck(variant)));
+        return counters == null ? 0 : counters.hits.sum();
+    }
+    
+    @Override
+    public long getMisses(Variant<?> variant) {
+        final VariantCounters counters = variants.get(nameOf(variantCheck(variant)));
+        return counters == null ? 0 : counters.misses.sum();
+    }
+    
+    @Override
+    public long getFallbacks(Variant<?> variant) {
+        final VariantCounters counters = variants.get(nameOf(variantCheck(variant)));
+        return counters == null ? 0 : counters.fallbacks.sum();
+    }
+    
+    @Override
+    public long getParseFailures(Variant<?> variant) {
+        final VariantCounters counters = variants.get(nameOf(variantCheck(variant)));
+        return counters == null ? 0 : counters.parseFailures.sum();
+    }
+    
+    @Override
+    public void reset() {
+        sources.clear();
+        variants.clear();
+    }
+    
+    EnvironmentMetricsImpl() {
+    
+    }
+    
+    /**
+     * @return the counters, or null if the source is not counted
+     */
+    private SourceCounters getSourceCounters(VariantSource source) {
+        final SourceCounters counters = sources.get(source);
+        if (counters != null || sources.size() >= MAX_COUNTERS) {
+            return counters;
+        }
+        return sources.computeIfAbsent(source, s -> new SourceCounters());
+    }
+    
+    /**
+     * @return the counters, or null if the name of the Variant is not counted
+     */
+    private VariantCounters getVariantCounters(Variant<?> variant) {
+        final String name = nameOf(variant);
+        final VariantCounters counters = variants.get(name);
+        if (counters != null || variants.size() >= MAX_COUNTERS) {
+            return counters;
+        }
+        return variants.computeIfAbsent(name, v -> new VariantCounters());
+    }
+    
+    /**
+     * @return the name of the Variant, otherwise its first key
+     */
+    private static String nameOf(Variant<?> variant) {
+        final Optional<String> name = variant.getName();
+        if (name.isPresent()) {
+            return name.get();
+        }
+        final List<String> keys = variant.getKeys();
+        return keys.isEmpty() ? "" : keys.get(0);
+    }
+    
+    private static VariantSource sourceCheck(VariantSource source) {
+        return nullCheck(source, "Source must be present.");
+    }
+    
+    private static final class SourceCounters {
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+    }
+    
+    private static final class VariantCounters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder fallbacks = new LongAdder();
+        private final LongAdder parseFailures = new LongAdder();
+    }
+    
+    private static final int MAX_COUNTERS = 4096;
+    
+    private final ConcurrentHashMap<VariantSource, SourceCounters> sources = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, VariantCounters> variants = new ConcurrentHashMap<>();
+}
@@ -0,0 +1,60 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.Explanation;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.impl.Internal.originalSource;
+
+/**
+ * Responsibility: Traced copy of the {@link FindVariantImpl} search, recording every step.
+ * Kept separate so the lookup path never pays for tracing. Probes one key at a time without bulk requests,
+ * filters or the index, see {@link Explanation}.
+ * @param <T> the type of Variant value
+ */
+final class ExplainVariantImpl<T> {
+    
+    Explanation<T> explain() {
+        final List<Explanation.Step> steps = new ArrayList<>();
+        for (int sourceIndex = 0; sourceIndex < sources.length; sourceIndex++) {
+            final VariantSource source = sources[sourceIndex];
+            for (int index = 0; index < plan.size(); index++) {
+                final String key = plan.getKey(index);
+                final Optional<CharSequence> text = source.getSourceText(key);
+                Optional<T> value = Optional.empty();
+                RuntimeException failure = null;
+                if (text.isPresent()) {
+                    try {
+                        value = plan.of(index, text.get());
+                    } catch (RuntimeException thrown) {
+                        failure = thrown;
+                    }
+                }
+                steps.add(new ExplanationImpl.StepImpl(originalSource(source), sourceIndex, key, plan.getOwner(index),
+                    plan.getLinkDepth(plan.getOwner(index)), text, value, failure));
+                if (failure != null) {
+                    return new ExplanationImpl<>(plan.getVariant(), Optional.empty(), steps, Optional.empty(), failure);
+                }
+                if (value.isPresent()) {
+                    return new ExplanationImpl<>(plan.getVariant(), value, steps, Optional.empty(), null);
+                }
+            }
+        }
+        final List<Variant<T>> fallbackVariants = new ArrayList<>(1);
+        final Optional<T> fallback = plan.findFallback(fallbackVariants::add);
+        return new ExplanationImpl<>(plan.getVariant(), fallback, steps, fallbackVariants.stream().findFirst(), null);
+    }
+    
+    ExplainVariantImpl(VariantSource[] sources, VariantPlanImpl<T> plan) {
+        this.sources = nullCheck(sources, "Sources must be present.");
+        this.plan = nullCheck(plan, "Plan must be present.");
+    }
+    
+    private final VariantSource[] sources;
+    private final VariantPlanImpl<T> plan;
+}
@@ -0,0 +1,168 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.Explanation;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Responsibility: Immutable Explanation implementation
+ * @param <T> the type of Variant value
+ */
+final class ExplanationImpl<T> implements Explanation<T> {
+    
+    @Override
+    public Variant<T> getVariant() {
+        return variant;
+    }
+    
+    @Override
+    public Optional<T> getVariance() {
+        return variance;
+    }
+    
+    @Override
+    public List<Step> getSteps() {
+        return steps;
+    }
+    
+    @Override
+    public Optional<Variant<T>> getFallbackVariant() {
+        return fallbackVariant;
+    }
+    
+    @Override
+    public Optional<RuntimeException> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+    
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Explanation[variant=").append(variant).append(", variance=").append(variance).append(']');
+        for (Step step : steps) {
+            builder.append(System.lineSeparator()).append("  ").append(step);
+        }
+        if (fallbackVariant.isPresent()) {
+            builder.append(System.lineSeparator()).append("  fallback of ").append(fallbackVariant.get());
+        } else if (failure == null && !variance.isPresent()) {
+            builder.append(System.lineSeparator()).append("  not found, no fallback");
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * @param failure the conversion failure or null
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    ExplanationImpl(Variant<T> variant, Optional<T> variance, List<Step> steps, Optional<Variant<T>> fallbackVariant,
+                    RuntimeException failure) {
+        this.variant = variant;
+        this.variance = variance;
+        this.steps = unmodifiableList(steps);
+        this.fallbackVariant = fallbackVariant;
+        this.failure = failure;
+    }
+    
+    /**
+     * Responsibility: Immutable Explanation.Step implementation
+     */
+    static final class StepImpl implements Step {
+        
+        @Override
+        public VariantSource getSource() {
+            return source;
+        }
+        
+        @Override
+        public int getSourceIndex() {
+            return sourceIndex;
+        }
+        
+        @Override
+        public String getKey() {
+            return key;
+        }
+        
+        @Override
+        public Variant<?> getOwner() {
+            return owner;
+        }
+        
+        @Override
+        public int getLinkDepth() {
+            return linkDepth;
+        }
+        
+        @Override
+        public Optional<CharSequence> getText() {
+            return text;
+        }
+        
+        @Override
+        public Optional<?> getValue() {
+            return value;
+        }
+        
+        @Override
+        public Optional<RuntimeException> getFailure() {
+            return Optional.ofNullable(failure);
+        }
+        
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder();
+            builder.append("source ").append(sourceIndex).append(", key '").append(key).append('\'');
+            if (linkDepth > 0) {
+                builder.append(" of link ").append(linkDepth).append(' ').append(owner);
+            }
+            if (!text.isPresent()) {
+                return builder.append(": no text").toString();
+            }
+            builder.append(": text '").append(text.get()).append("' -> ");
+            if (failure != null) {
+                return builder.append("failed ").append(failure).toString();
+            }
+            return builder.append(value.isPresent() ? String.valueOf(value.get()) : "not converted").toString();
+        }
+        
+        /**
+         * @param failure the conversion failure or null
+         */
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        StepImpl(VariantSource source, int sourceIndex, String key, Variant<?> owner, int linkDepth,
+                 Optional<CharSequence> text, Optional<?> value, RuntimeException failure) {
+            this.source = source;
+            this.sourceIndex = sourceIndex;
+            this.key = key;
+            this.owner = owner;
+            this.linkDepth = linkDepth;
+            this.text = text;
+            this.value = value;
+            this.failure = failure;
+        }
+        
+        private final VariantSource source;
+        private final int sourceIndex;
+        private final String key;
+        private final Variant<?> owner;
+        private final int linkDepth;
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        private final Optional<CharSequence> text;
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        private final Optional<?> value;
+        private final RuntimeException failure;
+    }
+    
+    private final Variant<T> variant;
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private final Optional<T> variance;
+    private final List<Step> steps;
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private final Optional<Variant<T>> fallbackVariant;
+    private final RuntimeException failure;
+}
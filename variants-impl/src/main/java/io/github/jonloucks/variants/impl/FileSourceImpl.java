@@ -0,0 +1,350 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.contracts.api.AutoClose;
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.keyCheck;
+
+/**
+ * Responsibility: VariantSource backed by a properties file, reloaded when the file changes.
+ * <p>
+ * Lookups only read the current immutable table and never touch the disk.
+ * The file is checked off the reader path: by a WatchService (or polling when one is not available)
+ * while change listeners are registered, otherwise when a lookup finds the last check older than the interval.
+ * The file is only parsed when its modification time or size changed, when a watch event names it,
+ * or while it was modified too recently to trust the modification time, since a same size write
+ * within the file system timestamp granularity keeps the modification time.
+ * </p>
+ * <p>
+ * Checks of every file source share one thread, change listeners are run on a separate pool
+ * so a slow listener only delays the notifications of its own source.
+ * If the watched directory is deleted or its watch key is cancelled the directory is registered again,
+ * or the file is polled every interval when it can not be.
+ * </p>
+ */
+final class FileSourceImpl implements EnumerableVariantSource {
+    
+    @Override
+    public Optional<CharSequence> getSourceText(String key) {
+        final String validKey = keyCheck(key);
+        if (System.nanoTime() - lastCheckNanos > intervalNanos) {
+            requestCheck();
+        }
+        final Optional<CharSequence> optionalText = table.get(validKey);
+        return optionalText == null ? Optional.empty() : optionalText;
+    }
+    
+    /**
+     * Also checks the file for changes when the interval passed, since a filtered lookup may not reach {@link #getSourceText(String)}
+     */
+    @Override
+    public long getKeysVersion() {
+        if (System.nanoTime() - lastCheckNanos > intervalNanos) {
+            requestCheck();
+        }
+        return version;
+    }
+    
+    @Override
+    public Collection<String> getKeys() {
+        return table.keySet();
+    }
+    
+    @Override
+    public int getSizeHint() {
+        return table.size();
+    }
+    
+    @Override
+    public AutoClose addChangeListener(Runnable listener) {
+        final Runnable validListener = nullCheck(listener, "Listener must be present.");
+        synchronized (listeners) {
+            listeners.add(validListener);
+            if (listeners.size() == 1) {
+                startWatching();
+            }
+        }
+        return () -> removeChangeListener(validListener);
+    }
+    
+    FileSourceImpl(Path path, Duration interval) {
+        this.path = nullCheck(path, "Path must be present.").toAbsolutePath();
+        final Duration validInterval = nullCheck(interval, "Interval must be present.");
+        if (validInterval.isNegative() || validInterval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+        this.intervalNanos = validInterval.toNanos();
+        check(false);
+    }
+    
+    /**
+     * Reload the table if the file changed since the last load
+     *
+     * @param force true to reload even if the stamp is unchanged
+     * @return true if a new table was published
+     */
+    private boolean check(boolean force) {
+        lastCheckNanos = System.nanoTime();
+        final BasicFileAttributes attributes = readAttributes();
+        final String stamp = attributes == null ? MISSING_STAMP : attributes.lastModifiedTime() + "/" + attributes.size();
+        if (!force && !racy && stamp.equals(loadedStamp)) {
+            return false;
+        }
+        final long loadMillis = System.currentTimeMillis();
+        final Map<String, Optional<CharSequence>> loaded = load();
+        if (loaded == null) {
+            return false;
+        }
+        loadedStamp = stamp;
+        racy = attributes != null && loadMillis - attributes.lastModifiedTime().toMillis() < RACY_MILLIS;
+        if (loaded.equals(table)) {
+            return false;
+        }
+        table = loaded;
+        version++;
+        return true;
+    }
+    
+    private void requestCheck() {
+        if (checking.compareAndSet(false, true)) {
+            lastCheckNanos = System.nanoTime();
+            executor().execute(this::checkAndNotify);
+        }
+    }
+    
+    /**
+     * A check already running may have read the file before the event, so the reload is remembered until a check runs
+     */
+    private void requestReload() {
+        reloadRequested = true;
+        requestCheck();
+    }
+    
+    private void checkAndNotify() {
+        try {
+            final boolean force = reloadRequested;
+            reloadRequested = false;
+            if (check(force)) {
+                requestNotify();
+            }
+        } finally {
+            checking.set(false);
+        }
+        if (reloadRequested) {
+            requestCheck();
+        }
+    }
+    
+    /**
+     * Changes published while the listeners are running are coalesced into one more notification
+     */
+    private void requestNotify() {
+        notifyRequested = true;
+        if (notifying.compareAndSet(false, true)) {
+            NotifierHolder.EXECUTOR.execute(this::notifyListeners);
+        }
+    }
+    
+    private void notifyListeners() {
+        try {
+            while (notifyRequested) {
+                notifyRequested = false;
+                final List<Runnable> currentListeners;
+                synchronized (listeners) {
+                    currentListeners = new ArrayList<>(listeners);
+                }
+                for (Runnable listener : currentListeners) {
+                    listener.run();
+                }
+            }
+        } finally {
+            notifying.set(false);
+        }
+        if (notifyRequested) {
+            requestNotify();
+        }
+    }
+    
+    private void removeChangeListener(Runnable listener) {
+        synchronized (listeners) {
+            if (listeners.remove(listener) && listeners.isEmpty()) {
+                stopWatching();
+            }
+        }
+    }
+    
+    private void startWatching() {
+        watchService = openWatchService();
+        watchTask = executor().scheduleWithFixedDelay(this::watch, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private void stopWatching() {
+        watchTask.cancel(false);
+        watchTask = null;
+        closeQuietly(watchService);
+        watchService = null;
+    }
+    
+    /**
+     * The directory was deleted, recreated or its key cancelled, no more events arrive from the old registration
+     */
+    private void watchAgain(WatchService staleWatchService) {
+        synchronized (listeners) {
+            if (watchService == staleWatchService) {
+                closeQuietly(staleWatchService);
+                // null polls the file every interval
+                watchService = openWatchService();
+            }
+        }
+        requestReload();
+    }
+    
+    private void watch() {
+        final WatchService currentWatchService = watchService;
+        if (currentWatchService == null) {
+            requestCheck();
+            return;
+        }
+        try {
+            final WatchKey key = currentWatchService.poll();
+            if (key != null) {
+                if (isThisFile(key.pollEvents())) {
+                    requestReload();
+                }
+                if (!key.reset()) {
+                    watchAgain(currentWatchService);
+                }
+            } else if (racy) {
+                requestCheck();
+            }
+        } catch (ClosedWatchServiceException ignored) {
+            // stopped watching
+        }
+    }
+    
+    private boolean isThisFile(List<WatchEvent<?>> events) {
+        for (WatchEvent<?> event : events) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private WatchService openWatchService() {
+        final Path directory = path.getParent();
+        if (directory == null) {
+            return null;
+        }
+        try {
+            final WatchService service = path.getFileSystem().newWatchService();
+            try {
+                directory.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+                return service;
+            } catch (IOException | RuntimeException thrown) {
+                service.close();
+                return null;
+            }
+        } catch (IOException | UnsupportedOperationException thrown) {
+            // polling fallback
+            return null;
+        }
+    }
+    
+    /**
+     * @return the attributes or null if the file is missing or can not be read
+     */
+    private BasicFileAttributes readAttributes() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException thrown) {
+            return null;
+        }
+    }
+    
+    /**
+     * @return the new table or null if the file could not be read
+     */
+    private Map<String, Optional<CharSequence>> load() {
+        if (!Files.exists(path)) {
+            return Collections.emptyMap();
+        }
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException thrown) {
+            // keep the previous table, a partially written file is retried on the next change
+            return null;
+        }
+        final Map<String, Optional<CharSequence>> loaded = new HashMap<>(properties.size() * 2);
+        for (String name : properties.stringPropertyNames()) {
+            loaded.put(name, Optional.of(properties.getProperty(name)));
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+    
+    private static void closeQuietly(WatchService service) {
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ignored) {
+                // nothing else to release
+            }
+        }
+    }
+    
+    private static ScheduledExecutorService executor() {
+        return ExecutorHolder.EXECUTOR;
+    }
+    
+    private static final class ExecutorHolder {
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "variants-file-source");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private static final class NotifierHolder {
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "variants-file-source-listener");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private static final String MISSING_STAMP = "missing";
+    // Coarser than the timestamp granularity of common file systems, FAT keeps 2 seconds
+    private static final long RACY_MILLIS = 3_000;
+    
+    private final Path path;
+    private final long intervalNanos;
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private final AtomicBoolean notifying = new AtomicBoolean();
+    private final List<Runnable> listeners = new ArrayList<>();
+    private volatile WatchService watchService;
+    private ScheduledFuture<?> watchTask;
+    private String loadedStamp;
+    private volatile boolean racy;
+    private volatile boolean reloadRequested;
+    private volatile boolean notifyRequested;
+    private volatile long lastCheckNanos;
+    private volatile long version;
+    // Opting out of the best practice of not using Optionals in collections
+    // Reason:  The Optional is created once per load instead of on every lookup
+    private volatile Map<String, Optional<CharSequence>> table = Collections.emptyMap();
+}
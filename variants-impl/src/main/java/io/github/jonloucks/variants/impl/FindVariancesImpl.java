@@ -0,0 +1,165 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.*;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Find the values of many Variants, visiting each source once.
+ * <p>
+ * Each source is asked for all needed keys in one bulk request, see {@link VariantSource#getSourceTexts}.
+ * Keys shared by several Variants are requested once per source, and a key shared through a common
+ * link is parsed once per source. Each Variant still sees the same breadth first order as {@link FindVariantImpl}.
+ * </p>
+ */
+final class FindVariancesImpl {
+    
+    Map<Variant<?>, Optional<?>> findVariances() {
+        final Map<Variant<?>, Optional<?>> found = new HashMap<>(plans.size() * 2);
+        final List<VariantPlanImpl<?>> pending = new ArrayList<>(plans);
+        final Map<VariantPlanImpl<?>, Object> contexts = listener == null ? null : resolving();
+        final long startNanos = listener == null ? 0 : System.nanoTime();
+        for (int sourceIndex = 0; sourceIndex < sources.length; sourceIndex++) {
+            final VariantSource source = sources[sourceIndex];
+            if (pending.isEmpty()) {
+                break;
+            }
+            final long sourceStartNanos = listener == null ? 0 : System.nanoTime();
+            final int pendingCount = pending.size();
+            fetchTexts(sourceIndex, pending);
+            final Iterator<VariantPlanImpl<?>> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                final VariantPlanImpl<?> plan = iterator.next();
+                final Optional<?> match = findInTexts(plan, probesByPlan.get(plan));
+                if (match.isPresent()) {
+                    found.put(plan.getVariant(), match);
+                    iterator.remove();
+                    if (listener != null) {
+                        listener.resolved(plan, sourceIndex, keys[probeKeys.get(matchProbeId)],
+                            probePlans.get(matchProbeId).getOwner(probeIndexes.get(matchProbeId)), contexts.get(plan), startNanos);
+                    }
+                }
+            }
+            if (listener != null) {
+                listener.sourceLookup(source, pending.size() < pendingCount, sourceStartNanos);
+            }
+        }
+        for (VariantPlanImpl<?> plan : pending) {
+            found.put(plan.getVariant(),
+                listener == null ? plan.findFallback() : listener.fallback(plan, contexts.get(plan), startNanos));
+        }
+        return found;
+    }
+    
+    FindVariancesImpl(VariantSource[] sources, Collection<VariantPlanImpl<?>> plans, ListenerImpl listener) {
+        this(sources, null, plans, listener);
+    }
+    
+    /**
+     * @param filters see {@link SourceFilterImpl#create(VariantSource[])}
+     */
+    FindVariancesImpl(VariantSource[] sources, SourceFilterImpl[] filters, Collection<VariantPlanImpl<?>> plans,
+                      ListenerImpl listener) {
+        this.sources = nullCheck(sources, "Sources must be present.");
+        this.filters = filters;
+        this.plans = nullCheck(plans, "Plans must be present.");
+        this.listener = ListenerImpl.enabled(listener);
+        final Map<Variant<?>, Map<Integer, Integer>> probeIds = new IdentityHashMap<>();
+        for (VariantPlanImpl<?> plan : plans) {
+            final int[] planProbes = new int[plan.size()];
+            for (int index = 0; index < plan.size(); index++) {
+                final Integer keyId = keyIds.computeIfAbsent(plan.getKey(index), k -> keyIds.size());
+                final Map<Integer, Integer> ownerProbes = probeIds.computeIfAbsent(plan.getOwner(index), o -> new HashMap<>());
+                final int probeId = ownerProbes.computeIfAbsent(keyId, k -> probeKeys.size());
+                if (probeId == probeKeys.size()) {
+                    probeKeys.add(keyId);
+                    probePlans.add(plan);
+                    probeIndexes.add(index);
+                }
+                planProbes[index] = probeId;
+            }
+            probesByPlan.put(plan, planProbes);
+        }
+        this.keys = keyIds.keySet().toArray(new String[0]);
+        this.texts = new CharSequence[keys.length];
+        this.fetched = new boolean[keys.length];
+        this.parsed = new Optional<?>[probeKeys.size()];
+    }
+    
+    private Map<VariantPlanImpl<?>, Object> resolving() {
+        final Map<VariantPlanImpl<?>, Object> contexts = new IdentityHashMap<>();
+        for (VariantPlanImpl<?> plan : plans) {
+            contexts.put(plan, listener.resolving(plan));
+        }
+        return contexts;
+    }
+    
+    private void fetchTexts(int sourceIndex, List<VariantPlanImpl<?>> pending) {
+        Arrays.fill(texts, null);
+        Arrays.fill(fetched, false);
+        Arrays.fill(parsed, null);
+        final SourceFilterImpl filter = filters == null ? null : filters[sourceIndex];
+        final List<String> neededKeys = new ArrayList<>();
+        for (VariantPlanImpl<?> plan : pending) {
+            for (int probeId : probesByPlan.get(plan)) {
+                final int keyId = probeKeys.get(probeId);
+                if (!fetched[keyId]) {
+                    fetched[keyId] = true;
+                    if (filter == null || filter.mightContain(keys[keyId])) {
+                        neededKeys.add(keys[keyId]);
+                    }
+                }
+            }
+        }
+        if (neededKeys.isEmpty()) {
+            return;
+        }
+        sources[sourceIndex].getSourceTexts(neededKeys, (key, text) -> {
+            final Integer keyId = keyIds.get(key);
+            if (keyId != null && text != null) {
+                texts[keyId] = text;
+            }
+        });
+    }
+    
+    private Optional<?> findInTexts(VariantPlanImpl<?> plan, int[] planProbes) {
+        for (int probeId : planProbes) {
+            final Optional<?> variance = parse(probeId);
+            if (variance.isPresent()) {
+                matchProbeId = probeId;
+                return variance;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    private Optional<?> parse(int probeId) {
+        if (parsed[probeId] == null) {
+            final CharSequence text = texts[probeKeys.get(probeId)];
+            parsed[probeId] = text == null ? Optional.empty() : of(probePlans.get(probeId), probeIndexes.get(probeId), text);
+        }
+        return parsed[probeId];
+    }
+    
+    private <T> Optional<T> of(VariantPlanImpl<T> plan, int index, CharSequence text) {
+        return listener == null ? plan.of(index, text) : listener.of(plan, index, text);
+    }
+    
+    private final VariantSource[] sources;
+    private final SourceFilterImpl[] filters;
+    private final Collection<VariantPlanImpl<?>> plans;
+    private final ListenerImpl listener;
+    private final Map<VariantPlanImpl<?>, int[]> probesByPlan = new IdentityHashMap<>();
+    private final List<Integer> probeKeys = new ArrayList<>();
+    private final List<VariantPlanImpl<?>> probePlans = new ArrayList<>();
+    private final List<Integer> probeIndexes = new ArrayList<>();
+    private final Map<String, Integer> keyIds = new LinkedHashMap<>();
+    private final String[] keys;
+    private final CharSequence[] texts;
+    private final boolean[] fetched;
+    private final Optional<?>[] parsed;
+    private int matchProbeId;
+}
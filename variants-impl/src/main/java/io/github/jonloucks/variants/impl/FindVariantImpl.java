@@ -1,13 +1,21 @@
 package io.github.jonloucks.variants.impl;
 
-import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.BooleanVariant;
+import io.github.jonloucks.variants.api.DoubleVariant;
+import io.github.jonloucks.variants.api.IntVariant;
+import io.github.jonloucks.variants.api.LongVariant;
+import io.github.jonloucks.variants.api.VariantException;
 import io.github.jonloucks.variants.api.VariantSource;
+import io.github.jonloucks.variants.api.Variant;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
-import static io.github.jonloucks.variants.api.Checks.variantCheck;
+import static io.github.jonloucks.variants.impl.Internal.hasBulkLookup;
+import static io.github.jonloucks.variants.impl.Internal.isBlank;
 
 /**
  * Responsibility: Find a Variant value from a list of sources
@@ -16,54 +24,182 @@ import static io.github.jonloucks.variants.api.Checks.variantCheck;
 final class FindVariantImpl<T> {
     
     Optional<T> findVariance() {
-        for (VariantSource source : sources) {
-            final Optional<T> match = findVariantInSource(targetVariant, source);
+        if (listener != null) {
+            return findObservedVariance();
+        }
+        final Optional<T> match = findSourceVariance();
+        return match.isPresent() ? match : plan.findFallback();
+    }
+    
+    /**
+     * @return the variance found in the sources, the fallback is not applied
+     */
+    Optional<T> findSourceVariance() {
+        for (int sourceIndex = 0; sourceIndex < sources.length; sourceIndex++) {
+            final Optional<T> match = findVariantInSource(sourceIndex);
             if (match.isPresent()) {
                 return match;
             }
         }
-        return findFirstFallback(targetVariant);
+        return Optional.empty();
+    }
+    
+    /**
+     * Find a variance without boxing when the matching Variant is primitive.
+     * The value is retrieved afterward by one of the primitive getters.
+     *
+     * @return true if a variance or fallback was found
+     */
+    boolean findPrimitive() {
+        for (int sourceIndex = 0; sourceIndex < sources.length; sourceIndex++) {
+            if (findPrimitiveInSource(sourceIndex)) {
+                return true;
+            }
+        }
+        variance = plan.findFallback();
+        return variance.isPresent();
     }
     
-    FindVariantImpl(List<VariantSource> sources, Variant<T> variant) {
+    int getInt() {
+        if (matchText == null) {
+            return (Integer) getVariance();
+        }
+        return ((IntVariant) matchVariant).ofInt(matchText);
+    }
+    
+    long getLong() {
+        if (matchText == null) {
+            return (Long) getVariance();
+        }
+        return ((LongVariant) matchVariant).ofLong(matchText);
+    }
+    
+    double getDouble() {
+        if (matchText == null) {
+            return (Double) getVariance();
+        }
+        return ((DoubleVariant) matchVariant).ofDouble(matchText);
+    }
+    
+    boolean getBoolean() {
+        if (matchText == null) {
+            return (Boolean) getVariance();
+        }
+        return ((BooleanVariant) matchVariant).ofBoolean(matchText);
+    }
+    
+    FindVariantImpl(VariantSource[] sources, VariantPlanImpl<T> plan, ListenerImpl listener) {
+        this(sources, null, plan, listener);
+    }
+    
+    /**
+     * @param filters see {@link SourceFilterImpl#create(VariantSource[])}
+     */
+    FindVariantImpl(VariantSource[] sources, SourceFilterImpl[] filters, VariantPlanImpl<T> plan, ListenerImpl listener) {
         this.sources = nullCheck(sources, "Sources must be present.");
-        this.targetVariant = variantCheck(variant);
+        this.filters = filters;
+        this.plan = nullCheck(plan, "Plan must be present.");
+        this.listener = ListenerImpl.enabled(listener);
     }
     
-    private Optional<T> findVariantInSource(Variant<T> variant, VariantSource source) {
-        for (String key : variant.getKeys()) {
-            final Optional<CharSequence> optionalText = source.getSourceText(key);
-            if (optionalText.isPresent()) {
-                final Optional<T> optionalVariance = variant.of(optionalText.get());
+    private Optional<T> findObservedVariance() {
+        final Object context = listener.resolving(plan);
+        final long startNanos = System.nanoTime();
+        for (int sourceIndex = 0; sourceIndex < sources.length; sourceIndex++) {
+            final long sourceStartNanos = System.nanoTime();
+            final Optional<T> match = findVariantInSource(sourceIndex);
+            listener.sourceLookup(sources[sourceIndex], match.isPresent(), sourceStartNanos);
+            if (match.isPresent()) {
+                listener.resolved(plan, sourceIndex, plan.getKey(matchIndex), plan.getOwner(matchIndex), context, startNanos);
+                return match;
+            }
+        }
+        return listener.fallback(plan, context, startNanos);
+    }
+    
+    private Optional<T> findVariantInSource(int sourceIndex) {
+        final SourceFilterImpl filter = filters == null ? null : filters[sourceIndex];
+        final VariantSource source = sources[sourceIndex];
+        final Map<String, CharSequence> bulkTexts = findBulkTexts(source, filter);
+        final int size = plan.size();
+        for (int index = 0; index < size; index++) {
+            final CharSequence text = findText(source, filter, bulkTexts, index);
+            if (text != null) {
+                final Optional<T> optionalVariance = listener == null ? plan.of(index, text) : listener.of(plan, index, text);
                 if (optionalVariance.isPresent()) {
+                    matchIndex = index;
                     return optionalVariance;
                 }
             }
         }
-        return findLinkVariantInSource(variant, source);
+        return Optional.empty();
+    }
+    
+    private boolean findPrimitiveInSource(int sourceIndex) {
+        final SourceFilterImpl filter = filters == null ? null : filters[sourceIndex];
+        final VariantSource source = sources[sourceIndex];
+        final Map<String, CharSequence> bulkTexts = findBulkTexts(source, filter);
+        final int size = plan.size();
+        for (int index = 0; index < size; index++) {
+            final CharSequence text = findText(source, filter, bulkTexts, index);
+            if (text != null) {
+                if (plan.isPrimitive(index)) {
+                    if (!isBlank(text)) {
+                        matchVariant = plan.getOwner(index);
+                        matchText = text;
+                        return true;
+                    }
+                } else {
+                    variance = plan.of(index, text);
+                    if (variance.isPresent()) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
     }
     
-    private Optional<T> findFirstFallback(Variant<T> variant) {
-        final Optional<T> optionalFallback = variant.getFallback();
-        if (optionalFallback.isPresent()) {
-            return optionalFallback;
+    /**
+     * Sources with their own bulk lookup answer every key of the plan in one call,
+     * other sources are asked one key at a time so the search can stop at the first match.
+     */
+    private Map<String, CharSequence> findBulkTexts(VariantSource source, SourceFilterImpl filter) {
+        if (plan.getDistinctKeys().size() < 2 || !hasBulkLookup(source)) {
+            return null;
         }
-        if (variant.getLink().isPresent()) {
-            return findFirstFallback(variant.getLink().get());
+        if (filter != null && !filter.mightContainAny(plan.getDistinctKeys())) {
+            return Collections.emptyMap();
         }
-        return Optional.empty();
+        final Map<String, CharSequence> bulkTexts = new HashMap<>();
+        source.getSourceTexts(plan.getDistinctKeys(), bulkTexts::put);
+        return bulkTexts;
     }
-
-    private Optional<T> findLinkVariantInSource(Variant<T> variant, VariantSource source) {
-        if (variant.getLink().isPresent()) {
-            final Optional<T> match = findVariantInSource(variant.getLink().get(), source);
-            if (match.isPresent()) {
-                return match;
+    
+    private CharSequence findText(VariantSource source, SourceFilterImpl filter, Map<String, CharSequence> bulkTexts, int index) {
+        if (bulkTexts == null) {
+            final String key = plan.getKey(index);
+            if (filter != null && !filter.mightContain(key)) {
+                return null;
             }
+            return source.getSourceText(key).orElse(null);
         }
-        return Optional.empty();
+        return bulkTexts.get(plan.getKey(index));
+    }
+    
+    private Object getVariance() {
+        if (variance.isPresent()) {
+            return variance.get();
+        }
+        throw new VariantException("Variant not found. " + plan.getVariant() + ".");
     }
     
-    private final List<VariantSource> sources;
-    private final Variant<T> targetVariant;
+    private final VariantSource[] sources;
+    private final SourceFilterImpl[] filters;
+    private final VariantPlanImpl<T> plan;
+    private final ListenerImpl listener;
+    private int matchIndex;
+    private Variant<T> matchVariant;
+    private CharSequence matchText;
+    private Optional<T> variance = Optional.empty();
 }
@@ -0,0 +1,38 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.IntVariant;
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Immutable IntVariant implementation.
+ */
+final class IntVariantImpl extends PrimitiveVariantImpl<Integer> implements IntVariant {
+    @Override
+    public int ofInt(CharSequence rawText) {
+        return parser.applyAsInt(rawText);
+    }
+    
+    IntVariantImpl(Variant.Config<Integer> config, ToIntFunction<CharSequence> defaultParser) {
+        super(config);
+        final Optional<Function<CharSequence, Integer>> optionalParser = config.getParser();
+        if (optionalParser.isPresent()) {
+            final Function<CharSequence, Integer> validParser = requireValue(optionalParser.get());
+            this.parser = text -> validParser.apply(text).intValue();
+        } else {
+            this.parser = nullCheck(defaultParser, "Parser must be present.");
+        }
+    }
+    
+    @Override
+    Integer box(CharSequence rawText) {
+        return ofInt(rawText);
+    }
+    
+    private final ToIntFunction<CharSequence> parser;
+}
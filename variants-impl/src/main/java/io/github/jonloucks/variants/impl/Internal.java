@@ -1,9 +1,14 @@
 package io.github.jonloucks.variants.impl;
 
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static java.lang.Character.isWhitespace;
 
 /**
  * Responsibility: Internal shared utilities
@@ -36,4 +41,46 @@ final class Internal {
             return supplier.get().map(v -> v);
         }
     }
+    
+    /**
+     * Check for text that only contains white space, without creating a trimmed copy
+     * @param text the text to check
+     * @return true if the text is empty or only contains white space
+     */
+    static boolean isBlank(CharSequence text) {
+        final int length = text.length();
+        for (int index = 0; index < length; index++) {
+            if (!isWhitespace(text.charAt(index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @param source the source to check
+     * @return true if the source overrides {@link VariantSource#getSourceTexts(Collection, BiConsumer)}
+     */
+    static boolean hasBulkLookup(VariantSource source) {
+        return BULK_LOOKUP.get(source.getClass());
+    }
+    
+    /**
+     * @param source a source, possibly a snapshot copy
+     * @return the source a snapshot was copied from, otherwise the source itself
+     */
+    static VariantSource originalSource(VariantSource source) {
+        return source instanceof SnapshotSourceImpl ? ((SnapshotSourceImpl) source).getSource() : source;
+    }
+    
+    private static final ClassValue<Boolean> BULK_LOOKUP = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getSourceTexts", Collection.class, BiConsumer.class).getDeclaringClass() != VariantSource.class;
+            } catch (NoSuchMethodException thrown) {
+                return false;
+            }
+        }
+    };
 }
@@ -0,0 +1,113 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnvironmentListener;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.impl.Internal.isBlank;
+import static io.github.jonloucks.variants.impl.Internal.originalSource;
+
+/**
+ * Responsibility: Report the lookups of an Environment to its EnvironmentListener.
+ * <p>
+ * Only created when a listener is configured, see {@link #create(EnvironmentListener)}.
+ * Lookups without a listener test a null field and never reach this class.
+ * </p>
+ */
+final class ListenerImpl {
+    
+    /**
+     * @param listener the configured listener
+     * @return null for {@link EnvironmentListener#NONE}, otherwise a new ListenerImpl
+     */
+    static ListenerImpl create(EnvironmentListener listener) {
+        final EnvironmentListener validListener = nullCheck(listener, "Listener must be present.");
+        return validListener == EnvironmentListener.NONE ? null : new ListenerImpl(validListener);
+    }
+    
+    /**
+     * Checked once per lookup, see {@link EnvironmentListener#isEnabled()}
+     *
+     * @param listener the listener or null
+     * @return the listener if present and enabled, otherwise null
+     */
+    static ListenerImpl enabled(ListenerImpl listener) {
+        return listener == null || !listener.listener.isEnabled() ? null : listener;
+    }
+    
+    EnvironmentListener getListener() {
+        return listener;
+    }
+    
+    /**
+     * @return the context returned by the listener, handed back to {@link #resolved}
+     */
+    Object resolving(VariantPlanImpl<?> plan) {
+        return listener.onResolving(plan.getVariant());
+    }
+    
+    void sourceLookup(VariantSource source, boolean found, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        listener.onSourceLookup(originalSource(source), found, nanos);
+    }
+    
+    /**
+     * Convert the text of a key and report a parse failure
+     */
+    <T> Optional<T> of(VariantPlanImpl<T> plan, int index, CharSequence text) {
+        final Optional<T> variance;
+        try {
+            variance = plan.of(index, text);
+        } catch (RuntimeException thrown) {
+            listener.onParseFailure(plan.getOwner(index), plan.getKey(index), text);
+            throw thrown;
+        }
+        if (!variance.isPresent() && !isBlank(text)) {
+            listener.onParseFailure(plan.getOwner(index), plan.getKey(index), text);
+        }
+        return variance;
+    }
+    
+    /**
+     * @param plan the plan of the resolved Variant
+     * @param sourceIndex the index of the source that found the variance
+     * @param key the matched key
+     * @param owner the Variant owning the matched key
+     * @param context the context returned by {@link #resolving(VariantPlanImpl)}
+     * @param startNanos when resolving started
+     */
+    void resolved(VariantPlanImpl<?> plan, int sourceIndex, String key, Variant<?> owner, Object context, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        listener.onResolved(new ResolutionImpl(plan.getVariant(), sourceIndex, key, plan.getLinkDepth(owner), false, nanos, context));
+    }
+    
+    /**
+     * Find and report the fallback of a Variant not found in any source
+     *
+     * @param plan the plan of the resolved Variant
+     * @param context the context returned by {@link #resolving(VariantPlanImpl)}
+     * @param startNanos when resolving started
+     * @return the fallback
+     */
+    <T> Optional<T> fallback(VariantPlanImpl<T> plan, Object context, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        final List<Variant<T>> fallbackVariants = new ArrayList<>(1);
+        final Optional<T> fallback = plan.findFallback(fallbackVariants::add);
+        listener.onResolved(new ResolutionImpl(plan.getVariant(), -1, null, -1, fallback.isPresent(), nanos, context));
+        if (fallback.isPresent()) {
+            listener.onFallback(plan.getVariant(), fallbackVariants.get(0));
+        }
+        return fallback;
+    }
+    
+    private ListenerImpl(EnvironmentListener listener) {
+        this.listener = listener;
+    }
+    
+    private final EnvironmentListener listener;
+}
@@ -0,0 +1,38 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.LongVariant;
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Immutable LongVariant implementation.
+ */
+final class LongVariantImpl extends PrimitiveVariantImpl<Long> implements LongVariant {
+    @Override
+    public long ofLong(CharSequence rawText) {
+        return parser.applyAsLong(rawText);
+    }
+    
+    LongVariantImpl(Variant.Config<Long> config, ToLongFunction<CharSequence> defaultParser) {
+        super(config);
+        final Optional<Function<CharSequence, Long>> optionalParser = config.getParser();
+        if (optionalParser.isPresent()) {
+            final Function<CharSequence, Long> validParser = requireValue(optionalParser.get());
+            this.parser = text -> validParser.apply(text).longValue();
+        } else {
+            this.parser = nullCheck(defaultParser, "Parser must be present.");
+        }
+    }
+    
+    @Override
+    Long box(CharSequence rawText) {
+        return ofLong(rawText);
+    }
+    
+    private final ToLongFunction<CharSequence> parser;
+}
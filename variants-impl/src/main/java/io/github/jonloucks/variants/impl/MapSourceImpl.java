@@ -0,0 +1,52 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: VariantSource listing the keys of a java.util.Map, values are converted with toString.
+ * <p>
+ * The Map is not copied, so changes to it are seen by lookups. Unless the Map is known not to change
+ * the keys version is {@link #UNKNOWN_VERSION} and an Environment consults it on every lookup.
+ * </p>
+ */
+final class MapSourceImpl implements EnumerableVariantSource {
+    
+    @Override
+    public Optional<CharSequence> getSourceText(String key) {
+        return Optional.ofNullable(map.get(key)).map(Object::toString);
+    }
+    
+    @Override
+    public Collection<String> getKeys() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+    
+    @Override
+    public int getSizeHint() {
+        return map.size();
+    }
+    
+    @Override
+    public long getKeysVersion() {
+        return version;
+    }
+    
+    /**
+     * @param map the Map
+     * @param version the keys version, {@link #UNKNOWN_VERSION} if the Map can change
+     */
+    MapSourceImpl(Map<String, ?> map, long version) {
+        this.map = nullCheck(map, "Map must be present.");
+        this.version = version;
+    }
+    
+    private final Map<String, ?> map;
+    private final long version;
+}
@@ -0,0 +1,207 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.VariantException;
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.keyCheck;
+
+/**
+ * Responsibility: VariantSource reading the binary format straight from a memory mapping.
+ * <p>
+ * Layout, big endian:
+ * magic, version, entry count, pool length in chars,
+ * then per entry sorted by key: key offset, key length, value offset, value length (in chars),
+ * then the UTF-16 pool. Keys are compared and values are returned as views of the mapping.
+ * </p>
+ */
+final class MappedSourceImpl implements EnumerableVariantSource {
+    
+    static final int MAGIC = 0x56524E54;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_INTS = 4;
+    
+    @Override
+    public Optional<CharSequence> getSourceText(String key) {
+        final int entry = find(keyCheck(key));
+        if (entry < 0) {
+            return Optional.empty();
+        }
+        final int offset = table.get(entry * ENTRY_INTS + 2);
+        return Optional.of(pool.subSequence(offset, offset + table.get(entry * ENTRY_INTS + 3)));
+    }
+    
+    @Override
+    public long getKeysVersion() {
+        return 0;
+    }
+    
+    /**
+     * @return a view creating each key on access, the keys are not retained on the heap
+     */
+    @Override
+    public Collection<String> getKeys() {
+        return keysBetween(0, count);
+    }
+    
+    /**
+     * Binary searches the sorted keys for the first key with the prefix
+     */
+    @Override
+    public Collection<String> getKeys(String prefix) {
+        final String validPrefix = nullCheck(prefix, "Prefix must be present.");
+        final int first = findFirst(validPrefix);
+        int end = first;
+        while (end < count && hasPrefix(end, validPrefix)) {
+            end++;
+        }
+        return keysBetween(first, end);
+    }
+    
+    @Override
+    public int getSizeHint() {
+        return count;
+    }
+    
+    MappedSourceImpl(Path path) {
+        final Path validPath = nullCheck(path, "Path must be present.");
+        final ByteBuffer buffer = map(validPath);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new VariantException("Unsupported mapped source format. " + validPath + ".");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new VariantException("Unsupported mapped source version " + buffer.getInt(4) + ". " + validPath + ".");
+        }
+        this.count = buffer.getInt(8);
+        final int poolChars = buffer.getInt(12);
+        final long tableBytes = (long) count * ENTRY_INTS * Integer.BYTES;
+        if (count < 0 || poolChars < 0 || HEADER_BYTES + tableBytes + poolChars * 2L != buffer.remaining()) {
+            throw new VariantException("Corrupt mapped source. " + validPath + ".");
+        }
+        this.table = slice(buffer, HEADER_BYTES, (int) tableBytes).asIntBuffer();
+        this.pool = slice(buffer, HEADER_BYTES + (int) tableBytes, poolChars * 2).asCharBuffer();
+        for (int index = 0; index < count * ENTRY_INTS; index += 2) {
+            final long end = (long) table.get(index) + table.get(index + 1);
+            if (table.get(index) < 0 || table.get(index + 1) < 0 || end > poolChars) {
+                throw new VariantException("Corrupt mapped source. " + validPath + ".");
+            }
+        }
+    }
+    
+    private int find(String key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = compareKey(middle, key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * @return the first entry not ordered before the key, or count if there is none
+     */
+    private int findFirst(String key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (compareKey(middle, key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    private boolean hasPrefix(int entry, String prefix) {
+        final int offset = table.get(entry * ENTRY_INTS);
+        if (table.get(entry * ENTRY_INTS + 1) < prefix.length()) {
+            return false;
+        }
+        for (int index = 0; index < prefix.length(); index++) {
+            if (pool.get(offset + index) != prefix.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return a view of the keys of the entries from first up to end
+     */
+    private Collection<String> keysBetween(int first, int end) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                final int entry = first + index;
+                final int offset = table.get(entry * ENTRY_INTS);
+                return pool.subSequence(offset, offset + table.get(entry * ENTRY_INTS + 1)).toString();
+            }
+            
+            @Override
+            public int size() {
+                return end - first;
+            }
+        };
+    }
+    
+    /**
+     * Same order as {@link String#compareTo(String)}
+     */
+    private int compareKey(int entry, String key) {
+        final int offset = table.get(entry * ENTRY_INTS);
+        final int length = table.get(entry * ENTRY_INTS + 1);
+        final int limit = Math.min(length, key.length());
+        for (int index = 0; index < limit; index++) {
+            final int difference = pool.get(offset + index) - key.charAt(index);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length();
+    }
+    
+    private static ByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new VariantException("Mapped source is too large. " + path + ".");
+            }
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException thrown) {
+            throw new VariantException("Unable to open mapped source. " + path + ".", thrown);
+        }
+    }
+    
+    private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position);
+        duplicate.limit(position + length);
+        return duplicate.slice();
+    }
+    
+    private final int count;
+    private final IntBuffer table;
+    private final CharBuffer pool;
+}
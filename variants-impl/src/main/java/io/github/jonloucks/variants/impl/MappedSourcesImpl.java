@@ -0,0 +1,101 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.MappedSources;
+import io.github.jonloucks.variants.api.VariantException;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.keyCheck;
+import static io.github.jonloucks.variants.impl.MappedSourceImpl.*;
+
+/**
+ * Responsibility: MappedSources implementation, writes the layout read by {@link MappedSourceImpl}
+ */
+final class MappedSourcesImpl implements MappedSources {
+    
+    @Override
+    public void write(Map<String, ?> map, Path path) {
+        final Map<String, ?> validMap = nullCheck(map, "Map must be present.");
+        final Path validPath = nullCheck(path, "Path must be present.").toAbsolutePath();
+        final TreeMap<String, String> sorted = new TreeMap<>();
+        for (Map.Entry<String, ?> entry : validMap.entrySet()) {
+            sorted.put(keyCheck(entry.getKey()), nullCheck(entry.getValue(), "Value must be present.").toString());
+        }
+        final byte[] bytes = encode(sorted);
+        try {
+            final Path temporary = Files.createTempFile(validPath.getParent(), validPath.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream output = Files.newOutputStream(temporary)) {
+                    output.write(bytes);
+                }
+                move(temporary, validPath);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException thrown) {
+            throw new VariantException("Unable to write mapped source. " + validPath + ".", thrown);
+        }
+    }
+    
+    @Override
+    public VariantSource open(Path path) {
+        return new MappedSourceImpl(path);
+    }
+    
+    MappedSourcesImpl() {
+    
+    }
+    
+    /**
+     * Identical text, for example a value used by many keys, is stored once in the pool
+     */
+    private static byte[] encode(TreeMap<String, String> sorted) {
+        final Map<String, Integer> pooled = new HashMap<>();
+        final StringBuilder pool = new StringBuilder();
+        final int[] entries = new int[sorted.size() * ENTRY_INTS];
+        int index = 0;
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            entries[index++] = intern(pooled, pool, entry.getKey());
+            entries[index++] = entry.getKey().length();
+            entries[index++] = intern(pooled, pool, entry.getValue());
+            entries[index++] = entry.getValue().length();
+        }
+        final long size = HEADER_BYTES + (long) entries.length * Integer.BYTES + pool.length() * 2L;
+        if (size > Integer.MAX_VALUE) {
+            throw new VariantException("Mapped source is too large.");
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(sorted.size()).putInt(pool.length());
+        buffer.asIntBuffer().put(entries);
+        buffer.position(buffer.position() + entries.length * Integer.BYTES);
+        buffer.asCharBuffer().put(pool.toString());
+        return buffer.array();
+    }
+    
+    private static int intern(Map<String, Integer> pooled, StringBuilder pool, String text) {
+        final Integer existing = pooled.get(text);
+        if (existing != null) {
+            return existing;
+        }
+        final int offset = pool.length();
+        pool.append(text);
+        pooled.put(text, offset);
+        return offset;
+    }
+    
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException thrown) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.jonloucks.variants.impl;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -27,8 +28,9 @@ final class OfListImpl<T> {
     }
     
     private List<T> toList(CharSequence text) {
-        final List<T> list = new LinkedList<>();
-        for (CharSequence part : split.apply(text)) {
+        final Iterable<CharSequence> parts = split.apply(text);
+        final List<T> list = parts instanceof Collection ? new ArrayList<>(((Collection<?>) parts).size()) : new ArrayList<>();
+        for (CharSequence part : parts) {
             of.apply(part).ifPresent(list::add);
         }
         return list;
@@ -0,0 +1,144 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.contracts.api.AutoClose;
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Explanation;
+import io.github.jonloucks.variants.api.Variances;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
+
+/**
+ * Responsibility: Environment consulting overlay sources before a parent Environment.
+ * <p>
+ * Only the overlay sources are held, plans come from the parent and anything the overlays
+ * do not answer, including the fallback, is resolved by the parent with its own cache or snapshot.
+ * Invalidating an overlay never invalidates the parent, subscribers of the overlay hear of parent
+ * changes when the parent publishes to its own subscribers.
+ * </p>
+ */
+final class OverlayEnvironmentImpl implements Environment {
+    
+    @Override
+    public <T> Optional<T> findVariance(Variant<T> variant) {
+        final Variant<T> validVariant = variantCheck(variant);
+        final Optional<T> overlaid = findOverlayVariance(validVariant);
+        return overlaid.isPresent() ? overlaid : parent.findVariance(validVariant);
+    }
+    
+    @Override
+    public <T> AutoClose subscribe(Variant<T> variant, Consumer<Optional<T>> consumer) {
+        return getSubscriptions().subscribe(variant, consumer);
+    }
+    
+    @Override
+    public <T> Explanation<T> explain(Variant<T> variant) {
+        return new ExplainVariantImpl<>(combineSources(), planner.getPlan(variantCheck(variant))).explain();
+    }
+    
+    @Override
+    public <R> R bind(Class<R> type, String prefix) {
+        return BindingImpl.of(type, prefix).bind(this);
+    }
+    
+    @Override
+    public Variances findVariances(Collection<? extends Variant<?>> variants) {
+        final Map<Variant<?>, Optional<?>> found = new HashMap<>();
+        final List<Variant<?>> missing = new ArrayList<>();
+        for (Variant<?> variant : nullCheck(variants, "Variants must be present.")) {
+            final Variant<?> validVariant = variantCheck(variant);
+            final Optional<?> overlaid = findOverlayVariance(validVariant);
+            if (overlaid.isPresent()) {
+                found.put(validVariant, overlaid);
+            } else {
+                missing.add(validVariant);
+            }
+        }
+        if (!missing.isEmpty()) {
+            final Variances parentVariances = parent.findVariances(missing);
+            for (Variant<?> variant : missing) {
+                found.put(variant, parentVariances.findVariance(variant));
+            }
+        }
+        return new VariancesImpl(found);
+    }
+    
+    /**
+     * Only the overlay sources and the subscriptions of this overlay are refreshed, the parent keeps its cache or snapshot
+     */
+    @Override
+    public void invalidate() {
+        EnvironmentImpl.refreshSources(overlays);
+        final SubscriptionsImpl currentSubscriptions = subscriptions;
+        if (currentSubscriptions != null) {
+            currentSubscriptions.publish();
+        }
+    }
+    
+    @Override
+    public SnapshotEnvironmentImpl snapshot() {
+        return planner.snapshot(overlays);
+    }
+    
+    @Override
+    public Environment overlay(VariantSource... sources) {
+        final VariantSource[] validSources = nullCheck(sources, "Sources must be present.");
+        final VariantSource[] combined = Arrays.copyOf(validSources, validSources.length + overlays.length);
+        System.arraycopy(overlays, 0, combined, validSources.length, overlays.length);
+        return new OverlayEnvironmentImpl(parent, planner, parentSubscriptions, combined);
+    }
+    
+    /**
+     * @param parent answers the Variants the overlays do not
+     * @param planner provides the plans and sources of the parent
+     * @param parentSubscriptions publishes when a variance of the parent may have changed
+     * @param overlays the overlay sources, highest precedence first
+     */
+    OverlayEnvironmentImpl(Environment parent, EnvironmentImpl planner, SubscriptionsImpl parentSubscriptions,
+                           VariantSource[] overlays) {
+        this.parent = nullCheck(parent, "Parent must be present.");
+        this.planner = nullCheck(planner, "Planner must be present.");
+        this.parentSubscriptions = nullCheck(parentSubscriptions, "Parent subscriptions must be present.");
+        this.overlays = checkSources(overlays);
+    }
+    
+    private static VariantSource[] checkSources(VariantSource[] sources) {
+        final VariantSource[] validSources = nullCheck(sources, "Sources must be present.").clone();
+        for (VariantSource source : validSources) {
+            nullCheck(source, "Source must be present.");
+        }
+        return validSources;
+    }
+    
+    private <T> Optional<T> findOverlayVariance(Variant<T> variant) {
+        if (overlays.length == 0) {
+            return Optional.empty();
+        }
+        return new FindVariantImpl<>(overlays, planner.getPlan(variant), null).findSourceVariance();
+    }
+    
+    private VariantSource[] combineSources() {
+        final VariantSource[] sources = planner.getSources();
+        final VariantSource[] combined = Arrays.copyOf(overlays, overlays.length + sources.length);
+        System.arraycopy(sources, 0, combined, overlays.length, sources.length);
+        return combined;
+    }
+    
+    private synchronized SubscriptionsImpl getSubscriptions() {
+        if (subscriptions == null) {
+            subscriptions = new SubscriptionsImpl(overlays, this, parentSubscriptions);
+        }
+        return subscriptions;
+    }
+    
+    private final Environment parent;
+    private final EnvironmentImpl planner;
+    private final SubscriptionsImpl parentSubscriptions;
+    private final VariantSource[] overlays;
+    private volatile SubscriptionsImpl subscriptions;
+}
@@ -0,0 +1,142 @@
+package io.github.jonloucks.variants.impl;
+
+import static java.lang.Character.isWhitespace;
+
+/**
+ * Responsibility: Parse numbers within the bounds of a CharSequence without creating intermediate Strings
+ */
+final class ParseNumberImpl {
+    /**
+     * Utility class instantiation protection
+     * Test coverage not possible, java module protections in place
+     */
+    private ParseNumberImpl() {
+        // conflicting standards.  100% code coverage vs throwing exception on instantiation of utility class.
+        // Java modules protects agents invoking private methods.
+        // There are unit tests that will fail if this constructor is not private
+    }
+    
+    /**
+     * @param text the text
+     * @return the index of the first character that is not white space
+     */
+    static int trimStart(CharSequence text) {
+        final int length = text.length();
+        int start = 0;
+        while (start < length && isWhitespace(text.charAt(start))) {
+            ++start;
+        }
+        return start;
+    }
+    
+    /**
+     * @param text the text
+     * @param start the index returned by {@link #trimStart(CharSequence)}
+     * @return the index after the last character that is not white space
+     */
+    static int trimEnd(CharSequence text, int start) {
+        int end = text.length();
+        while (end > start && isWhitespace(text.charAt(end - 1))) {
+            --end;
+        }
+        return end;
+    }
+    
+    static int parseInt(CharSequence text, int start, int end) {
+        return Integer.parseInt(text, start, end, 10);
+    }
+    
+    static long parseLong(CharSequence text, int start, int end) {
+        return Long.parseLong(text, start, end, 10);
+    }
+    
+    /**
+     * Plain decimals like "-12.5" are converted exactly when the digits fit in 53 bits and
+     * there are at most 22 fraction digits, both operands are then exact doubles and the single
+     * division is correctly rounded. Everything else defers to {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(CharSequence text, int start, int end) {
+        final long decimal = scanDecimal(text, start, end, 1L << 53, DOUBLE_POWERS.length - 1);
+        if (decimal == NOT_EXACT) {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+        final double magnitude = (double) (decimal >>> MANTISSA_SHIFT) / DOUBLE_POWERS[scaleOf(decimal)];
+        return isNegative(decimal) ? -magnitude : magnitude;
+    }
+    
+    /**
+     * Same as {@link #parseDouble(CharSequence, int, int)} with float limits of 24 bits and 10 digits
+     */
+    static float parseFloat(CharSequence text, int start, int end) {
+        final long decimal = scanDecimal(text, start, end, 1L << 24, FLOAT_POWERS.length - 1);
+        if (decimal == NOT_EXACT) {
+            return Float.parseFloat(text.subSequence(start, end).toString());
+        }
+        final float magnitude = (float) (decimal >>> MANTISSA_SHIFT) / FLOAT_POWERS[scaleOf(decimal)];
+        return isNegative(decimal) ? -magnitude : magnitude;
+    }
+    
+    /**
+     * Scan [+-]?digits[.digits] into a packed mantissa, scale and sign
+     *
+     * @return {@link #NOT_EXACT} if the text is not a plain decimal or exceeds the exact limits
+     */
+    private static long scanDecimal(CharSequence text, int start, int end, long mantissaLimit, int maxScale) {
+        int index = start;
+        long negative = 0;
+        if (index < end) {
+            final char sign = text.charAt(index);
+            if (sign == '-') {
+                negative = 1;
+                ++index;
+            } else if (sign == '+') {
+                ++index;
+            }
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; index < end; index++) {
+            final char ch = text.charAt(index);
+            if (ch >= '0' && ch <= '9') {
+                mantissa = mantissa * 10 + (ch - '0');
+                if (mantissa >= mantissaLimit) {
+                    return NOT_EXACT;
+                }
+                ++digits;
+                if (scale >= 0) {
+                    ++scale;
+                }
+            } else if (ch == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return NOT_EXACT;
+            }
+        }
+        if (digits == 0 || scale > maxScale) {
+            return NOT_EXACT;
+        }
+        return (mantissa << MANTISSA_SHIFT) | ((long) Math.max(scale, 0) << 1) | negative;
+    }
+    
+    private static int scaleOf(long decimal) {
+        return (int) (decimal >>> 1) & SCALE_MASK;
+    }
+    
+    private static boolean isNegative(long decimal) {
+        return (decimal & 1) != 0;
+    }
+    
+    private static final long NOT_EXACT = -1;
+    private static final int MANTISSA_SHIFT = 6;
+    private static final int SCALE_MASK = 0x1F;
+    
+    private static final double[] DOUBLE_POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    private static final float[] FLOAT_POWERS = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+}
@@ -3,27 +3,137 @@ package io.github.jonloucks.variants.impl;
 import io.github.jonloucks.variants.api.Parsers;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static io.github.jonloucks.variants.api.Checks.textCheck;
+import static io.github.jonloucks.variants.impl.ParseNumberImpl.*;
 
 final class ParsersImpl implements Parsers {
 
     @Override
     public <T> Function<CharSequence, Optional<List<T>>> ofList(Function<CharSequence, Optional<T>> of, String delimiter) {
+        if (SplitByLiteral.isLiteral(delimiter)) {
+            return new OfListImpl<>(of, new SplitByLiteral(delimiter).compile()).compile();
+        }
         return new OfListImpl<>(of, new SplitByRegex(delimiter).compile()).compile();
     }
+    
+    @Override
+    public <T> Function<CharSequence, Optional<List<T>>> ofList(Function<CharSequence, Optional<T>> of, char delimiter) {
+        return new OfListImpl<>(of, new SplitByLiteral(String.valueOf(delimiter)).compile()).compile();
+    }
 
     @Override
     public <T extends Enum<T>> Function<CharSequence,T> enumParser(Class<T> enumClass) {
         return new EnumParserImpl<>(enumClass).compile();
     }
     
+    @Override
+    public <T extends Enum<T>> Function<CharSequence, T> enumParser(Class<T> enumClass, boolean ignoreCase, Map<String, T> aliases) {
+        return new EnumParserImpl<>(enumClass, ignoreCase, aliases).compile();
+    }
+    
     @Override
     public CharSequence trim(CharSequence text) {
         return new TrimTextImpl(text).trim();
     }
     
+    @Override
+    public Function<CharSequence, Integer> integerParser() {
+        return whole(ParseNumberImpl::parseInt);
+    }
+    
+    @Override
+    public Function<CharSequence, Optional<Integer>> ofInteger() {
+        return ofTrimmedRange(ParseNumberImpl::parseInt);
+    }
+    
+    @Override
+    public ToIntFunction<CharSequence> toIntParser() {
+        return text -> {
+            final CharSequence validText = textCheck(text);
+            final int start = trimStart(validText);
+            return parseInt(validText, start, trimEnd(validText, start));
+        };
+    }
+    
+    @Override
+    public Function<CharSequence, Long> longParser() {
+        return whole(ParseNumberImpl::parseLong);
+    }
+    
+    @Override
+    public Function<CharSequence, Optional<Long>> ofLong() {
+        return ofTrimmedRange(ParseNumberImpl::parseLong);
+    }
+    
+    @Override
+    public ToLongFunction<CharSequence> toLongParser() {
+        return text -> {
+            final CharSequence validText = textCheck(text);
+            final int start = trimStart(validText);
+            return parseLong(validText, start, trimEnd(validText, start));
+        };
+    }
+    
+    @Override
+    public Function<CharSequence, Double> doubleParser() {
+        return whole(ParseNumberImpl::parseDouble);
+    }
+    
+    @Override
+    public Function<CharSequence, Optional<Double>> ofDouble() {
+        return ofTrimmedRange(ParseNumberImpl::parseDouble);
+    }
+    
+    @Override
+    public ToDoubleFunction<CharSequence> toDoubleParser() {
+        return text -> {
+            final CharSequence validText = textCheck(text);
+            final int start = trimStart(validText);
+            return parseDouble(validText, start, trimEnd(validText, start));
+        };
+    }
+    
+    @Override
+    public Function<CharSequence, Float> floatParser() {
+        return whole(ParseNumberImpl::parseFloat);
+    }
+    
+    @Override
+    public Function<CharSequence, Optional<Float>> ofFloat() {
+        return ofTrimmedRange(ParseNumberImpl::parseFloat);
+    }
+    
     ParsersImpl() {
     
     }
+    
+    @FunctionalInterface
+    private interface RangeParser<T> {
+        T parse(CharSequence text, int start, int end);
+    }
+    
+    private static <T> Function<CharSequence, T> whole(RangeParser<T> parser) {
+        return text -> {
+            final CharSequence validText = textCheck(text);
+            return parser.parse(validText, 0, validText.length());
+        };
+    }
+    
+    private static <T> Function<CharSequence, Optional<T>> ofTrimmedRange(RangeParser<T> parser) {
+        return text -> {
+            if (text == null) {
+                return Optional.empty();
+            }
+            final int start = trimStart(text);
+            final int end = trimEnd(text, start);
+            return start == end ? Optional.empty() : Optional.of(parser.parse(text, start, end));
+        };
+    }
 }
@@ -0,0 +1,79 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static io.github.jonloucks.contracts.api.Checks.configCheck;
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.impl.Internal.isBlank;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Responsibility: Variant behavior shared by the primitive Variant implementations.
+ * Text is present when it is not null and not blank, the primitive parser converts it.
+ * @param <T> the boxed type of the primitive value
+ */
+abstract class PrimitiveVariantImpl<T> implements Variant<T> {
+    @Override
+    public List<String> getKeys() {
+        return variant.getKeys();
+    }
+    
+    @Override
+    public Optional<String> getName() {
+        return variant.getName();
+    }
+    
+    @Override
+    public Optional<String> getDescription() {
+        return variant.getDescription();
+    }
+    
+    @Override
+    public Optional<T> getFallback() {
+        return variant.getFallback();
+    }
+    
+    @Override
+    public Optional<Variant<T>> getLink() {
+        return variant.getLink();
+    }
+    
+    @Override
+    public Optional<T> of(CharSequence rawText) {
+        if (ofNullable(rawText).isPresent() && !isBlank(rawText)) {
+            return Optional.of(box(rawText));
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public String toString() {
+        return variant.toString();
+    }
+    
+    PrimitiveVariantImpl(Variant.Config<T> config) {
+        this.variant = new VariantImpl<>(configCheck(config));
+    }
+    
+    /**
+     * Convert a boxing parser into one that never returns null
+     * @param parser the assigned parser
+     * @return the checked parser
+     * @param <T> the boxed type of the primitive value
+     */
+    static <T> Function<CharSequence, T> requireValue(Function<CharSequence, T> parser) {
+        return text -> nullCheck(parser.apply(text), "Parser must return a value.");
+    }
+    
+    /**
+     * @param rawText text that is not null and not blank
+     * @return the boxed primitive value
+     */
+    abstract T box(CharSequence rawText);
+    
+    private final VariantImpl<T> variant;
+}
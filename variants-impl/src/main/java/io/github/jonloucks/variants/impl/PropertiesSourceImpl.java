@@ -0,0 +1,44 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: VariantSource listing the String properties of a java.util.Properties, including its defaults.
+ * <p>
+ * The Properties are supplied on every call, so replacing the system properties is seen as well.
+ * Properties can change at any time, the keys version is {@link #UNKNOWN_VERSION}.
+ * </p>
+ */
+final class PropertiesSourceImpl implements EnumerableVariantSource {
+    
+    @Override
+    public Optional<CharSequence> getSourceText(String key) {
+        return Optional.ofNullable(propertiesSupplier.get().getProperty(key));
+    }
+    
+    /**
+     * @return a copy of the property names when called
+     */
+    @Override
+    public Collection<String> getKeys() {
+        return propertiesSupplier.get().stringPropertyNames();
+    }
+    
+    @Override
+    public int getSizeHint() {
+        return propertiesSupplier.get().size();
+    }
+    
+    PropertiesSourceImpl(Supplier<Properties> propertiesSupplier) {
+        this.propertiesSupplier = nullCheck(propertiesSupplier, "Properties must be present.");
+    }
+    
+    private final Supplier<Properties> propertiesSupplier;
+}
@@ -0,0 +1,92 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.contracts.api.AutoClose;
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Explanation;
+import io.github.jonloucks.variants.api.Variances;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
+
+/**
+ * Responsibility: Environment answering lookups from atomically swapped snapshots.
+ * <p>
+ * Only {@link #invalidate()} takes a new generation, a generation never changes once it is published
+ * and readers only read the volatile reference to it.
+ * The keys of every Variant looked up are recorded, the next generation copies them from sources
+ * that can not list their keys. Until then the current generation answers them from those sources.
+ * </p>
+ */
+final class ReloadableEnvironmentImpl implements Environment {
+    
+    @Override
+    public <T> Optional<T> findVariance(Variant<T> variant) {
+        return snapshot.findVariance(recordKeys(variant));
+    }
+    
+    @Override
+    public <T> AutoClose subscribe(Variant<T> variant, Consumer<Optional<T>> consumer) {
+        return subscriptions.subscribe(variant, consumer);
+    }
+    
+    @Override
+    public <T> Explanation<T> explain(Variant<T> variant) {
+        return snapshot.explain(recordKeys(variant));
+    }
+    
+    @Override
+    public <R> R bind(Class<R> type, String prefix) {
+        return BindingImpl.of(type, prefix).bind(this);
+    }
+    
+    @Override
+    public Variances findVariances(Collection<? extends Variant<?>> variants) {
+        final Collection<? extends Variant<?>> validVariants = nullCheck(variants, "Variants must be present.");
+        for (Variant<?> variant : validVariants) {
+            recordKeys(variant);
+        }
+        return snapshot.findVariances(validVariants);
+    }
+    
+    @Override
+    public void invalidate() {
+        environment.refreshSources();
+        snapshot = environment.snapshot();
+        subscriptions.publish();
+    }
+    
+    @Override
+    public SnapshotEnvironmentImpl snapshot() {
+        return snapshot;
+    }
+    
+    @Override
+    public Environment overlay(VariantSource... overlays) {
+        return new OverlayEnvironmentImpl(this, environment, subscriptions, overlays);
+    }
+    
+    ReloadableEnvironmentImpl(Environment.Config config) {
+        this.environment = new EnvironmentImpl(config);
+        this.snapshot = environment.snapshot();
+        this.subscriptions = new SubscriptionsImpl(environment.getSources(), this);
+    }
+    
+    /**
+     * Planning a Variant records its keys, see {@link EnvironmentImpl#getPlan(Variant)}
+     */
+    private <T> Variant<T> recordKeys(Variant<T> variant) {
+        final Variant<T> validVariant = variantCheck(variant);
+        environment.getPlan(validVariant);
+        return validVariant;
+    }
+    
+    private final EnvironmentImpl environment;
+    private final SubscriptionsImpl subscriptions;
+    private volatile SnapshotEnvironmentImpl snapshot;
+}
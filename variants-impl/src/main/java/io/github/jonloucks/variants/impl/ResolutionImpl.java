@@ -0,0 +1,75 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnvironmentListener;
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.Optional;
+
+/**
+ * Responsibility: Immutable EnvironmentListener.Resolution implementation
+ */
+final class ResolutionImpl implements EnvironmentListener.Resolution {
+    
+    @Override
+    public Variant<?> getVariant() {
+        return variant;
+    }
+    
+    @Override
+    public int getSourceIndex() {
+        return sourceIndex;
+    }
+    
+    @Override
+    public Optional<String> getKey() {
+        return Optional.ofNullable(key);
+    }
+    
+    @Override
+    public int getLinkDepth() {
+        return linkDepth;
+    }
+    
+    @Override
+    public boolean isFallback() {
+        return fallback;
+    }
+    
+    @Override
+    public long getNanos() {
+        return nanos;
+    }
+    
+    @Override
+    public Object getContext() {
+        return context;
+    }
+    
+    @Override
+    public String toString() {
+        return "Resolution[variant=" + variant + ", sourceIndex=" + sourceIndex + ", key=" + key
+            + ", linkDepth=" + linkDepth + ", fallback=" + fallback + ", nanos=" + nanos + "]";
+    }
+    
+    /**
+     * @param key the matched key or null if not found
+     * @param context the context returned by the listener before resolving, or null
+     */
+    ResolutionImpl(Variant<?> variant, int sourceIndex, String key, int linkDepth, boolean fallback, long nanos, Object context) {
+        this.variant = variant;
+        this.sourceIndex = sourceIndex;
+        this.key = key;
+        this.linkDepth = linkDepth;
+        this.fallback = fallback;
+        this.nanos = nanos;
+        this.context = context;
+    }
+    
+    private final Variant<?> variant;
+    private final int sourceIndex;
+    private final String key;
+    private final int linkDepth;
+    private final boolean fallback;
+    private final long nanos;
+    private final Object context;
+}
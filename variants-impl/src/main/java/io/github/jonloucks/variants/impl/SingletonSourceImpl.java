@@ -0,0 +1,48 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.keyCheck;
+
+/**
+ * Responsibility: VariantSource with a single key, answering with the given text as is.
+ * <p>
+ * The text is not converted, so a mutable CharSequence is seen as it is when parsed.
+ * The key never changes, the keys version is constant.
+ * </p>
+ */
+final class SingletonSourceImpl implements EnumerableVariantSource {
+    
+    @Override
+    public Optional<CharSequence> getSourceText(String key) {
+        return this.key.equals(key) ? text : Optional.empty();
+    }
+    
+    @Override
+    public Collection<String> getKeys() {
+        return Collections.singletonList(key);
+    }
+    
+    @Override
+    public int getSizeHint() {
+        return 1;
+    }
+    
+    @Override
+    public long getKeysVersion() {
+        return 0;
+    }
+    
+    SingletonSourceImpl(String key, CharSequence text) {
+        this.key = keyCheck(key);
+        this.text = Optional.of(nullCheck(text, "Text must be present."));
+    }
+    
+    private final String key;
+    private final Optional<CharSequence> text;
+}
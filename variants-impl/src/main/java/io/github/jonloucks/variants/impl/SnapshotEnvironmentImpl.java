@@ -0,0 +1,94 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.contracts.api.AutoClose;
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Explanation;
+import io.github.jonloucks.variants.api.Variances;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Environment materialized from the sources of another Environment.
+ * <p>
+ * Each source is copied once into an immutable table, see {@link SnapshotSourceImpl}.
+ * Sources that can list their keys are copied completely, so a snapshot of them is one consistent generation.
+ * A source that can not list its keys is copied for the keys already known and answers other keys itself.
+ * Nothing is added to a snapshot after it is constructed.
+ * </p>
+ */
+final class SnapshotEnvironmentImpl implements Environment {
+    
+    @Override
+    public <T> Optional<T> findVariance(Variant<T> variant) {
+        return environment.findVariance(variant);
+    }
+    
+    @Override
+    public <T> AutoClose subscribe(Variant<T> variant, Consumer<Optional<T>> consumer) {
+        // immutable, subscribers are only notified if this snapshot is invalidated, which never changes a variance
+        return environment.subscribe(variant, consumer);
+    }
+    
+    @Override
+    public <T> Explanation<T> explain(Variant<T> variant) {
+        return environment.explain(variant);
+    }
+    
+    @Override
+    public <R> R bind(Class<R> type, String prefix) {
+        return BindingImpl.of(type, prefix).bind(this);
+    }
+    
+    @Override
+    public Variances findVariances(Collection<? extends Variant<?>> variants) {
+        return environment.findVariances(variants);
+    }
+    
+    @Override
+    public SnapshotEnvironmentImpl snapshot() {
+        return this;
+    }
+    
+    @Override
+    public Environment overlay(VariantSource... overlays) {
+        return new OverlayEnvironmentImpl(this, environment, environment.getSubscriptions(), overlays);
+    }
+    
+    /**
+     * @param sources the sources to copy, a source that is already a snapshot is shared
+     * @param keys the keys to copy from sources that can not list their keys
+     * @param useIndex if true, lookups use a merged index of the copies
+     * @param listener the listener or null
+     */
+    SnapshotEnvironmentImpl(VariantSource[] sources, Collection<String> keys, boolean useIndex, ListenerImpl listener) {
+        final SnapshotSourceImpl[] snapshotSources = copySources(sources, keys);
+        boolean complete = true;
+        for (SnapshotSourceImpl snapshotSource : snapshotSources) {
+            complete &= snapshotSource.isComplete();
+        }
+        // a source answering keys that were not copied can change, otherwise resolved variances never do
+        this.environment = new EnvironmentImpl(snapshotSources, complete, useIndex, listener);
+    }
+    
+    private static SnapshotSourceImpl[] copySources(VariantSource[] sources, Collection<String> keys) {
+        final VariantSource[] validSources = nullCheck(sources, "Sources must be present.");
+        // copied once, every source of the snapshot sees the same keys
+        final Collection<String> validKeys = new ArrayList<>(nullCheck(keys, "Keys must be present."));
+        final SnapshotSourceImpl[] snapshotSources = new SnapshotSourceImpl[validSources.length];
+        for (int index = 0; index < validSources.length; index++) {
+            snapshotSources[index] = validSources[index] instanceof SnapshotSourceImpl
+                ? (SnapshotSourceImpl) validSources[index]
+                : new SnapshotSourceImpl(validSources[index], validKeys);
+        }
+        return snapshotSources;
+    }
+    
+    private final EnvironmentImpl environment;
+}
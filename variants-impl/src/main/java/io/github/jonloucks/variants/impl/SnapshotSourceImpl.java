@@ -0,0 +1,104 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.keyCheck;
+
+/**
+ * Responsibility: Immutable copy of the text another VariantSource provides.
+ * <p>
+ * A source that can list its keys is copied completely, a key it lacked when copied is never found.
+ * Any other source is copied for the given keys, a key it lacked is remembered as missing,
+ * and a key that was not given is answered by the source itself on every lookup, without being copied.
+ * The copied table is never changed once constructed.
+ * </p>
+ */
+final class SnapshotSourceImpl implements EnumerableVariantSource {
+    
+    @Override
+    public Optional<CharSequence> getSourceText(String key) {
+        final Optional<CharSequence> optionalText = texts.get(keyCheck(key));
+        if (optionalText != null) {
+            return optionalText;
+        }
+        return complete ? Optional.empty() : source.getSourceText(key);
+    }
+    
+    /**
+     * @return a constant if the source was copied completely, otherwise {@link #UNKNOWN_VERSION}
+     */
+    @Override
+    public long getKeysVersion() {
+        return complete ? 0 : UNKNOWN_VERSION;
+    }
+    
+    @Override
+    public Collection<String> getKeys() {
+        return Collections.unmodifiableSet(texts.keySet());
+    }
+    
+    @Override
+    public int getSizeHint() {
+        return texts.size();
+    }
+    
+    /**
+     * @return the source this snapshot was copied from
+     */
+    VariantSource getSource() {
+        return source;
+    }
+    
+    /**
+     * @return true if every key of the source was copied
+     */
+    boolean isComplete() {
+        return complete;
+    }
+    
+    /**
+     * @param source the source to copy
+     * @param keys the keys to copy if the source can not list its keys
+     */
+    SnapshotSourceImpl(VariantSource source, Collection<String> keys) {
+        this.source = nullCheck(source, "Source must be present.");
+        this.complete = source instanceof EnumerableVariantSource;
+        final Collection<String> copiedKeys = complete ? listKeys((EnumerableVariantSource) source)
+            : nullCheck(keys, "Keys must be present.");
+        this.texts = new HashMap<>(copiedKeys.size() * 2);
+        if (!complete) {
+            for (String key : copiedKeys) {
+                texts.put(key, Optional.empty());
+            }
+        }
+        if (!copiedKeys.isEmpty()) {
+            source.getSourceTexts(copiedKeys, (key, text) -> {
+                if (key != null && text != null) {
+                    texts.put(key, Optional.of(text.toString()));
+                }
+            });
+        }
+    }
+    
+    private static List<String> listKeys(EnumerableVariantSource source) {
+        final List<String> keys = new ArrayList<>(Math.max(source.getSizeHint(), 0));
+        source.getKeys().forEach(keys::add);
+        return keys;
+    }
+    
+    private final VariantSource source;
+    private final boolean complete;
+    // Opting out of the best practice of not using Optionals in collections
+    // Reason:  The Optional is created once when the snapshot is taken instead of on every lookup
+    private final Map<String, Optional<CharSequence>> texts;
+}
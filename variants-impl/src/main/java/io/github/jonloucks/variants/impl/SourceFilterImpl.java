@@ -0,0 +1,101 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Responsibility: Tell an Environment when a keyed source definitely lacks a key.
+ * The Bloom filter is built when the Environment is created and rebuilt on the first check after the keys changed.
+ */
+final class SourceFilterImpl {
+    
+    /**
+     * @param sources the sources of an Environment
+     * @return the filters in source order, null for sources that can not list their keys or tell when they change,
+     * or null if there are none
+     */
+    static SourceFilterImpl[] create(VariantSource[] sources) {
+        SourceFilterImpl[] filters = null;
+        for (int index = 0; index < sources.length; index++) {
+            if (isVersioned(sources[index])) {
+                if (filters == null) {
+                    filters = new SourceFilterImpl[sources.length];
+                }
+                filters[index] = new SourceFilterImpl((EnumerableVariantSource) sources[index]);
+            }
+        }
+        return filters;
+    }
+    
+    /**
+     * @param key the key
+     * @return false if the source definitely does not have the key
+     */
+    boolean mightContain(String key) {
+        return getFilter().mightContain(key);
+    }
+    
+    /**
+     * @param keys the keys
+     * @return false if the source definitely has none of the keys
+     */
+    boolean mightContainAny(Collection<String> keys) {
+        final BloomFilterImpl bloomFilter = getFilter();
+        for (String key : keys) {
+            if (bloomFilter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * @param source the source
+     * @return true if the source lists its keys and tells when they change
+     */
+    static boolean isVersioned(VariantSource source) {
+        return source instanceof EnumerableVariantSource
+            && ((EnumerableVariantSource) source).getKeysVersion() != EnumerableVariantSource.UNKNOWN_VERSION;
+    }
+    
+    SourceFilterImpl(EnumerableVariantSource source) {
+        this.source = nullCheck(source, "Source must be present.");
+        this.version = source.getKeysVersion();
+        this.bloomFilter = createFilter(source);
+    }
+    
+    private static BloomFilterImpl createFilter(EnumerableVariantSource source) {
+        final Iterable<String> keys = source.getKeys();
+        final int sizeHint = source.getSizeHint();
+        if (sizeHint >= 0) {
+            return new BloomFilterImpl(keys, sizeHint);
+        }
+        final List<String> keyList = new ArrayList<>();
+        keys.forEach(keyList::add);
+        return new BloomFilterImpl(keyList, keyList.size());
+    }
+    
+    private BloomFilterImpl getFilter() {
+        final long currentVersion = source.getKeysVersion();
+        if (currentVersion != version) {
+            // the keys are read after the version, a filter built from newer keys is rebuilt once more at worst
+            synchronized (this) {
+                if (currentVersion != version) {
+                    bloomFilter = createFilter(source);
+                    version = currentVersion;
+                }
+            }
+        }
+        return bloomFilter;
+    }
+    
+    private final EnumerableVariantSource source;
+    private volatile long version;
+    private volatile BloomFilterImpl bloomFilter;
+}
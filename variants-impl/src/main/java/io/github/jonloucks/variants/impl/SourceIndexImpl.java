@@ -0,0 +1,250 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.EnumerableVariantSource;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.*;
+
+/**
+ * Responsibility: One table of the source texts of every key, for Environments whose sources can all list their keys.
+ * <p>
+ * Each key maps to the sources defining it in source order with their texts, so a Variant is resolved
+ * with one table lookup per key and still sees the same breadth first order as {@link FindVariantImpl},
+ * including moving on to a later source when a text does not convert.
+ * The table is immutable and replaced when the keys version of a source changes,
+ * only the changed sources are read again.
+ * </p>
+ * <p>
+ * Readers never lock, so a change copies the entries of every source into the new table, which costs
+ * time and garbage in proportion to the total keys. The index is meant for sources that change rarely.
+ * </p>
+ */
+final class SourceIndexImpl {
+    
+    /**
+     * @param sources the sources of an Environment
+     * @return the index, or null if a source can not list its keys or tell when they change
+     */
+    static SourceIndexImpl create(VariantSource[] sources) {
+        final EnumerableVariantSource[] keyedSources = new EnumerableVariantSource[sources.length];
+        for (int index = 0; index < sources.length; index++) {
+            if (!SourceFilterImpl.isVersioned(sources[index])) {
+                return null;
+            }
+            keyedSources[index] = (EnumerableVariantSource) sources[index];
+        }
+        return new SourceIndexImpl(keyedSources);
+    }
+    
+    <T> Optional<T> findVariance(VariantPlanImpl<T> plan, ListenerImpl configuredListener) {
+        final ListenerImpl listener = ListenerImpl.enabled(configuredListener);
+        final Object context = listener == null ? null : listener.resolving(plan);
+        final long startNanos = listener == null ? 0 : System.nanoTime();
+        final Map<String, Entry> entries = getTable().entries;
+        final int size = plan.size();
+        final Entry[] planEntries = new Entry[size];
+        boolean anyEntry = false;
+        for (int index = 0; index < size; index++) {
+            planEntries[index] = entries.get(plan.getKey(index));
+            anyEntry |= planEntries[index] != null;
+        }
+        int sourceIndex = anyEntry ? nextSourceIndex(planEntries, -1) : NO_SOURCE;
+        for (; sourceIndex != NO_SOURCE; sourceIndex = nextSourceIndex(planEntries, sourceIndex)) {
+            for (int index = 0; index < size; index++) {
+                final CharSequence text = planEntries[index] == null ? null : planEntries[index].getText(sourceIndex);
+                if (text != null) {
+                    final Optional<T> variance = listener == null ? plan.of(index, text) : listener.of(plan, index, text);
+                    if (variance.isPresent()) {
+                        if (listener != null) {
+                            listener.resolved(plan, sourceIndex, plan.getKey(index), plan.getOwner(index), context, startNanos);
+                        }
+                        return variance;
+                    }
+                }
+            }
+        }
+        return listener == null ? plan.findFallback() : listener.fallback(plan, context, startNanos);
+    }
+    
+    /**
+     * Responsibility: The sources defining one key, in source order
+     */
+    private static final class Entry {
+        
+        Entry(int[] sourceIndexes, CharSequence[] texts) {
+            this.sourceIndexes = sourceIndexes;
+            this.texts = texts;
+        }
+        
+        CharSequence getText(int sourceIndex) {
+            for (int index = 0; index < sourceIndexes.length; index++) {
+                if (sourceIndexes[index] == sourceIndex) {
+                    return texts[index];
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * @return the first source index greater than the given one, or {@link #NO_SOURCE}
+         */
+        int nextSourceIndex(int afterSourceIndex) {
+            for (int sourceIndex : sourceIndexes) {
+                if (sourceIndex > afterSourceIndex) {
+                    return sourceIndex;
+                }
+            }
+            return NO_SOURCE;
+        }
+        
+        Entry with(int sourceIndex, CharSequence text) {
+            int position = 0;
+            while (position < sourceIndexes.length && sourceIndexes[position] < sourceIndex) {
+                position++;
+            }
+            final int[] newIndexes = new int[sourceIndexes.length + 1];
+            final CharSequence[] newTexts = new CharSequence[texts.length + 1];
+            System.arraycopy(sourceIndexes, 0, newIndexes, 0, position);
+            System.arraycopy(texts, 0, newTexts, 0, position);
+            newIndexes[position] = sourceIndex;
+            newTexts[position] = text;
+            System.arraycopy(sourceIndexes, position, newIndexes, position + 1, sourceIndexes.length - position);
+            System.arraycopy(texts, position, newTexts, position + 1, texts.length - position);
+            return new Entry(newIndexes, newTexts);
+        }
+        
+        /**
+         * @return the entry without the source, or null if no source is left
+         */
+        Entry without(int sourceIndex) {
+            final int position = indexOf(sourceIndex);
+            if (position < 0) {
+                return this;
+            }
+            if (sourceIndexes.length == 1) {
+                return null;
+            }
+            final int[] newIndexes = new int[sourceIndexes.length - 1];
+            final CharSequence[] newTexts = new CharSequence[texts.length - 1];
+            System.arraycopy(sourceIndexes, 0, newIndexes, 0, position);
+            System.arraycopy(texts, 0, newTexts, 0, position);
+            System.arraycopy(sourceIndexes, position + 1, newIndexes, position, newIndexes.length - position);
+            System.arraycopy(texts, position + 1, newTexts, position, newTexts.length - position);
+            return new Entry(newIndexes, newTexts);
+        }
+        
+        private int indexOf(int sourceIndex) {
+            for (int index = 0; index < sourceIndexes.length; index++) {
+                if (sourceIndexes[index] == sourceIndex) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+        
+        private final int[] sourceIndexes;
+        private final CharSequence[] texts;
+    }
+    
+    /**
+     * Responsibility: One immutable generation of the index
+     */
+    private static final class Table {
+        
+        Table(long[] versions, List<List<String>> keys, Map<String, Entry> entries) {
+            this.versions = versions;
+            this.keys = keys;
+            this.entries = entries;
+        }
+        
+        private final long[] versions;
+        private final List<List<String>> keys;
+        private final Map<String, Entry> entries;
+    }
+    
+    private static final int NO_SOURCE = Integer.MAX_VALUE;
+    
+    private SourceIndexImpl(EnumerableVariantSource[] keyedSources) {
+        this.keyedSources = keyedSources;
+        final long[] versions = new long[keyedSources.length];
+        final List<List<String>> keys = new ArrayList<>(keyedSources.length);
+        for (int index = 0; index < keyedSources.length; index++) {
+            keys.add(Collections.<String>emptyList());
+        }
+        // every source is read on the first rebuild
+        Arrays.fill(versions, EnumerableVariantSource.UNKNOWN_VERSION);
+        this.table = rebuild(new Table(versions, keys, new HashMap<>()));
+    }
+    
+    private static int nextSourceIndex(Entry[] planEntries, int afterSourceIndex) {
+        int next = NO_SOURCE;
+        for (Entry entry : planEntries) {
+            if (entry != null) {
+                next = Math.min(next, entry.nextSourceIndex(afterSourceIndex));
+            }
+        }
+        return next;
+    }
+    
+    private Table getTable() {
+        final Table current = table;
+        for (int index = 0; index < keyedSources.length; index++) {
+            if (keyedSources[index].getKeysVersion() != current.versions[index]) {
+                return refresh();
+            }
+        }
+        return current;
+    }
+    
+    private synchronized Table refresh() {
+        table = rebuild(table);
+        return table;
+    }
+    
+    /**
+     * @return a new table with the changed sources read again, or the given table if none changed
+     */
+    private Table rebuild(Table previous) {
+        final long[] versions = previous.versions.clone();
+        final List<List<String>> keys = new ArrayList<>(previous.keys);
+        Map<String, Entry> entries = null;
+        for (int sourceIndex = 0; sourceIndex < keyedSources.length; sourceIndex++) {
+            final long version = keyedSources[sourceIndex].getKeysVersion();
+            if (version == versions[sourceIndex]) {
+                continue;
+            }
+            if (entries == null) {
+                entries = new HashMap<>(previous.entries);
+            }
+            for (String key : keys.get(sourceIndex)) {
+                final Entry entry = entries.get(key);
+                if (entry != null) {
+                    final Entry remaining = entry.without(sourceIndex);
+                    if (remaining == null) {
+                        entries.remove(key);
+                    } else {
+                        entries.put(key, remaining);
+                    }
+                }
+            }
+            // keys are read after the version, a newer key set is read once more at worst
+            final List<String> sourceKeys = new ArrayList<>();
+            keyedSources[sourceIndex].getKeys().forEach(sourceKeys::add);
+            for (String key : sourceKeys) {
+                final Optional<CharSequence> text = keyedSources[sourceIndex].getSourceText(key);
+                if (text.isPresent()) {
+                    final Entry entry = entries.get(key);
+                    entries.put(key, entry == null
+                        ? new Entry(new int[]{sourceIndex}, new CharSequence[]{text.get()})
+                        : entry.with(sourceIndex, text.get()));
+                }
+            }
+            versions[sourceIndex] = version;
+            keys.set(sourceIndex, sourceKeys);
+        }
+        return entries == null ? previous : new Table(versions, keys, entries);
+    }
+    
+    private final EnumerableVariantSource[] keyedSources;
+    private volatile Table table;
+}
@@ -0,0 +1,87 @@
+package io.github.jonloucks.variants.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+
+/**
+ * Splits on a literal delimiter with the same results as {@link String#split(String)},
+ * in a single scan without regular expressions or converting the text to a String.
+ */
+final class SplitByLiteral {
+    
+    /**
+     * @param delimiter the delimiter
+     * @return true if the delimiter has the same meaning as a literal and as a regular expression
+     */
+    static boolean isLiteral(String delimiter) {
+        if (delimiter == null || delimiter.isEmpty()) {
+            return false;
+        }
+        for (int index = 0; index < delimiter.length(); index++) {
+            if (REGEX_META_CHARACTERS.indexOf(delimiter.charAt(index)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    SplitByLiteral(String delimiter) {
+        this.delimiter = nullCheck(delimiter, "Delimiter must be present.");
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Delimiter must not be empty.");
+        }
+    }
+    
+    Function<CharSequence, Iterable<CharSequence>> compile() {
+        return text -> {
+            int index = indexOf(text, 0);
+            if (index < 0) {
+                return Collections.singletonList(text);
+            }
+            final List<CharSequence> parts = new ArrayList<>();
+            int start = 0;
+            int kept = 0;
+            while (index >= 0) {
+                parts.add(text.subSequence(start, index));
+                if (index > start) {
+                    kept = parts.size();
+                }
+                start = index + delimiter.length();
+                index = indexOf(text, start);
+            }
+            if (start < text.length()) {
+                parts.add(text.subSequence(start, text.length()));
+                kept = parts.size();
+            }
+            return kept == parts.size() ? parts : parts.subList(0, kept);
+        };
+    }
+    
+    private int indexOf(CharSequence text, int from) {
+        final int last = text.length() - delimiter.length();
+        final char first = delimiter.charAt(0);
+        for (int index = from; index <= last; index++) {
+            if (text.charAt(index) == first && matchesAt(text, index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+    
+    private boolean matchesAt(CharSequence text, int offset) {
+        for (int index = 1; index < delimiter.length(); index++) {
+            if (text.charAt(offset + index) != delimiter.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static final String REGEX_META_CHARACTERS = ".$|()[]{}^?*+\\";
+    
+    private final String delimiter;
+}
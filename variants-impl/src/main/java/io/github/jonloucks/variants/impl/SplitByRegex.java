@@ -2,21 +2,22 @@ package io.github.jonloucks.variants.impl;
 
 import java.util.Arrays;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
 
 final class SplitByRegex {
     
     SplitByRegex(String delimiter) {
-        this.delimiter = nullCheck(delimiter, "Delimiter must be present.");
+        this.pattern = Pattern.compile(nullCheck(delimiter, "Delimiter must be present."));
     }
     
     Function<CharSequence, Iterable<CharSequence>> compile() {
         return text -> {
-            final CharSequence[] parts = text.toString().split(delimiter);
+            final CharSequence[] parts = pattern.split(text);
             return Arrays.asList(parts);
         };
     }
     
-    private final String delimiter;
+    private final Pattern pattern;
 }
@@ -0,0 +1,159 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.contracts.api.AutoClose;
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.Variant;
+import io.github.jonloucks.variants.api.VariantSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
+
+/**
+ * Responsibility: Deliver changed variances to subscribers of an Environment.
+ * <p>
+ * Source change listeners are only registered while there is at least one subscription or dependent.
+ * A source change invalidates the Environment, which in turn publishes to the subscribers and then the dependents.
+ * An Environment answering from another, such as an overlay, depends on the subscriptions of the other
+ * while it has subscriptions itself, so it hears of changes without invalidating the other.
+ * </p>
+ */
+final class SubscriptionsImpl {
+    
+    <T> AutoClose subscribe(Variant<T> variant, Consumer<Optional<T>> consumer) {
+        final Subscription<T> subscription = new Subscription<>(
+            variantCheck(variant),
+            nullCheck(consumer, "Consumer must be present."));
+        synchronized (this) {
+            subscription.last = environment.findVariance(variant);
+            subscriptions.add(subscription);
+            if (subscriptions.size() + dependents.size() == 1) {
+                listen();
+            }
+        }
+        return () -> unsubscribe(subscription);
+    }
+    
+    /**
+     * @param dependent called after every publish
+     * @return closing removes the dependent
+     */
+    AutoClose addDependent(Runnable dependent) {
+        final Runnable validDependent = nullCheck(dependent, "Dependent must be present.");
+        synchronized (this) {
+            dependents.add(validDependent);
+            if (subscriptions.size() + dependents.size() == 1) {
+                listen();
+            }
+        }
+        return () -> removeDependent(validDependent);
+    }
+    
+    /**
+     * Re-evaluate every subscription and notify the ones whose variance changed.
+     * Consumers are notified after the lock is released, so a consumer may subscribe or unsubscribe.
+     */
+    void publish() {
+        final List<Runnable> notifications = new ArrayList<>();
+        synchronized (this) {
+            for (Subscription<?> subscription : new ArrayList<>(subscriptions)) {
+                subscription.publish(environment, notifications);
+            }
+            notifications.addAll(dependents);
+        }
+        for (Runnable notification : notifications) {
+            notification.run();
+        }
+    }
+    
+    SubscriptionsImpl(VariantSource[] sources, Environment environment) {
+        this(sources, environment, null);
+    }
+    
+    /**
+     * @param upstream the subscriptions of the Environment answering what this one does not, or null
+     */
+    SubscriptionsImpl(VariantSource[] sources, Environment environment, SubscriptionsImpl upstream) {
+        this.sources = nullCheck(sources, "Sources must be present.");
+        this.environment = nullCheck(environment, "Environment must be present.");
+        this.upstream = upstream;
+    }
+    
+    private synchronized void unsubscribe(Subscription<?> subscription) {
+        if (subscriptions.remove(subscription)) {
+            stopListeningIfUnused();
+        }
+    }
+    
+    private synchronized void removeDependent(Runnable dependent) {
+        if (dependents.remove(dependent)) {
+            stopListeningIfUnused();
+        }
+    }
+    
+    private void stopListeningIfUnused() {
+        if (subscriptions.isEmpty() && dependents.isEmpty()) {
+            for (AutoClose listener : listeners) {
+                listener.close();
+            }
+            listeners.clear();
+        }
+    }
+    
+    private void listen() {
+        for (VariantSource source : sources) {
+            listeners.add(source.addChangeListener(environment::invalidate));
+        }
+        if (upstream != null) {
+            listeners.add(upstream.addDependent(this::publish));
+        }
+    }
+    
+    private static final class Subscription<T> {
+        
+        Subscription(Variant<T> variant, Consumer<Optional<T>> consumer) {
+            this.variant = variant;
+            this.consumer = consumer;
+        }
+        
+        /**
+         * Called while holding the subscriptions lock, adds a notification if the variance changed
+         */
+        void publish(Environment environment, List<Runnable> notifications) {
+            final Optional<T> current = environment.findVariance(variant);
+            if (!Objects.equals(current, last)) {
+                last = current;
+                final long version = ++lastVersion;
+                notifications.add(() -> deliver(current, version));
+            }
+        }
+        
+        /**
+         * Concurrent publishers may deliver out of order, a variance older than the last delivered is dropped
+         */
+        private synchronized void deliver(Optional<T> variance, long version) {
+            if (version > deliveredVersion) {
+                deliveredVersion = version;
+                consumer.accept(variance);
+            }
+        }
+        
+        private final Variant<T> variant;
+        private final Consumer<Optional<T>> consumer;
+        private Optional<T> last;
+        private long lastVersion;
+        private long deliveredVersion;
+    }
+    
+    private final VariantSource[] sources;
+    private final Environment environment;
+    private final SubscriptionsImpl upstream;
+    private final List<Subscription<?>> subscriptions = new ArrayList<>();
+    private final List<Runnable> dependents = new ArrayList<>();
+    private final List<AutoClose> listeners = new ArrayList<>();
+}
@@ -0,0 +1,29 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.Variances;
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.jonloucks.contracts.api.Checks.nullCheck;
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
+
+/**
+ * Responsibility: Variances implementation
+ */
+final class VariancesImpl implements Variances {
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Optional<T> findVariance(Variant<T> variant) {
+        final Optional<?> variance = variances.get(variantCheck(variant));
+        return variance == null ? Optional.empty() : (Optional<T>) variance;
+    }
+    
+    VariancesImpl(Map<Variant<?>, Optional<?>> variances) {
+        this.variances = nullCheck(variances, "Variances must be present.");
+    }
+    
+    private final Map<Variant<?>, Optional<?>> variances;
+}
@@ -49,8 +49,17 @@ final class VariantBuilderImpl<T> implements Variant.Config.Builder<T> {
     
     @Override
     public VariantBuilderImpl<T> fallback(Supplier<T> fallback) {
-        this.fallback = nullCheck(fallback, "Fallback must be present.");
-        return this;
+        return fallback(fallback, FallbackMode.EAGER);
+    }
+    
+    @Override
+    public VariantBuilderImpl<T> lazyFallback(Supplier<T> fallback) {
+        return fallback(fallback, FallbackMode.LAZY);
+    }
+    
+    @Override
+    public VariantBuilderImpl<T> dynamicFallback(Supplier<T> fallback) {
+        return fallback(fallback, FallbackMode.DYNAMIC);
     }
     
     @Override
@@ -74,6 +83,20 @@ final class VariantBuilderImpl<T> implements Variant.Config.Builder<T> {
         return ofNullable(fallback.get());
     }
     
+    @Override
+    public Supplier<Optional<T>> getFallbackSupplier() {
+        final Supplier<T> validFallback = fallback;
+        switch (fallbackMode) {
+            case LAZY:
+                return new LazyFallback<>(validFallback);
+            case DYNAMIC:
+                return () -> ofNullable(validFallback.get());
+            default:
+                final Optional<T> optionalFallback = getFallback();
+                return () -> optionalFallback;
+        }
+    }
+    
     @Override
     public Optional<Variant<T>> getLink() {
         return ofNullable(link);
@@ -97,6 +120,12 @@ final class VariantBuilderImpl<T> implements Variant.Config.Builder<T> {
     VariantBuilderImpl() {
     }
     
+    private VariantBuilderImpl<T> fallback(Supplier<T> fallback, FallbackMode fallbackMode) {
+        this.fallback = nullCheck(fallback, "Fallback must be present.");
+        this.fallbackMode = fallbackMode;
+        return this;
+    }
+    
     private Function<CharSequence,Optional<T>> compileOf() {
         final Optional<Function<CharSequence,T>> optionalParser = getParser();
         if (optionalParser.isPresent()) {
@@ -112,9 +141,45 @@ final class VariantBuilderImpl<T> implements Variant.Config.Builder<T> {
         }
     }
     
+    private enum FallbackMode {
+        EAGER,
+        LAZY,
+        DYNAMIC
+    }
+    
+    /**
+     * Invokes the supplier on first use and retains the value, a supplier that throws is invoked again
+     */
+    private static final class LazyFallback<T> implements Supplier<Optional<T>> {
+        
+        @Override
+        public Optional<T> get() {
+            Optional<T> current = value;
+            if (current == null) {
+                synchronized (this) {
+                    current = value;
+                    if (current == null) {
+                        current = ofNullable(supplier.get());
+                        value = current;
+                    }
+                }
+            }
+            return current;
+        }
+        
+        LazyFallback(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+        
+        private final Supplier<T> supplier;
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        private volatile Optional<T> value;
+    }
+    
     private String name;
     private String description;
     private Supplier<T> fallback = () -> null;
+    private FallbackMode fallbackMode = FallbackMode.EAGER;
     private final LinkedHashSet<String> keys = new LinkedHashSet<>() ;
     private Function<CharSequence,T> parser;
     private Function<CharSequence, Optional<T>> of;
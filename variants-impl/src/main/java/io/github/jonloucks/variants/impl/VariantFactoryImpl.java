@@ -1,9 +1,6 @@
 package io.github.jonloucks.variants.impl;
 
-import io.github.jonloucks.variants.api.Parsers;
-import io.github.jonloucks.variants.api.Variant;
-import io.github.jonloucks.variants.api.VariantFactory;
-import io.github.jonloucks.variants.api.Variants;
+import io.github.jonloucks.variants.api.*;
 
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -18,16 +15,13 @@ final class VariantFactoryImpl implements VariantFactory {
     
     @Override
     public <T> Variant<T> createVariant(Consumer<Variant.Config.Builder<T>> builderConsumer) {
-        final Consumer<Variant.Config.Builder<T>> validBuildConsumer = builderConsumerCheck(builderConsumer);
-        final VariantBuilderImpl<T> variantBuilder = new VariantBuilderImpl<>();
-        validBuildConsumer.accept(variantBuilder);
-        return createVariant(variantBuilder);
+        return createVariant(build(builderConsumer));
     }
     
     @Override
     public <T> Variant<T> createVariant(BiConsumer<Variant.Config.Builder<T>, Parsers> builderConsumer) {
         final BiConsumer<Variant.Config.Builder<T>,Parsers> validBuildConsumer = builderConsumerCheck(builderConsumer);
-        final Parsers parsers = config.contracts().claim(Parsers.CONTRACT);
+        final Parsers parsers = getParsers();
         final VariantBuilderImpl<T> variantBuilder = new VariantBuilderImpl<>();
         validBuildConsumer.accept(variantBuilder, parsers);
         return createVariant(variantBuilder);
@@ -38,10 +32,41 @@ final class VariantFactoryImpl implements VariantFactory {
         return new VariantImpl<>(config);
     }
     
+    @Override
+    public IntVariant createIntVariant(Consumer<Variant.Config.Builder<Integer>> builderConsumer) {
+        return new IntVariantImpl(build(builderConsumer), getParsers().toIntParser());
+    }
+    
+    @Override
+    public LongVariant createLongVariant(Consumer<Variant.Config.Builder<Long>> builderConsumer) {
+        return new LongVariantImpl(build(builderConsumer), getParsers().toLongParser());
+    }
+    
+    @Override
+    public DoubleVariant createDoubleVariant(Consumer<Variant.Config.Builder<Double>> builderConsumer) {
+        return new DoubleVariantImpl(build(builderConsumer), getParsers().toDoubleParser());
+    }
+    
+    @Override
+    public BooleanVariant createBooleanVariant(Consumer<Variant.Config.Builder<Boolean>> builderConsumer) {
+        return new BooleanVariantImpl(build(builderConsumer), getParsers().toBooleanParser());
+    }
+    
     
     VariantFactoryImpl(Variants.Config config) {
         this.config = configCheck(config);
     }
     
+    private <T> VariantBuilderImpl<T> build(Consumer<Variant.Config.Builder<T>> builderConsumer) {
+        final Consumer<Variant.Config.Builder<T>> validBuildConsumer = builderConsumerCheck(builderConsumer);
+        final VariantBuilderImpl<T> variantBuilder = new VariantBuilderImpl<>();
+        validBuildConsumer.accept(variantBuilder);
+        return variantBuilder;
+    }
+    
+    private Parsers getParsers() {
+        return config.contracts().claim(Parsers.CONTRACT);
+    }
+    
     private final Variants.Config config;
 }
@@ -5,6 +5,7 @@ import io.github.jonloucks.variants.api.Variant;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static io.github.jonloucks.contracts.api.Checks.configCheck;
 import static io.github.jonloucks.contracts.api.Checks.nullCheck;
@@ -32,7 +33,7 @@ final class VariantImpl<T> implements Variant<T> {
     
     @Override
     public Optional<T> getFallback() {
-        return this.fallback;
+        return this.fallback.get();
     }
     
     @Override
@@ -60,7 +61,7 @@ final class VariantImpl<T> implements Variant<T> {
         this.name = nullCheck(validConfig.getName(), "Optional name must be set.");
         this.description = nullCheck(validConfig.getDescription(), "Optional description must be set.");
         this.link = nullCheck(validConfig.getLink(), "Optional link must be set.");
-        this.fallback = nullCheck(validConfig.getFallback(), "Optional fallback must be set.");
+        this.fallback = nullCheck(validConfig.getFallbackSupplier(), "Fallback supplier must be set.");
         this.of = nullCheck(validConfig.getOf(), "Of method must be set.");
     }
     
@@ -71,8 +72,7 @@ final class VariantImpl<T> implements Variant<T> {
     private final Optional<String> name;
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private final Optional<String> description;
-    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-    private final Optional<T> fallback;
+    private final Supplier<Optional<T>> fallback;
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private final Optional<Variant<T>> link;
     private final Function<CharSequence,Optional<T>> of;
@@ -0,0 +1,144 @@
+package io.github.jonloucks.variants.impl;
+
+import io.github.jonloucks.variants.api.BooleanVariant;
+import io.github.jonloucks.variants.api.DoubleVariant;
+import io.github.jonloucks.variants.api.IntVariant;
+import io.github.jonloucks.variants.api.LongVariant;
+import io.github.jonloucks.variants.api.Variant;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static io.github.jonloucks.variants.api.Checks.variantCheck;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Responsibility: Immutable lookup plan for a Variant, compiled once and reused for every lookup.
+ * <p>
+ * The keys of a Variant and all of its links are flattened into one array in search order.
+ * Each key remembers the Variant whose 'of' method converts its text.
+ * </p>
+ * @param <T> the type of Variant value
+ */
+final class VariantPlanImpl<T> {
+    
+    int size() {
+        return keys.length;
+    }
+    
+    String getKey(int index) {
+        return keys[index];
+    }
+    
+    /**
+     * @return the distinct keys in search order
+     */
+    List<String> getDistinctKeys() {
+        return distinctKeys;
+    }
+    
+    Optional<T> of(int index, CharSequence text) {
+        return owners[index].of(text);
+    }
+    
+    Variant<T> getOwner(int index) {
+        return owners[index];
+    }
+    
+    /**
+     * @param index the key index
+     * @return true if the Variant owning the key converts text without boxing
+     */
+    boolean isPrimitive(int index) {
+        return primitives[index];
+    }
+    
+    Variant<T> getVariant() {
+        return chain[0];
+    }
+    
+    Optional<T> findFallback() {
+        return findFallback(null);
+    }
+    
+    /**
+     * Find the fallback in a single pass over the link chain, so a dynamic fallback is invoked once
+     *
+     * @param owner receives the Variant in the link chain providing the fallback, or null
+     * @return the fallback
+     */
+    Optional<T> findFallback(Consumer<Variant<T>> owner) {
+        for (Variant<T> variant : chain) {
+            final Optional<T> optionalFallback = variant.getFallback();
+            if (optionalFallback.isPresent()) {
+                if (owner != null) {
+                    owner.accept(variant);
+                }
+                return optionalFallback;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * @param owner a Variant of the link chain
+     * @return the position of the Variant in the link chain, zero for the Variant itself
+     */
+    int getLinkDepth(Variant<?> owner) {
+        for (int depth = 0; depth < chain.length; depth++) {
+            if (chain[depth] == owner) {
+                return depth;
+            }
+        }
+        return -1;
+    }
+    
+    @SuppressWarnings("unchecked")
+    VariantPlanImpl(Variant<T> variant) {
+        final List<Variant<T>> links = new ArrayList<>();
+        final List<String> keyList = new ArrayList<>();
+        final List<Variant<T>> ownerList = new ArrayList<>();
+        final Map<Variant<T>, Boolean> visited = new IdentityHashMap<>();
+        
+        Optional<Variant<T>> optionalLink = Optional.of(variantCheck(variant));
+        while (optionalLink.isPresent()) {
+            final Variant<T> link = variantCheck(optionalLink.get());
+            if (visited.put(link, Boolean.TRUE) != null) {
+                throw new IllegalArgumentException("Variant link must not be circular. " + variant + ".");
+            }
+            links.add(link);
+            for (String key : link.getKeys()) {
+                keyList.add(key);
+                ownerList.add(link);
+            }
+            optionalLink = link.getLink();
+        }
+        
+        this.keys = keyList.toArray(new String[0]);
+        this.distinctKeys = unmodifiableList(new ArrayList<>(new LinkedHashSet<>(keyList)));
+        this.owners = (Variant<T>[]) ownerList.toArray(new Variant<?>[0]);
+        this.chain = (Variant<T>[]) links.toArray(new Variant<?>[0]);
+        this.primitives = new boolean[owners.length];
+        for (int index = 0; index < owners.length; index++) {
+            primitives[index] = isPrimitiveVariant(owners[index]);
+        }
+    }
+    
+    private static boolean isPrimitiveVariant(Variant<?> variant) {
+        return variant instanceof IntVariant
+            || variant instanceof LongVariant
+            || variant instanceof DoubleVariant
+            || variant instanceof BooleanVariant;
+    }
+    
+    private final String[] keys;
+    private final List<String> distinctKeys;
+    private final Variant<T>[] owners;
+    private final Variant<T>[] chain;
+    private final boolean[] primitives;
+}
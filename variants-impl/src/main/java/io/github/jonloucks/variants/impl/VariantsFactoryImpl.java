@@ -69,6 +69,7 @@ public final class VariantsFactoryImpl implements VariantsFactory {
         repository.keep(VariantsFactory.CONTRACT, lifeCycle(VariantsFactoryImpl::new), strategy);
         repository.keep(VariantFactory.CONTRACT, singleton(() -> new VariantFactoryImpl(config)), strategy);
         repository.keep(Parsers.CONTRACT, singleton(ParsersImpl::new), strategy);
+        repository.keep(MappedSources.CONTRACT, singleton(MappedSourcesImpl::new), strategy);
         repository.keep(EnvironmentFactory.CONTRACT, singleton(EnvironmentFactoryImpl::new), strategy);
     }
 }
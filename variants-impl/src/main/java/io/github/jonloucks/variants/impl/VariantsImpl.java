@@ -53,6 +53,11 @@ final class VariantsImpl implements Variants {
         return environmentFactory.createEnvironment(builderConsumer);
     }
     
+    @Override
+    public EnvironmentMetrics createMetrics() {
+        return environmentFactory.createMetrics();
+    }
+    
     @Override
     public <T> Variant<T> createVariant(Consumer<Variant.Config.Builder<T>> builderConsumer) {
         return variantFactory.createVariant(builderConsumer);
@@ -68,6 +73,26 @@ final class VariantsImpl implements Variants {
         return variantFactory.createVariant(config);
     }
     
+    @Override
+    public IntVariant createIntVariant(Consumer<Variant.Config.Builder<Integer>> builderConsumer) {
+        return variantFactory.createIntVariant(builderConsumer);
+    }
+    
+    @Override
+    public LongVariant createLongVariant(Consumer<Variant.Config.Builder<Long>> builderConsumer) {
+        return variantFactory.createLongVariant(builderConsumer);
+    }
+    
+    @Override
+    public DoubleVariant createDoubleVariant(Consumer<Variant.Config.Builder<Double>> builderConsumer) {
+        return variantFactory.createDoubleVariant(builderConsumer);
+    }
+    
+    @Override
+    public BooleanVariant createBooleanVariant(Consumer<Variant.Config.Builder<Boolean>> builderConsumer) {
+        return variantFactory.createBooleanVariant(builderConsumer);
+    }
+    
     private final AutoClose closeRepository;
     private final AtomicBoolean openState = new AtomicBoolean();
     private final Config config;
@@ -0,0 +1,72 @@
+package io.github.jonloucks.variants.jfr;
+
+import io.github.jonloucks.variants.api.EnvironmentListener;
+import io.github.jonloucks.variants.api.Variant;
+import jdk.jfr.EventType;
+
+/**
+ * Responsibility: EnvironmentListener emitting Java Flight Recorder events.
+ * <p>
+ * Events are only created when a recording has them enabled, see {@link ResolvedEvent} and {@link ParseFailureEvent}.
+ * Without such a recording the listener is disabled and lookups are not timed, see {@link #isEnabled()}.
+ * Install with {@link io.github.jonloucks.variants.api.Environment.Config.Builder#listener(EnvironmentListener)}.
+ * </p>
+ */
+public final class JfrListener implements EnvironmentListener {
+    
+    /**
+     * The longest text recorded by a {@link ParseFailureEvent}
+     */
+    public static final int MAX_TEXT_LENGTH = 256;
+    
+    @Override
+    public boolean isEnabled() {
+        return RESOLVED.isEnabled() || PARSE_FAILURE.isEnabled();
+    }
+    
+    @Override
+    public Object onResolving(Variant<?> variant) {
+        if (!RESOLVED.isEnabled()) {
+            return null;
+        }
+        final ResolvedEvent event = new ResolvedEvent();
+        event.begin();
+        return event;
+    }
+    
+    @Override
+    public void onResolved(Resolution resolution) {
+        if (resolution.getContext() instanceof ResolvedEvent) {
+            final ResolvedEvent event = (ResolvedEvent) resolution.getContext();
+            event.end();
+            if (event.shouldCommit()) {
+                event.variant = resolution.getVariant().toString();
+                event.sourceIndex = resolution.getSourceIndex();
+                event.key = resolution.getKey().orElse(null);
+                event.linkDepth = resolution.getLinkDepth();
+                event.fallback = resolution.isFallback();
+                event.commit();
+            }
+        }
+    }
+    
+    @Override
+    public void onParseFailure(Variant<?> variant, String key, CharSequence text) {
+        if (PARSE_FAILURE.isEnabled()) {
+            final ParseFailureEvent event = new ParseFailureEvent();
+            event.variant = variant.toString();
+            event.key = key;
+            event.text = text.length() > MAX_TEXT_LENGTH ? text.subSequence(0, MAX_TEXT_LENGTH).toString() : text.toString();
+            event.commit();
+        }
+    }
+    
+    /**
+     * Create a new listener
+     */
+    public JfrListener() {
+    }
+    
+    private static final EventType RESOLVED = EventType.getEventType(ResolvedEvent.class);
+    private static final EventType PARSE_FAILURE = EventType.getEventType(ParseFailureEvent.class);
+}
@@ -0,0 +1,35 @@
+package io.github.jonloucks.variants.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Responsibility: Flight Recorder event for text a Variant did not convert
+ */
+@Name(ParseFailureEvent.NAME)
+@Label("Variant Parse Failure")
+@Description("A source had text for a key that the Variant owning the key did not convert")
+@Category("Variants")
+@StackTrace(false)
+public final class ParseFailureEvent extends Event {
+    
+    /**
+     * The event name used in recording settings
+     */
+    public static final String NAME = "io.github.jonloucks.variants.ParseFailure";
+    
+    /**
+     * Create a new event, fields are assigned by {@link JfrListener}
+     */
+    public ParseFailureEvent() {
+    }
+    
+    @Label("Variant")
+    String variant;
+    
+    @Label("Key")
+    String key;
+    
+    @Label("Text")
+    @Description("The text, truncated to " + JfrListener.MAX_TEXT_LENGTH + " characters")
+    String text;
+}
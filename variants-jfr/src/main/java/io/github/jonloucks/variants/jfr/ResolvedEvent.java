@@ -0,0 +1,48 @@
+package io.github.jonloucks.variants.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Responsibility: Flight Recorder event for a resolved Variant.
+ * <p>
+ * Recorded when an Environment consults its sources, answers from a cache are not recorded.
+ * The event spans the resolution, use the 'threshold' setting to only record slow lookups, for example "20 us".
+ * </p>
+ */
+@Name(ResolvedEvent.NAME)
+@Label("Variant Resolved")
+@Description("A Variant was resolved from the sources of an Environment")
+@Category("Variants")
+@StackTrace(false)
+public final class ResolvedEvent extends Event {
+    
+    /**
+     * The event name used in recording settings
+     */
+    public static final String NAME = "io.github.jonloucks.variants.Resolved";
+    
+    /**
+     * Create a new event, fields are assigned by {@link JfrListener}
+     */
+    public ResolvedEvent() {
+    }
+    
+    @Label("Variant")
+    String variant;
+    
+    @Label("Source Index")
+    @Description("Index of the source in search order that found the variance, -1 if not found")
+    int sourceIndex;
+    
+    @Label("Key")
+    @Description("The key that matched")
+    String key;
+    
+    @Label("Link Depth")
+    @Description("Position in the link chain of the Variant owning the key, -1 if not found")
+    int linkDepth;
+    
+    @Label("Fallback")
+    @Description("The variance was not found and a fallback was used")
+    boolean fallback;
+}
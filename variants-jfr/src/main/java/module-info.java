@@ -0,0 +1,9 @@
+/**
+ * Java Flight Recorder events for Variants
+ */
+module io.github.jonloucks.variants.jfr {
+    requires transitive io.github.jonloucks.variants.api;
+    requires transitive jdk.jfr;
+    
+    exports io.github.jonloucks.variants.jfr;
+}
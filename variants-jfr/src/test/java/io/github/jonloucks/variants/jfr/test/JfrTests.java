@@ -0,0 +1,101 @@
+package io.github.jonloucks.variants.jfr.test;
+
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.EnvironmentFactory;
+import io.github.jonloucks.variants.api.IntVariant;
+import io.github.jonloucks.variants.api.VariantFactory;
+import io.github.jonloucks.variants.jfr.JfrListener;
+import io.github.jonloucks.variants.jfr.ParseFailureEvent;
+import io.github.jonloucks.variants.jfr.ResolvedEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.jonloucks.contracts.api.GlobalContracts.claimContract;
+import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static io.github.jonloucks.variants.test.Tools.withVariants;
+import static org.junit.jupiter.api.Assertions.*;
+
+public interface JfrTests {
+    
+    @Test
+    default void jfr_WithRecording_EmitsEvents() throws IOException {
+        final List<RecordedEvent> events = record(Duration.ZERO);
+        
+        final RecordedEvent resolved = findEvent(events, ResolvedEvent.NAME, "found");
+        assertEquals(1, resolved.getInt("sourceIndex"));
+        assertEquals(1, resolved.getInt("linkDepth"));
+        assertFalse(resolved.getBoolean("fallback"));
+        final RecordedEvent fallback = findEvent(events, ResolvedEvent.NAME, "fallback");
+        assertEquals(-1, fallback.getInt("sourceIndex"));
+        assertNull(fallback.getString("key"));
+        assertTrue(fallback.getBoolean("fallback"));
+        final RecordedEvent parseFailure = findEvent(events, ParseFailureEvent.NAME, "bad");
+        assertEquals("not a number", parseFailure.getString("text"));
+    }
+    
+    @Test
+    default void jfr_WithThreshold_SkipsFastLookups() throws IOException {
+        final List<RecordedEvent> events = record(Duration.ofHours(1));
+        
+        for (RecordedEvent event : events) {
+            assertNotEquals(ResolvedEvent.NAME, event.getEventType().getName());
+        }
+        assertNotNull(findEvent(events, ParseFailureEvent.NAME, "bad"));
+    }
+    
+    private static List<RecordedEvent> record(Duration threshold) throws IOException {
+        final Path file = Files.createTempFile("variants", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ResolvedEvent.NAME).withThreshold(threshold);
+            recording.enable(ParseFailureEvent.NAME);
+            recording.start();
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final IntVariant foundVariant = variantFactory.createIntVariant(b -> b
+                    .name("found")
+                    .key("missing")
+                    .link(variantFactory.createIntVariant(l -> l.key("number"))));
+                final IntVariant fallbackVariant = variantFactory.createIntVariant(b -> b
+                    .name("fallback")
+                    .key("missing")
+                    .fallback(() -> 3));
+                final IntVariant badVariant = variantFactory.createIntVariant(b -> b
+                    .name("bad")
+                    .key("bad"));
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addSingletonSource("bad", "not a number")
+                    .addSingletonSource("number", "2")
+                    .listener(new JfrListener()));
+                
+                assertEquals(2, environment.getInt(foundVariant));
+                assertEquals(3, environment.getInt(fallbackVariant));
+                assertThrown(RuntimeException.class, () -> environment.getInt(badVariant));
+            });
+            recording.stop();
+            recording.dump(file);
+            return new ArrayList<>(RecordingFile.readAllEvents(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    private static RecordedEvent findEvent(List<RecordedEvent> events, String name, String variantName) {
+        for (RecordedEvent event : events) {
+            if (name.equals(event.getEventType().getName())
+                && event.getString("variant").contains(variantName)) {
+                return event;
+            }
+        }
+        return fail("Event not found " + name + " " + variantName);
+    }
+}
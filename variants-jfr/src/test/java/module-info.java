@@ -0,0 +1,12 @@
+/**
+ * module-jfr tests
+ */
+module io.github.jonloucks.variants.jfr.test {
+    requires transitive io.github.jonloucks.contracts;
+    requires transitive io.github.jonloucks.contracts.test;
+    requires transitive io.github.jonloucks.variants;
+    requires transitive io.github.jonloucks.variants.test;
+    requires transitive io.github.jonloucks.variants.jfr;
+    
+    opens io.github.jonloucks.variants.jfr.test to org.junit.platform.commons;
+}
@@ -0,0 +1,27 @@
+package io.github.jonloucks.variants.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Responsibility: What the processor learned about one accessor method
+ */
+final class AccessorModel {
+    
+    AccessorModel() {
+    }
+    
+    String method;
+    String constant;
+    String returnType;
+    String valueType;
+    String description;
+    String parser;
+    /**
+     * Java expression of the fallback, null if there is none
+     */
+    String fallback;
+    boolean optional;
+    Kind kind;
+    final List<String> keys = new ArrayList<>();
+}
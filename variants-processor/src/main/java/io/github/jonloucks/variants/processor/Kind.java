@@ -0,0 +1,15 @@
+package io.github.jonloucks.variants.processor;
+
+/**
+ * Responsibility: How the Variant of an accessor is declared and converts text
+ */
+enum Kind {
+    INT,
+    LONG,
+    DOUBLE,
+    BOOLEAN,
+    STRING,
+    DURATION,
+    ENUM,
+    PARSER
+}
@@ -0,0 +1,168 @@
+package io.github.jonloucks.variants.processor;
+
+import java.util.List;
+
+import static io.github.jonloucks.variants.processor.VariantConfigProcessor.toStringLiteral;
+
+/**
+ * Responsibility: Render the source of the class generated for a {@link VariantConfig} interface.
+ * Every type is fully qualified so the generated code never clashes with names in the user's package.
+ */
+final class SourceWriter {
+    
+    String toSource() {
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";");
+            line("");
+        }
+        line("/**");
+        line(" * Variants and implementation of {@link " + interfaceName + "}.");
+        line(" * Generated by " + VariantConfigProcessor.class.getName() + ", do not edit.");
+        line(" */");
+        line("public final class " + className + " {");
+        for (AccessorModel accessor : accessors) {
+            writeVariant(accessor);
+        }
+        line("    ");
+        line("    private static final java.util.List<" + API + "Variant<?>> VARIANTS = java.util.Collections.unmodifiableList(");
+        line("        java.util.Arrays.<" + API + "Variant<?>>asList(" + joinConstants() + "));");
+        line("    ");
+        line("    /**");
+        line("     * @return every Variant of {@link " + interfaceName + "} in declaration order");
+        line("     */");
+        line("    public static java.util.List<" + API + "Variant<?>> variants() {");
+        line("        return VARIANTS;");
+        line("    }");
+        line("    ");
+        line("    /**");
+        line("     * Resolve every Variant with a single batch lookup.");
+        line("     * Values are read once, create a new instance to see later changes.");
+        line("     *");
+        line("     * @param environment the Environment");
+        line("     * @return the new instance");
+        line("     * @throws " + API + "VariantException if a required Variant is not found");
+        line("     * @throws IllegalArgumentException when arguments are null or invalid");
+        line("     */");
+        line("    public static " + interfaceName + " create(" + API + "Environment environment) {");
+        line("        return new Impl(io.github.jonloucks.contracts.api.Checks.nullCheck(environment, \"Environment must be present.\")");
+        line("            .findVariances(VARIANTS));");
+        line("    }");
+        line("    ");
+        line("    private " + className + "() {");
+        line("    }");
+        line("    ");
+        writeImpl();
+        line("}");
+        return source.toString();
+    }
+    
+    SourceWriter(String packageName, String interfaceName, String className, List<AccessorModel> accessors) {
+        this.packageName = packageName;
+        this.interfaceName = interfaceName;
+        this.className = className;
+        this.accessors = accessors;
+    }
+    
+    private void writeVariant(AccessorModel accessor) {
+        line("    ");
+        switch (accessor.kind) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case BOOLEAN:
+                final String primitive = accessor.kind.name().charAt(0) + accessor.kind.name().substring(1).toLowerCase();
+                line("    public static final " + API + primitive + "Variant " + accessor.constant + " = "
+                    + API + "GlobalVariants.create" + primitive + "Variant(b -> b");
+                break;
+            default:
+                line("    public static final " + API + "Variant<" + accessor.valueType + "> " + accessor.constant + " = "
+                    + API + "GlobalVariants.<" + accessor.valueType + ">createVariant((b, p) -> b");
+                break;
+        }
+        line("        .name(" + toStringLiteral(accessor.method) + ")");
+        final StringBuilder keys = new StringBuilder();
+        for (String key : accessor.keys) {
+            keys.append(keys.length() == 0 ? "" : ", ").append(toStringLiteral(key));
+        }
+        line("        .keys(" + keys + ")");
+        if (!accessor.description.isEmpty()) {
+            line("        .description(" + toStringLiteral(accessor.description) + ")");
+        }
+        switch (accessor.kind) {
+            case STRING:
+                line("        .of(p.ofString())");
+                break;
+            case DURATION:
+                line("        .of(p.ofDuration())");
+                break;
+            case ENUM:
+                line("        .of(p.ofEnum(" + accessor.valueType + ".class))");
+                break;
+            case PARSER:
+                line("        .parser(new " + accessor.parser + "())");
+                break;
+            default:
+                break;
+        }
+        if (accessor.fallback != null) {
+            line("        .fallback(() -> " + accessor.fallback + ")");
+        }
+        line("    );");
+    }
+    
+    private void writeImpl() {
+        line("    private static final class Impl implements " + interfaceName + " {");
+        for (AccessorModel accessor : accessors) {
+            line("        ");
+            line("        @Override");
+            line("        public " + accessor.returnType + " " + accessor.method + "() {");
+            line("            return " + accessor.method + ";");
+            line("        }");
+        }
+        line("        ");
+        line("        @Override");
+        line("        public java.lang.String toString() {");
+        final StringBuilder fields = new StringBuilder();
+        for (AccessorModel accessor : accessors) {
+            fields.append(fields.length() == 0 ? "" : " + \", ")
+                .append(fields.length() == 0 ? "\"" : "")
+                .append(accessor.method).append("=\" + ").append(accessor.method);
+        }
+        final String simpleName = interfaceName.substring(interfaceName.lastIndexOf('.') + 1);
+        line("            return \"" + simpleName + "[\"" + (fields.length() == 0 ? "" : " + " + fields) + " + \"]\";");
+        line("        }");
+        line("        ");
+        line("        private Impl(" + API + "Variances variances) {");
+        for (AccessorModel accessor : accessors) {
+            final String lookup = accessor.optional ? "findVariance" : "getVariance";
+            // qualified, a field of Impl may have the name of a constant
+            line("            this." + accessor.method + " = variances." + lookup + "(" + className + "." + accessor.constant + ");");
+        }
+        line("        }");
+        line("        ");
+        for (AccessorModel accessor : accessors) {
+            line("        private final " + accessor.returnType + " " + accessor.method + ";");
+        }
+        line("    }");
+    }
+    
+    private String joinConstants() {
+        final StringBuilder builder = new StringBuilder();
+        for (AccessorModel accessor : accessors) {
+            builder.append(builder.length() == 0 ? "" : ", ").append(accessor.constant);
+        }
+        return builder.toString();
+    }
+    
+    private void line(String text) {
+        source.append(text).append('\n');
+    }
+    
+    private static final String API = "io.github.jonloucks.variants.api.";
+    
+    private final String packageName;
+    private final String interfaceName;
+    private final String className;
+    private final List<AccessorModel> accessors;
+    private final StringBuilder source = new StringBuilder();
+}
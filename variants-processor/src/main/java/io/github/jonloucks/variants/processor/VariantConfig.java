@@ -0,0 +1,28 @@
+package io.github.jonloucks.variants.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface whose abstract methods are configuration accessors.
+ * <p>
+ * For an interface named AppConfig the processor generates AppConfigVariants in the same package with
+ * a static Variant constant per method, and a create(Environment) method returning an implementation
+ * of the interface. Every method must be annotated with {@link VariantKey}, take no arguments and return
+ * one of the supported types: int, long, double, boolean, their wrappers, String, Duration, an enum,
+ * any type with a {@link VariantKey#parser()}, or Optional of one of these.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface VariantConfig {
+    
+    /**
+     * @return text prepended to every key of the interface
+     */
+    String prefix() default "";
+}
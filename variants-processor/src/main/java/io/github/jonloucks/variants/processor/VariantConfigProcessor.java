@@ -0,0 +1,337 @@
+package io.github.jonloucks.variants.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Responsibility: Generate the Variants and the implementation of each {@link VariantConfig} interface.
+ * <p>
+ * The generated class declares one static Variant per accessor. Its create(Environment) method resolves
+ * all of them with a single batch lookup into final fields, so an accessor call is a field read
+ * with no reflection, proxies or scanning at runtime.
+ * </p>
+ */
+@SupportedAnnotationTypes("io.github.jonloucks.variants.processor.VariantConfig")
+public final class VariantConfigProcessor extends AbstractProcessor {
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(VariantConfig.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@VariantConfig must be placed on an interface.");
+            } else if (!((TypeElement) element).getTypeParameters().isEmpty()) {
+                error(element, "@VariantConfig interfaces must not be generic.");
+            } else if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                error(element, "@VariantConfig interfaces must not be private.");
+            } else {
+                processInterface((TypeElement) element);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Create a new processor, called by the compiler
+     */
+    public VariantConfigProcessor() {
+    }
+    
+    private void processInterface(TypeElement type) {
+        final String prefix = type.getAnnotation(VariantConfig.class).prefix();
+        final List<AccessorModel> accessors = new ArrayList<>();
+        final Map<String, AccessorModel> constants = new HashMap<>();
+        boolean valid = true;
+        for (Element member : processingEnv.getElementUtils().getAllMembers(type)) {
+            if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            final AccessorModel accessor = createAccessor((ExecutableElement) member, prefix);
+            if (accessor == null) {
+                valid = false;
+            } else if (RESERVED_CONSTANT.equals(accessor.constant)) {
+                error(member, "Method " + accessor.method + " maps to the reserved constant "
+                    + RESERVED_CONSTANT + ", rename the method.");
+                valid = false;
+            } else if (constants.containsKey(accessor.constant)) {
+                error(member, "Method " + accessor.method + " maps to the same constant " + accessor.constant
+                    + " as " + constants.get(accessor.constant).method + ", rename one of them.");
+                valid = false;
+            } else {
+                constants.put(accessor.constant, accessor);
+                accessors.add(accessor);
+            }
+        }
+        if (valid) {
+            write(type, accessors);
+        }
+    }
+    
+    /**
+     * @return the accessor or null if the method is not valid, the errors are reported
+     */
+    private AccessorModel createAccessor(ExecutableElement method, String prefix) {
+        final VariantKey variantKey = method.getAnnotation(VariantKey.class);
+        if (variantKey == null) {
+            return error(method, "Method must be annotated with @VariantKey.");
+        }
+        if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+            return error(method, "Method must not have parameters.");
+        }
+        if (variantKey.value().length == 0) {
+            return error(method, "At least one key must be present.");
+        }
+        if (variantKey.fallback().length > 1) {
+            return error(method, "At most one fallback is allowed.");
+        }
+        for (String key : variantKey.value()) {
+            if ((prefix + key).trim().isEmpty()) {
+                return error(method, "Key must not be empty.");
+            }
+        }
+        final AccessorModel accessor = new AccessorModel();
+        accessor.method = method.getSimpleName().toString();
+        accessor.constant = toConstantName(accessor.method);
+        accessor.returnType = method.getReturnType().toString();
+        accessor.description = variantKey.description();
+        for (String key : variantKey.value()) {
+            accessor.keys.add(prefix + key);
+        }
+        TypeMirror valueType = method.getReturnType();
+        if (isOptional(valueType)) {
+            final List<? extends TypeMirror> arguments = ((DeclaredType) valueType).getTypeArguments();
+            if (arguments.size() != 1) {
+                return error(method, "Optional must have a type argument.");
+            }
+            accessor.optional = true;
+            valueType = arguments.get(0);
+        }
+        final TypeMirror parserType = getParserType(variantKey);
+        if (parserType != null && !DEFAULT_PARSER.equals(parserType.toString())) {
+            accessor.kind = Kind.PARSER;
+            accessor.parser = parserType.toString();
+            accessor.valueType = boxedName(valueType);
+        } else if (!resolveKind(accessor, valueType)) {
+            return error(method, "Unsupported return type " + method.getReturnType() + ", use a parser.");
+        }
+        if (variantKey.fallback().length == 1) {
+            accessor.fallback = toFallback(method, accessor, valueType, variantKey.fallback()[0]);
+            if (accessor.fallback == null) {
+                return null;
+            }
+        }
+        return accessor;
+    }
+    
+    private boolean resolveKind(AccessorModel accessor, TypeMirror valueType) {
+        final TypeMirror unboxed = unbox(valueType);
+        accessor.valueType = boxedName(valueType);
+        switch (unboxed.getKind()) {
+            case INT:
+                accessor.kind = Kind.INT;
+                return true;
+            case LONG:
+                accessor.kind = Kind.LONG;
+                return true;
+            case DOUBLE:
+                accessor.kind = Kind.DOUBLE;
+                return true;
+            case BOOLEAN:
+                accessor.kind = Kind.BOOLEAN;
+                return true;
+            default:
+                break;
+        }
+        if (valueType.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        final Element element = ((DeclaredType) valueType).asElement();
+        final String name = valueType.toString();
+        if (String.class.getName().equals(name)) {
+            accessor.kind = Kind.STRING;
+        } else if (Duration.class.getName().equals(name)) {
+            accessor.kind = Kind.DURATION;
+        } else if (element.getKind() == ElementKind.ENUM) {
+            accessor.kind = Kind.ENUM;
+        } else {
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * @return the Java expression of the fallback, or null if the text is invalid, the error is reported
+     */
+    private String toFallback(ExecutableElement method, AccessorModel accessor, TypeMirror valueType, String text) {
+        try {
+            switch (accessor.kind) {
+                case INT:
+                    return Integer.toString(Integer.parseInt(text.trim()));
+                case LONG:
+                    return Long.parseLong(text.trim()) + "L";
+                case DOUBLE:
+                    return toDoubleLiteral(Double.parseDouble(text.trim()));
+                case BOOLEAN:
+                    if ("true".equalsIgnoreCase(text.trim()) || "false".equalsIgnoreCase(text.trim())) {
+                        return text.trim().toLowerCase();
+                    }
+                    return error(method, "Invalid boolean fallback '" + text + "'.");
+                case STRING:
+                    return toStringLiteral(text);
+                case DURATION:
+                    Duration.parse(text.trim());
+                    return "java.time.Duration.parse(" + toStringLiteral(text.trim()) + ")";
+                case ENUM:
+                    return toEnumConstant(method, valueType, text.trim());
+                default:
+                    return "new " + accessor.parser + "().apply(" + toStringLiteral(text) + ")";
+            }
+        } catch (NumberFormatException | DateTimeParseException thrown) {
+            return error(method, "Invalid fallback '" + text + "'. " + thrown.getMessage());
+        }
+    }
+    
+    private String toEnumConstant(ExecutableElement method, TypeMirror valueType, String text) {
+        final TypeElement enumType = (TypeElement) ((DeclaredType) valueType).asElement();
+        for (Element member : enumType.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.ENUM_CONSTANT && member.getSimpleName().contentEquals(text)) {
+                return enumType.getQualifiedName() + "." + text;
+            }
+        }
+        return error(method, "Invalid enum fallback '" + text + "' for " + enumType.getQualifiedName() + ".");
+    }
+    
+    private void write(TypeElement type, List<AccessorModel> accessors) {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String interfaceName = type.getQualifiedName().toString();
+        final String className = generatedName(type);
+        final String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(new SourceWriter(packageName, interfaceName, className, accessors).toSource());
+        } catch (IOException thrown) {
+            error(type, "Unable to write " + qualifiedName + ". " + thrown.getMessage());
+        }
+    }
+    
+    private TypeMirror getParserType(VariantKey variantKey) {
+        try {
+            variantKey.parser();
+            return null;
+        } catch (MirroredTypeException thrown) {
+            return thrown.getTypeMirror();
+        }
+    }
+    
+    private boolean isOptional(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+            && "java.util.Optional".equals(((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString());
+    }
+    
+    private TypeMirror unbox(TypeMirror type) {
+        try {
+            return processingEnv.getTypeUtils().unboxedType(type);
+        } catch (IllegalArgumentException thrown) {
+            return type;
+        }
+    }
+    
+    private String boxedName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+    
+    private <T> T error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
+    
+    private static String generatedName(TypeElement type) {
+        final StringBuilder builder = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+            builder.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return builder.append("Variants").toString();
+    }
+    
+    static String toConstantName(String methodName) {
+        final StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < methodName.length(); index++) {
+            final char ch = methodName.charAt(index);
+            if (Character.isUpperCase(ch) && index > 0 && !Character.isUpperCase(methodName.charAt(index - 1))) {
+                builder.append('_');
+            }
+            builder.append(Character.toUpperCase(ch));
+        }
+        return builder.toString();
+    }
+    
+    static String toStringLiteral(String text) {
+        final StringBuilder builder = new StringBuilder("\"");
+        for (int index = 0; index < text.length(); index++) {
+            final char ch = text.charAt(index);
+            switch (ch) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20 || ch > 0x7E) {
+                        builder.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        builder.append(ch);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+    
+    private static String toDoubleLiteral(double value) {
+        if (Double.isNaN(value)) {
+            return "java.lang.Double.NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "java.lang.Double.POSITIVE_INFINITY" : "java.lang.Double.NEGATIVE_INFINITY";
+        }
+        return value + "d";
+    }
+    
+    private static final String DEFAULT_PARSER = java.util.function.Function.class.getName();
+    // the list of every Variant in the generated class, see SourceWriter
+    private static final String RESERVED_CONSTANT = "VARIANTS";
+}
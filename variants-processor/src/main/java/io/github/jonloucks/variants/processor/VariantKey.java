@@ -0,0 +1,44 @@
+package io.github.jonloucks.variants.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.function.Function;
+
+/**
+ * Declares the Variant behind an accessor method of a {@link VariantConfig} interface
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface VariantKey {
+    
+    /**
+     * @return the keys in search order, at least one
+     */
+    String[] value();
+    
+    /**
+     * The fallback as text, converted at compile time for primitives, String and enums.
+     * Leave empty for no fallback, at most one value is allowed.
+     *
+     * @return the fallback text
+     */
+    String[] fallback() default {};
+    
+    /**
+     * @return the Variant description
+     */
+    String description() default "";
+    
+    /**
+     * A Function&lt;CharSequence, T&gt; with a public no argument constructor converting the text.
+     * The default, Function itself, selects the built-in conversion for the return type.
+     *
+     * @return the parser class
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends Function> parser() default Function.class;
+}
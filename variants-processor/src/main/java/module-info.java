@@ -0,0 +1,10 @@
+/**
+ * Annotation processor generating Variant declarations and accessors
+ */
+module io.github.jonloucks.variants.processor {
+    requires transitive java.compiler;
+    
+    exports io.github.jonloucks.variants.processor;
+    
+    provides javax.annotation.processing.Processor with io.github.jonloucks.variants.processor.VariantConfigProcessor;
+}
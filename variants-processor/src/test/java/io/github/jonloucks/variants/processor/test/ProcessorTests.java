@@ -0,0 +1,208 @@
+package io.github.jonloucks.variants.processor.test;
+
+import io.github.jonloucks.variants.api.Environment;
+import io.github.jonloucks.variants.api.GlobalVariants;
+import io.github.jonloucks.variants.api.VariantException;
+import io.github.jonloucks.variants.processor.VariantConfigProcessor;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public interface ProcessorTests {
+    
+    @Test
+    default void processor_GeneratesWorkingAccessors() throws Exception {
+        final Path output = Files.createTempDirectory("variants-processor");
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(output, "sample.AppConfig", String.join("\n",
+            "package sample;",
+            "import io.github.jonloucks.variants.processor.*;",
+            "import java.util.Optional;",
+            "@VariantConfig(prefix = \"app.\")",
+            "public interface AppConfig {",
+            "    enum Mode { FAST, SAFE }",
+            "    @VariantKey(value = {\"port\", \"server.port\"}, fallback = \"8080\")",
+            "    int port();",
+            "    @VariantKey(value = \"host\", fallback = \"localhost\")",
+            "    String host();",
+            "    @VariantKey(\"limit\")",
+            "    Optional<Long> limit();",
+            "    @VariantKey(value = \"timeout\", fallback = \"PT5S\")",
+            "    java.time.Duration timeout();",
+            "    @VariantKey(value = \"mode\", fallback = \"SAFE\")",
+            "    Mode mode();",
+            "    @VariantKey(value = \"upper\", parser = Upper.class)",
+            "    String upper();",
+            "    final class Upper implements java.util.function.Function<CharSequence, String> {",
+            "        public String apply(CharSequence text) { return text.toString().toUpperCase(); }",
+            "    }",
+            "}"));
+        
+        assertEquals(Collections.emptyList(), diagnostics.getDiagnostics(), "Sample should compile.");
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, ProcessorTests.class.getClassLoader())) {
+            final Class<?> variantsClass = loader.loadClass("sample.AppConfigVariants");
+            final Map<String, String> map = new HashMap<>();
+            map.put("app.server.port", "9090");
+            map.put("app.mode", "FAST");
+            map.put("app.upper", "text");
+            final Environment environment = GlobalVariants.createEnvironment(b -> b.addMapSource(map));
+            final Object config = variantsClass.getMethod("create", Environment.class).invoke(null, environment);
+            
+            assertEquals(9090, invoke(config, "port"));
+            assertEquals("localhost", invoke(config, "host"));
+            assertEquals(Optional.empty(), invoke(config, "limit"));
+            assertEquals(Duration.ofSeconds(5), invoke(config, "timeout"));
+            assertEquals("FAST", invoke(config, "mode").toString());
+            assertEquals("TEXT", invoke(config, "upper"));
+            assertEquals(6, ((List<?>) variantsClass.getMethod("variants").invoke(null)).size());
+            
+            map.remove("app.upper");
+            final InvocationTargetException thrown = assertThrows(InvocationTargetException.class,
+                () -> variantsClass.getMethod("create", Environment.class).invoke(null, environment));
+            assertTrue(thrown.getCause() instanceof VariantException);
+        }
+    }
+    
+    @Test
+    default void processor_WithInvalidMethods_ReportsErrors() throws IOException {
+        final Path output = Files.createTempDirectory("variants-processor");
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(output, "sample.BadConfig", String.join("\n",
+            "package sample;",
+            "import io.github.jonloucks.variants.processor.*;",
+            "@VariantConfig",
+            "public interface BadConfig {",
+            "    int missing();",
+            "    @VariantKey(value = \"port\", fallback = \"eighty\")",
+            "    int port();",
+            "    @VariantKey(\"object\")",
+            "    Object object();",
+            "    @VariantKey(\"arguments\")",
+            "    String arguments(int index);",
+            "}"));
+        
+        final String messages = messages(diagnostics);
+        assertTrue(messages.contains("Method must be annotated with @VariantKey."), messages);
+        assertTrue(messages.contains("Invalid fallback 'eighty'."), messages);
+        assertTrue(messages.contains("Unsupported return type java.lang.Object, use a parser."), messages);
+        assertTrue(messages.contains("Method must not have parameters."), messages);
+        assertFalse(Files.exists(output.resolve("sample/BadConfigVariants.class")));
+    }
+    
+    @Test
+    default void processor_WithClashingConstants_ReportsErrors() throws IOException {
+        final Path output = Files.createTempDirectory("variants-processor");
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(output, "sample.ClashConfig", String.join("\n",
+            "package sample;",
+            "import io.github.jonloucks.variants.processor.*;",
+            "@VariantConfig",
+            "public interface ClashConfig {",
+            "    @VariantKey(\"url\")",
+            "    String getURL();",
+            "    @VariantKey(\"other.url\")",
+            "    String getUrl();",
+            "    @VariantKey(\"variants\")",
+            "    String variants();",
+            "}"));
+        
+        final String messages = messages(diagnostics);
+        assertTrue(messages.contains("maps to the same constant GET_URL as"), messages);
+        assertTrue(messages.contains("Method variants maps to the reserved constant VARIANTS, rename the method."), messages);
+        assertFalse(Files.exists(output.resolve("sample/ClashConfigVariants.class")));
+    }
+    
+    @Test
+    default void processor_WithSpecialDoubleFallback_Works() throws Exception {
+        final Path output = Files.createTempDirectory("variants-processor");
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(output, "sample.DoubleConfig", String.join("\n",
+            "package sample;",
+            "import io.github.jonloucks.variants.processor.*;",
+            "class Double {",
+            "}",
+            "@VariantConfig",
+            "public interface DoubleConfig {",
+            "    @VariantKey(value = \"ratio\", fallback = \"NaN\")",
+            "    double ratio();",
+            "    @VariantKey(value = \"limit\", fallback = \"Infinity\")",
+            "    double limit();",
+            "}"));
+        
+        assertEquals(Collections.emptyList(), diagnostics.getDiagnostics(), "A class named Double in the package should not clash.");
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, ProcessorTests.class.getClassLoader())) {
+            final Class<?> variantsClass = loader.loadClass("sample.DoubleConfigVariants");
+            final Environment environment = GlobalVariants.createEnvironment(b -> {});
+            final Object config = variantsClass.getMethod("create", Environment.class).invoke(null, environment);
+            
+            assertTrue(((Double) invoke(config, "ratio")).isNaN());
+            assertEquals(Double.POSITIVE_INFINITY, invoke(config, "limit"));
+        }
+    }
+    
+    @Test
+    default void processor_WithClass_ReportsError() throws IOException {
+        final Path output = Files.createTempDirectory("variants-processor");
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(output, "sample.NotInterface", String.join("\n",
+            "package sample;",
+            "@io.github.jonloucks.variants.processor.VariantConfig",
+            "public class NotInterface {",
+            "}"));
+        
+        assertTrue(messages(diagnostics).contains("@VariantConfig must be placed on an interface."));
+    }
+    
+    private static DiagnosticCollector<JavaFileObject> compile(Path output, String className, String source) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final JavaFileObject file = new SimpleJavaFileObject(
+            URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        final String classPath = System.getProperty("java.class.path", "")
+            + File.pathSeparator + System.getProperty("jdk.module.path", "");
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                Arrays.asList("-classpath", classPath, "-d", output.toString(), "-implicit:class"),
+                null, Collections.singletonList(file));
+            task.setProcessors(Collections.singletonList(new VariantConfigProcessor()));
+            task.call();
+        }
+        return diagnostics;
+    }
+    
+    private static Object invoke(Object target, String methodName) throws Exception {
+        return target.getClass().getInterfaces()[0].getMethod(methodName).invoke(target);
+    }
+    
+    private static String messages(DiagnosticCollector<JavaFileObject> diagnostics) {
+        final StringBuilder builder = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            builder.append(diagnostic.getMessage(null)).append('\n');
+        }
+        return builder.toString();
+    }
+}
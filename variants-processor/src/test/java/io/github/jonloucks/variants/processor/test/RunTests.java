@@ -0,0 +1,26 @@
+package io.github.jonloucks.variants.processor.test;
+
+import io.github.jonloucks.variants.test.Tools;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+@ExtendWith(RunTests.RunExtension.class)
+public final class RunTests implements ProcessorTests {
+    
+    public static final class RunExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+        public RunExtension() {
+        }
+        
+        @Override
+        public void afterTestExecution(ExtensionContext extensionContext) {
+            Tools.clean();
+        }
+        
+        @Override
+        public void beforeTestExecution(ExtensionContext extensionContext) {
+            Tools.clean();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * module-processor tests
+ */
+module io.github.jonloucks.variants.processor.test {
+    requires transitive io.github.jonloucks.contracts;
+    requires transitive io.github.jonloucks.contracts.test;
+    requires transitive io.github.jonloucks.variants;
+    requires transitive io.github.jonloucks.variants.test;
+    requires transitive io.github.jonloucks.variants.processor;
+    requires java.compiler;
+    
+    opens io.github.jonloucks.variants.processor.test to org.junit.platform.commons;
+}
@@ -1,17 +1,43 @@
 package io.github.jonloucks.variants.test;
 
+import io.github.jonloucks.contracts.api.AutoClose;
 import io.github.jonloucks.variants.api.*;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import static io.github.jonloucks.contracts.api.GlobalContracts.claimContract;
 import static io.github.jonloucks.contracts.test.Tools.assertObject;
 import static io.github.jonloucks.contracts.test.Tools.assertThrown;
+import static io.github.jonloucks.contracts.test.Tools.ignore;
 import static io.github.jonloucks.variants.test.Tools.withVariants;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -169,6 +195,24 @@ public interface EnvironmentTests {
         });
     }
     
+    @Test
+    default void environment_addSingletonSource_KeepsText() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final StringBuilder text = new StringBuilder("value");
+            final Variant<CharSequence> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(t -> t)
+            );
+            
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSingletonSource("key", text));
+            
+            assertSame(text, environment.getVariance(variant), "The text should not be converted.");
+        });
+    }
+    
     @Test
     default void environment_Variance_WithFickleParser_Works() {
         withVariants((contracts, variants) -> {
@@ -333,6 +377,51 @@ public interface EnvironmentTests {
         });
     }
     
+    @Test
+    default void environment_findVariance_WithCircularLink_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Variant<String> variant = new Variant<>() {
+                @Override
+                public Optional<Variant<String>> getLink() {
+                    return Optional.of(this);
+                }
+            };
+            final Environment environment = factory.createEnvironment(b -> {});
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.findVariance(variant));
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_Repeated_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> linkVariant = variantFactory.createVariant(b -> b
+                .key("linkKey")
+                .parser(Object::toString)
+                .fallback(() -> "fallback")
+            );
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .keys("key1", "key2")
+                .parser(Object::toString)
+                .link(linkVariant)
+            );
+            final Map<String, String> map = new HashMap<>();
+            final Environment environment = factory.createEnvironment(b -> b.addMapSource(map));
+            
+            assertEquals("fallback", environment.getVariance(variant));
+            map.put("linkKey", "linkValue");
+            assertEquals("linkValue", environment.getVariance(variant));
+            map.put("key2", "value2");
+            assertEquals("value2", environment.getVariance(variant));
+            map.put("key1", "value1");
+            assertEquals("value1", environment.getVariance(variant));
+        });
+    }
+    
     @Test
     default void environment_getVariance_WithNoSources_Works() {
         withVariants((contracts, variants) -> {
@@ -372,4 +461,1843 @@ public interface EnvironmentTests {
                 "Variant must be present.");
         });
     }
+    
+    @Test
+    default void environment_Config_useCache_DefaultIsFalse() {
+        final Environment.Config config = new Environment.Config() {};
+        
+        assertFalse(config.useCache(), "By default caching should be disabled.");
+    }
+    
+    @Test
+    default void environment_Config_useIndex_DefaultIsFalse() {
+        final Environment.Config config = new Environment.Config() {};
+        
+        assertFalse(config.useIndex(), "By default indexing should be disabled.");
+    }
+    
+    @Test
+    default void environment_findVariance_WithoutCache_SeesSourceChanges() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            map.put("key", "value1");
+            
+            final Environment environment = factory.createEnvironment(b -> b.addMapSource(map));
+            
+            assertEquals("value1", environment.getVariance(variant));
+            map.put("key", "value2");
+            assertEquals("value2", environment.getVariance(variant));
+            environment.invalidate();
+            assertEquals("value2", environment.getVariance(variant));
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithCache_RetainsUntilInvalidate() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            map.put("key", "value1");
+            
+            final Environment environment = factory.createEnvironment(b -> {
+                final Environment.Config.Builder returnBuilder = b.useCache(true);
+                assertEquals(b, returnBuilder);
+                assertTrue(b.useCache(), "Caching should be enabled.");
+                b.addMapSource(map);
+            });
+            
+            assertEquals("value1", environment.getVariance(variant));
+            map.put("key", "value2");
+            assertEquals("value1", environment.getVariance(variant));
+            assertSame(environment.findVariance(variant), environment.findVariance(variant));
+            environment.invalidate();
+            assertEquals("value2", environment.getVariance(variant));
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithCacheAndManyVariants_IsBounded() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Map<String, String> map = new HashMap<>();
+            map.put("key", "value1");
+            final Environment environment = factory.createEnvironment(b -> b
+                .useCache(true)
+                .addMapSource(map));
+            final List<Variant<String>> stringVariants = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                stringVariants.add(variantFactory.createVariant(b -> b
+                    .key("key")
+                    .parser(Object::toString)));
+            }
+            
+            for (Variant<String> variant : stringVariants) {
+                assertEquals("value1", environment.getVariance(variant));
+            }
+            map.put("key", "value2");
+            assertEquals("value1", environment.getVariance(stringVariants.get(0)));
+            assertEquals("value2", environment.getVariance(stringVariants.get(stringVariants.size() - 1)),
+                "Variants beyond the cache limit should not be cached.");
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithCacheAndMissing_RetainsEmpty() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            
+            final Environment environment = factory.createEnvironment(b -> b
+                .useCache(true)
+                .addMapSource(map));
+            
+            assertFalse(environment.findVariance(variant).isPresent());
+            map.put("key", "value");
+            assertFalse(environment.findVariance(variant).isPresent());
+            environment.invalidate();
+            assertEquals("value", environment.getVariance(variant));
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithCacheAndNullVariant_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Environment environment = factory.createEnvironment(b -> b.useCache(true));
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.findVariance(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_invalidate_WithDefault_DoesNotThrow() {
+        final Environment environment = new Environment() {
+            @Override
+            public <T> Optional<T> findVariance(Variant<T> variant) {
+                return Optional.empty();
+            }
+        };
+        
+        assertDoesNotThrow(environment::invalidate);
+        assertThrown(VariantException.class,
+            environment::snapshot,
+            "Snapshots are not supported.");
+        assertDoesNotThrow(() -> environment.subscribe(new Variant<String>() {}, variance -> {}).close());
+        assertEquals(Optional.empty(), environment.stable(new Variant<String>() {}).get());
+        assertThrown(VariantException.class,
+            () -> environment.explain(new Variant<String>() {}),
+            "Explanations are not supported.");
+        assertThrown(VariantException.class,
+            () -> environment.bind(String.class),
+            "Binding is not supported.");
+        assertThrown(VariantException.class,
+            () -> environment.overlay(k -> Optional.empty()),
+            "Overlays are not supported.");
+    }
+    
+    @Test
+    default void environment_Config_Builder_WithDefaults_Works() {
+        final List<VariantSource> sources = new ArrayList<>();
+        final Environment.Config.Builder builder = new Environment.Config.Builder() {
+            @Override
+            public Environment.Config.Builder addSource(VariantSource source) {
+                sources.add(source);
+                return this;
+            }
+        };
+        
+        assertSame(builder, builder.addSystemPropertiesSnapshot());
+        assertSame(builder, builder.addSystemEnvironmentSnapshot());
+        assertEquals(2, sources.size());
+        assertEquals(Optional.of(System.getProperty("java.version")),
+            sources.get(0).getSourceText("java.version").map(CharSequence::toString));
+        assertSame(builder, builder.useIndex(false));
+        assertThrown(VariantException.class,
+            () -> builder.useIndex(true),
+            "Indexes are not supported.");
+    }
+    
+    @Test
+    default void environment_Config_useSnapshots_DefaultIsFalse() {
+        final Environment.Config config = new Environment.Config() {};
+        
+        assertFalse(config.useSnapshots(), "By default snapshots should be disabled.");
+    }
+    
+    @Test
+    default void environment_snapshot_IgnoresSourceChanges() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> knownVariant = variantFactory.createVariant(b -> b
+                .key("known")
+                .parser(Object::toString)
+            );
+            final Variant<String> unknownVariant = variantFactory.createVariant(b -> b
+                .key("unknown")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            map.put("known", "value1");
+            map.put("unknown", "value1");
+            final Environment environment = factory.createEnvironment(b -> b.addMapSource(map));
+            assertEquals("value1", environment.getVariance(knownVariant));
+            
+            final Environment snapshot = environment.snapshot();
+            map.put("known", "value2");
+            map.put("unknown", "value2");
+            map.put("added", "value2");
+            
+            assertObject(snapshot);
+            assertSame(snapshot, snapshot.snapshot());
+            assertEquals("value1", snapshot.getVariance(knownVariant));
+            assertEquals("value2", environment.getVariance(knownVariant));
+            assertEquals("value1", snapshot.getVariance(unknownVariant),
+                "Every key of a source listing its keys should be copied.");
+            assertFalse(snapshot.findVariance(variantFactory.createVariant(b -> b
+                    .key("added")
+                    .parser(Object::toString))).isPresent(),
+                "Keys added after the snapshot was taken should not be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> snapshot.findVariance(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_snapshot_WithUnlistedSource_ReadsOtherKeysFromSource() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> knownVariant = variantFactory.createVariant(b -> b
+                .key("known")
+                .parser(Object::toString)
+            );
+            final Variant<String> unknownVariant = variantFactory.createVariant(b -> b
+                .key("unknown")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            map.put("known", "value1");
+            map.put("unknown", "value1");
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSource(k -> Optional.ofNullable(map.get(k))));
+            assertEquals("value1", environment.getVariance(knownVariant));
+            
+            final Environment snapshot = environment.snapshot();
+            map.put("known", "value2");
+            map.put("unknown", "value2");
+            
+            assertEquals("value1", snapshot.getVariance(knownVariant));
+            assertEquals("value2", snapshot.getVariance(unknownVariant),
+                "Keys not copied from a source that can not list its keys should be read from the source.");
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithSnapshots_ReloadsOnInvalidate() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            map.put("key", "value1");
+            
+            final Environment environment = factory.createEnvironment(b -> {
+                final Environment.Config.Builder returnBuilder = b.useSnapshots(true);
+                assertEquals(b, returnBuilder);
+                assertTrue(b.useSnapshots(), "Snapshots should be enabled.");
+                b.addMapSource(map);
+            });
+            
+            assertEquals("value1", environment.getVariance(variant));
+            map.put("key", "value2");
+            assertEquals("value1", environment.getVariance(variant));
+            final Environment snapshot = environment.snapshot();
+            environment.invalidate();
+            assertEquals("value2", environment.getVariance(variant));
+            assertEquals("value1", snapshot.getVariance(variant));
+            assertNotSame(snapshot, environment.snapshot());
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithSnapshotsAndNewVariant_KeepsGeneration() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> firstVariant = variantFactory.createVariant(b -> b
+                .key("first")
+                .parser(Object::toString)
+            );
+            final Variant<String> secondVariant = variantFactory.createVariant(b -> b
+                .key("second")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            map.put("first", "value1");
+            map.put("second", "value1");
+            final Environment environment = factory.createEnvironment(b -> b
+                .useSnapshots(true)
+                .addMapSource(map));
+            
+            assertEquals("value1", environment.getVariance(firstVariant));
+            final Environment snapshot = environment.snapshot();
+            map.put("first", "value2");
+            map.put("second", "value2");
+            
+            assertEquals("value1", environment.getVariance(secondVariant),
+                "A new Variant should be answered from the current generation.");
+            assertEquals("value1", environment.getVariance(firstVariant));
+            assertSame(snapshot, environment.snapshot(), "A lookup should not change the generation.");
+            environment.invalidate();
+            assertEquals("value2", environment.getVariance(firstVariant));
+            assertEquals("value2", environment.getVariance(secondVariant));
+            assertEquals("value1", snapshot.getVariance(secondVariant), "A taken snapshot should never change.");
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.findVariance(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithSnapshotsAndUnlistedSource_CopiesKeysOnInvalidate() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString)
+            );
+            final Map<String, String> map = new HashMap<>();
+            map.put("key", "value1");
+            final Environment environment = factory.createEnvironment(b -> b
+                .useSnapshots(true)
+                .addSource(k -> Optional.ofNullable(map.get(k))));
+            
+            assertEquals("value1", environment.getVariance(variant));
+            map.put("key", "value2");
+            assertEquals("value2", environment.getVariance(variant),
+                "A key not copied yet should be read from the source.");
+            environment.invalidate();
+            map.put("key", "value3");
+            assertEquals("value2", environment.getVariance(variant),
+                "A key looked up before invalidate should be copied into the next generation.");
+        });
+    }
+    
+    @Test
+    default void environment_findVariance_WithManyVariants_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Map<String, Object> map = new HashMap<>();
+            final Environment environment = factory.createEnvironment(b -> b.addMapSource(map));
+            final List<IntVariant> intVariants = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                final String key = "key" + (i % 100);
+                map.put(key, i % 100);
+                intVariants.add(variantFactory.createIntVariant(b -> b.key(key)));
+            }
+            
+            for (int i = 0; i < intVariants.size(); i++) {
+                assertEquals(i % 100, environment.getInt(intVariants.get(i)));
+            }
+            final Environment snapshot = environment.snapshot();
+            for (int i = 0; i < intVariants.size(); i++) {
+                assertEquals(i % 100, snapshot.getInt(intVariants.get(i)),
+                    "Keys of Variants without a retained plan should be in the snapshot.");
+            }
+        });
+    }
+    
+    @Test
+    default void environment_snapshot_WithManyUnlistedKeys_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Map<String, Object> map = new HashMap<>();
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSource(k -> Optional.ofNullable(map.get(k)).map(Object::toString)));
+            final List<IntVariant> intVariants = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                final String key = "key" + i;
+                map.put(key, i);
+                intVariants.add(variantFactory.createIntVariant(b -> b.key(key)));
+            }
+            
+            for (IntVariant intVariant : intVariants) {
+                environment.getInt(intVariant);
+            }
+            final Environment snapshot = environment.snapshot();
+            for (int i = 0; i < intVariants.size(); i++) {
+                assertEquals(i, snapshot.getInt(intVariants.get(i)),
+                    "Keys beyond the recorded ones should be read from the source.");
+            }
+        });
+    }
+    
+    @Test
+    default void environment_primitives_WithDefaults_Works() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final IntVariant intVariant = variantFactory.createIntVariant(b -> b.key("int"));
+            final LongVariant longVariant = variantFactory.createLongVariant(b -> b.key("long"));
+            final DoubleVariant doubleVariant = variantFactory.createDoubleVariant(b -> b.key("double"));
+            final BooleanVariant booleanVariant = variantFactory.createBooleanVariant(b -> b.key("boolean"));
+            final Map<String, String> map = new HashMap<>();
+            map.put("int", "1");
+            map.put("long", "2");
+            map.put("double", "3.5");
+            map.put("boolean", "true");
+            final Environment environment = new Environment() {
+                @Override
+                public <T> Optional<T> findVariance(Variant<T> variant) {
+                    return variant.getKeys().isEmpty() ? Optional.empty() : variant.of(map.get(variant.getKeys().get(0)));
+                }
+            };
+            
+            assertEquals(1, environment.getInt(intVariant));
+            assertEquals(1, environment.findInt(intVariant).getAsInt());
+            assertEquals(2L, environment.getLong(longVariant));
+            assertEquals(2L, environment.findLong(longVariant).getAsLong());
+            assertEquals(3.5d, environment.getDouble(doubleVariant));
+            assertEquals(3.5d, environment.findDouble(doubleVariant).getAsDouble());
+            assertTrue(environment.getBoolean(booleanVariant));
+            map.clear();
+            assertFalse(environment.findInt(intVariant).isPresent());
+            assertFalse(environment.findLong(longVariant).isPresent());
+            assertFalse(environment.findDouble(doubleVariant).isPresent());
+            assertThrown(VariantException.class, () -> environment.getBoolean(booleanVariant));
+        });
+    }
+    
+    @Test
+    default void environment_primitives_Works() {
+        withVariants((contracts, variants) -> {
+            for (boolean useCache : new boolean[] {false, true}) {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final IntVariant intVariant = variantFactory.createIntVariant(b -> b.keys("blank", "int"));
+                final LongVariant longVariant = variantFactory.createLongVariant(b -> b.key("long"));
+                final DoubleVariant doubleVariant = variantFactory.createDoubleVariant(b -> b.key("double"));
+                final BooleanVariant booleanVariant = variantFactory.createBooleanVariant(b -> b.key("boolean"));
+                final Environment environment = factory.createEnvironment(b -> b
+                    .useCache(useCache)
+                    .addSingletonSource("blank", " ")
+                    .addSingletonSource("int", " 1 ")
+                    .addSingletonSource("long", "2")
+                    .addSingletonSource("double", "3.5")
+                    .addSingletonSource("boolean", "TRUE"));
+                
+                assertEquals(1, environment.getInt(intVariant));
+                assertEquals(1, environment.findInt(intVariant).getAsInt());
+                assertEquals(2L, environment.getLong(longVariant));
+                assertEquals(2L, environment.findLong(longVariant).getAsLong());
+                assertEquals(3.5d, environment.getDouble(doubleVariant));
+                assertEquals(3.5d, environment.findDouble(doubleVariant).getAsDouble());
+                assertTrue(environment.getBoolean(booleanVariant));
+                assertEquals(1, environment.getVariance(intVariant));
+            }
+        });
+    }
+    
+    @Test
+    default void environment_primitives_WithLinkAndFallback_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<Integer> linkVariant = variantFactory.createVariant((b, parsers) -> b
+                .key("link")
+                .of(parsers.ofInteger())
+                .fallback(() -> 7));
+            final IntVariant intVariant = variantFactory.createIntVariant(b -> b
+                .key("int")
+                .link(linkVariant));
+            final LongVariant longVariant = variantFactory.createLongVariant(b -> b.key("long"));
+            final Map<String, String> map = new HashMap<>();
+            final Environment environment = factory.createEnvironment(b -> b.addMapSource(map));
+            
+            assertEquals(7, environment.getInt(intVariant));
+            assertFalse(environment.findLong(longVariant).isPresent());
+            assertThrown(VariantException.class, () -> environment.getLong(longVariant));
+            map.put("link", "8");
+            assertEquals(8, environment.getInt(intVariant));
+            assertEquals(8, environment.findInt(intVariant).getAsInt());
+            map.put("int", "9");
+            assertEquals(9, environment.getInt(intVariant));
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.getInt(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_findVariances_MatchesFindVariance() {
+        withVariants((contracts, variants) -> {
+            for (boolean useCache : new boolean[] {false, true}) {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final Variant<Integer> sharedVariant = variantFactory.createVariant((b, parsers) -> b
+                    .keys("shared", "common")
+                    .of(parsers.ofInteger())
+                    .fallback(() -> 1));
+                final Variant<Integer> firstVariant = variantFactory.createVariant((b, parsers) -> b
+                    .keys("first", "common")
+                    .of(parsers.ofInteger())
+                    .link(sharedVariant));
+                final Variant<Integer> secondVariant = variantFactory.createVariant((b, parsers) -> b
+                    .key("second")
+                    .of(parsers.ofInteger())
+                    .link(sharedVariant));
+                final Variant<Integer> missingVariant = variantFactory.createVariant((b, parsers) -> b
+                    .key("missing")
+                    .of(parsers.ofInteger()));
+                final Map<String, String> firstMap = new HashMap<>();
+                final Map<String, String> secondMap = new HashMap<>();
+                firstMap.put("shared", "2");
+                secondMap.put("first", "3");
+                secondMap.put("common", "4");
+                final AtomicInteger lookups = new AtomicInteger();
+                final Environment environment = factory.createEnvironment(b -> b
+                    .useCache(useCache)
+                    .addSource(key -> {
+                        lookups.incrementAndGet();
+                        return Optional.ofNullable(firstMap.get(key));
+                    })
+                    .addMapSource(secondMap));
+                final List<Variant<?>> requested = Arrays.asList(firstVariant, secondVariant, sharedVariant, missingVariant, firstVariant);
+                
+                final Variances variances = environment.findVariances(requested);
+                
+                assertEquals(5, lookups.get(), "Each distinct key should be requested once from a source.");
+                for (Variant<?> variant : requested) {
+                    assertEquals(environment.findVariance(variant), variances.findVariance(variant));
+                }
+                assertEquals(2, variances.getVariance(firstVariant));
+                assertFalse(variances.findVariance(missingVariant).isPresent());
+                assertThrown(VariantException.class, () -> variances.getVariance(missingVariant));
+            }
+        });
+    }
+    
+    @Test
+    default void environment_findVariances_WithNull_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Environment environment = factory.createEnvironment(b -> {});
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.findVariances(null),
+                "Variants must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.findVariances(Collections.singletonList(null)),
+                "Variant must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.findVariances(Collections.emptyList()).findVariance(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_findVariances_WithSnapshots_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> firstVariant = variantFactory.createVariant(b -> b
+                .key("first")
+                .parser(Object::toString));
+            final Variant<String> secondVariant = variantFactory.createVariant(b -> b
+                .key("second")
+                .parser(Object::toString));
+            final Map<String, String> map = new HashMap<>();
+            map.put("first", "value1");
+            map.put("second", "value1");
+            final Environment environment = factory.createEnvironment(b -> b
+                .useSnapshots(true)
+                .addMapSource(map));
+            
+            assertEquals("value1", environment.findVariances(Collections.singletonList(firstVariant)).getVariance(firstVariant));
+            map.put("first", "value2");
+            map.put("second", "value2");
+            
+            final Variances variances = environment.findVariances(Arrays.asList(firstVariant, secondVariant));
+            assertEquals("value1", variances.getVariance(firstVariant));
+            assertEquals("value1", variances.getVariance(secondVariant));
+            environment.invalidate();
+            final Variances reloaded = environment.findVariances(Arrays.asList(firstVariant, secondVariant));
+            assertEquals("value2", reloaded.getVariance(firstVariant));
+            assertEquals("value2", reloaded.getVariance(secondVariant));
+        });
+    }
+    
+    @Test
+    default void environment_findVariances_WithDefault_Works() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString));
+            final Environment environment = new Environment() {
+                @Override
+                public <T> Optional<T> findVariance(Variant<T> variant) {
+                    return variant.of("value");
+                }
+            };
+            
+            final Variances variances = environment.findVariances(Collections.singletonList(variant));
+            
+            assertEquals("value", variances.getVariance(variant));
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.findVariances(null),
+                "Variants must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> variances.findVariance(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_variantSource_getSourceTexts_DefaultLoops() {
+        final Map<String, String> map = new HashMap<>();
+        map.put("a", "1");
+        map.put("c", "3");
+        final VariantSource source = key -> Optional.ofNullable(map.get(key));
+        final Map<String, CharSequence> found = new HashMap<>();
+        
+        source.getSourceTexts(Arrays.asList("a", "b", "c"), found::put);
+        
+        assertEquals(2, found.size());
+        assertEquals("1", found.get("a"));
+        assertEquals("3", found.get("c"));
+        assertThrown(IllegalArgumentException.class,
+            () -> source.getSourceTexts(null, found::put),
+            "Keys must be present.");
+        assertThrown(IllegalArgumentException.class,
+            () -> source.getSourceTexts(Collections.emptyList(), null),
+            "Sink must be present.");
+    }
+    
+    @Test
+    default void environment_findVariance_WithBulkSource_UsesOneRequest() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> linkVariant = variantFactory.createVariant(b -> b
+                .key("c")
+                .parser(Object::toString));
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .keys("a", "b")
+                .parser(Object::toString)
+                .link(linkVariant));
+            final IntVariant intVariant = variantFactory.createIntVariant(b -> b
+                .keys("a", "d"));
+            final Map<String, String> map = new HashMap<>();
+            map.put("c", "value");
+            map.put("d", "4");
+            final AtomicInteger singleRequests = new AtomicInteger();
+            final AtomicInteger bulkRequests = new AtomicInteger();
+            final VariantSource bulkSource = new VariantSource() {
+                @Override
+                public Optional<CharSequence> getSourceText(String key) {
+                    singleRequests.incrementAndGet();
+                    return Optional.ofNullable(map.get(key));
+                }
+                
+                @Override
+                public void getSourceTexts(Collection<String> keys, BiConsumer<String, CharSequence> sink) {
+                    bulkRequests.incrementAndGet();
+                    for (String key : keys) {
+                        if (map.containsKey(key)) {
+                            sink.accept(key, map.get(key));
+                        }
+                    }
+                }
+            };
+            final Environment environment = factory.createEnvironment(b -> b.addSource(bulkSource));
+            
+            assertEquals("value", environment.getVariance(variant));
+            assertEquals(4, environment.getInt(intVariant));
+            assertEquals("value", environment.findVariances(Arrays.asList(variant, linkVariant)).getVariance(variant));
+            assertEquals(3, bulkRequests.get(), "Each lookup should be one bulk request.");
+            assertEquals(0, singleRequests.get(), "Keys should not be requested one at a time.");
+        });
+    }
+    
+    @Test
+    default void environment_subscribe_WithChangingSource_NotifiesChanges() {
+        withVariants((contracts, variants) -> {
+            for (Consumer<Environment.Config.Builder> mode : Arrays.<Consumer<Environment.Config.Builder>>asList(
+                b -> {}, b -> b.useCache(true), b -> b.useSnapshots(true))) {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final Variant<Integer> variant = variantFactory.createVariant((b, parsers) -> b
+                    .key("key")
+                    .of(parsers.ofInteger()));
+                final Map<String, String> map = new HashMap<>();
+                final List<Runnable> listeners = new ArrayList<>();
+                final VariantSource source = new VariantSource() {
+                    @Override
+                    public Optional<CharSequence> getSourceText(String key) {
+                        return Optional.ofNullable(map.get(key));
+                    }
+                    
+                    @Override
+                    public AutoClose addChangeListener(Runnable listener) {
+                        listeners.add(listener);
+                        return () -> listeners.remove(listener);
+                    }
+                };
+                map.put("key", "1");
+                final Environment environment = factory.createEnvironment(b -> {
+                    mode.accept(b);
+                    b.addSource(source);
+                });
+                final List<Optional<Integer>> received = new ArrayList<>();
+                
+                assertTrue(listeners.isEmpty(), "Listeners should only be added for subscriptions.");
+                final AutoClose subscription = environment.subscribe(variant, received::add);
+                assertEquals(1, listeners.size());
+                assertTrue(received.isEmpty(), "The current variance should not be delivered.");
+                
+                map.put("key", " 1 ");
+                listeners.get(0).run();
+                assertTrue(received.isEmpty(), "Same parsed variance should not be delivered.");
+                
+                map.put("key", "2");
+                listeners.get(0).run();
+                assertEquals(Collections.singletonList(Optional.of(2)), received);
+                
+                map.remove("key");
+                listeners.get(0).run();
+                assertEquals(Arrays.asList(Optional.of(2), Optional.empty()), received);
+                
+                subscription.close();
+                assertTrue(listeners.isEmpty(), "Listeners should be removed with the last subscription.");
+                map.put("key", "3");
+                environment.invalidate();
+                assertEquals(2, received.size());
+            }
+        });
+    }
+    
+    @Test
+    default void environment_subscribe_WithInvalidate_NotifiesChanges() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString));
+            final Map<String, String> map = new HashMap<>();
+            final Environment environment = factory.createEnvironment(b -> b.addMapSource(map));
+            final AtomicReference<Optional<String>> received = new AtomicReference<>();
+            
+            try (AutoClose subscription = environment.subscribe(variant, received::set)) {
+                ignore(subscription);
+                environment.invalidate();
+                assertNull(received.get());
+                map.put("key", "value");
+                environment.invalidate();
+                assertEquals(Optional.of("value"), received.get());
+            }
+        });
+    }
+    
+    @Test
+    default void environment_subscribe_WithNull_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString));
+            final Environment environment = factory.createEnvironment(b -> {});
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.subscribe(null, v -> {}),
+                "Variant must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.subscribe(variant, null),
+                "Consumer must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_variantSource_addChangeListener_DefaultNeverNotifies() {
+        final VariantSource source = key -> Optional.empty();
+        
+        assertSame(AutoClose.NONE, source.addChangeListener(() -> {}));
+        assertThrown(IllegalArgumentException.class,
+            () -> source.addChangeListener(null),
+            "Listener must be present.");
+    }
+    
+    @Test
+    default void environment_addFileSource_Works() throws IOException {
+        final Path file = Files.createTempFile("variants", ".properties");
+        try {
+            Files.write(file, Arrays.asList("# comment", "key = value1", "other: 2"), StandardCharsets.UTF_8);
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final Variant<String> variant = variantFactory.createVariant(b -> b
+                    .key("key")
+                    .parser(Object::toString));
+                final IntVariant otherVariant = variantFactory.createIntVariant(b -> b.key("other"));
+                final Environment environment = factory.createEnvironment(b -> b.addFileSource(file));
+                
+                assertEquals("value1", environment.getVariance(variant));
+                assertEquals(2, environment.getInt(otherVariant));
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_addFileSource_WithChange_Reloads() throws Exception {
+        final Path file = Files.createTempFile("variants", ".properties");
+        try {
+            Files.write(file, Collections.singletonList("key=value1"), StandardCharsets.UTF_8);
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final Variant<String> variant = variantFactory.createVariant(b -> b
+                    .key("key")
+                    .parser(Object::toString));
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addFileSource(file, Duration.ofMillis(10)));
+                final BlockingQueue<Optional<String>> received = new LinkedBlockingQueue<>();
+                
+                try (AutoClose subscription = environment.subscribe(variant, received::add)) {
+                    ignore(subscription);
+                    final FileTime modified = Files.getLastModifiedTime(file);
+                    Files.write(file, Collections.singletonList("key=value2"), StandardCharsets.UTF_8);
+                    Files.setLastModifiedTime(file, modified);
+                    assertEquals(Optional.of("value2"), received.poll(10, TimeUnit.SECONDS));
+                    assertEquals("value2", environment.getVariance(variant));
+                    
+                    Files.delete(file);
+                    assertEquals(Optional.empty(), received.poll(10, TimeUnit.SECONDS));
+                } catch (InterruptedException | IOException thrown) {
+                    throw new AssertionError(thrown);
+                }
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_addFileSource_WithRecreatedDirectory_Reloads() throws IOException {
+        final Path directory = Files.createTempDirectory("variants");
+        final Path file = directory.resolve("variants.properties");
+        try {
+            Files.write(file, Collections.singletonList("key=value1"), StandardCharsets.UTF_8);
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final Variant<String> variant = variantFactory.createVariant(b -> b
+                    .key("key")
+                    .parser(Object::toString));
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addFileSource(file, Duration.ofMillis(10)));
+                final BlockingQueue<Optional<String>> received = new LinkedBlockingQueue<>();
+                
+                try (AutoClose subscription = environment.subscribe(variant, received::add)) {
+                    ignore(subscription);
+                    Files.delete(file);
+                    Files.delete(directory);
+                    assertEquals(Optional.empty(), received.poll(10, TimeUnit.SECONDS));
+                    Files.createDirectory(directory);
+                    Files.write(file, Collections.singletonList("key=value2"), StandardCharsets.UTF_8);
+                    assertEquals(Optional.of("value2"), received.poll(10, TimeUnit.SECONDS),
+                        "Changes should be seen after the watched directory was recreated.");
+                    Files.write(file, Collections.singletonList("key=value3"), StandardCharsets.UTF_8);
+                    assertEquals(Optional.of("value3"), received.poll(10, TimeUnit.SECONDS));
+                } catch (InterruptedException | IOException thrown) {
+                    throw new AssertionError(thrown);
+                }
+            });
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    @Test
+    default void environment_addFileSource_WithSlowSubscriber_DoesNotDelayOtherSources() throws IOException {
+        final Path slowFile = Files.createTempFile("variants", ".properties");
+        final Path file = Files.createTempFile("variants", ".properties");
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            Files.write(slowFile, Collections.singletonList("key=value1"), StandardCharsets.UTF_8);
+            Files.write(file, Collections.singletonList("key=value1"), StandardCharsets.UTF_8);
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final Variant<String> variant = variantFactory.createVariant(b -> b
+                    .key("key")
+                    .parser(Object::toString));
+                final Environment slowEnvironment = factory.createEnvironment(b -> b
+                    .addFileSource(slowFile, Duration.ofMillis(10)));
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addFileSource(file, Duration.ofMillis(10)));
+                final BlockingQueue<Optional<String>> slowReceived = new LinkedBlockingQueue<>();
+                final BlockingQueue<Optional<String>> received = new LinkedBlockingQueue<>();
+                
+                try (AutoClose slowSubscription = slowEnvironment.subscribe(variant, variance -> {
+                        slowReceived.add(variance);
+                        awaitQuietly(release);
+                    });
+                     AutoClose subscription = environment.subscribe(variant, received::add)) {
+                    ignore(slowSubscription);
+                    ignore(subscription);
+                    Files.write(slowFile, Collections.singletonList("key=value2"), StandardCharsets.UTF_8);
+                    assertEquals(Optional.of("value2"), slowReceived.poll(10, TimeUnit.SECONDS));
+                    Files.write(file, Collections.singletonList("key=value2"), StandardCharsets.UTF_8);
+                    assertEquals(Optional.of("value2"), received.poll(10, TimeUnit.SECONDS),
+                        "A blocked subscriber of one file should not delay another file.");
+                } catch (InterruptedException | IOException thrown) {
+                    throw new AssertionError(thrown);
+                } finally {
+                    release.countDown();
+                }
+            });
+        } finally {
+            release.countDown();
+            Files.deleteIfExists(slowFile);
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_addFileSource_WithoutListeners_ReloadsOnLookup() throws IOException {
+        final Path file = Files.createTempFile("variants", ".properties");
+        try {
+            Files.write(file, Collections.singletonList("key=value1"), StandardCharsets.UTF_8);
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final Variant<String> variant = variantFactory.createVariant(b -> b
+                    .key("key")
+                    .parser(Object::toString));
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addFileSource(file, Duration.ofMillis(1)));
+                
+                assertEquals("value1", environment.getVariance(variant));
+                try {
+                    final FileTime modified = Files.getLastModifiedTime(file);
+                    Files.write(file, Collections.singletonList("key=value2"), StandardCharsets.UTF_8);
+                    Files.setLastModifiedTime(file, modified);
+                    for (int attempt = 0; attempt < 100 && !"value2".equals(environment.getVariance(variant)); attempt++) {
+                        Thread.sleep(20);
+                    }
+                } catch (InterruptedException | IOException thrown) {
+                    throw new AssertionError(thrown);
+                }
+                assertEquals("value2", environment.getVariance(variant));
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_addFileSource_WithMissingFile_IsEmpty() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString));
+            final Path file = Paths.get("variants-missing-" + UUID.randomUUID() + ".properties");
+            final Environment environment = factory.createEnvironment(b -> b.addFileSource(file));
+            
+            assertFalse(environment.findVariance(variant).isPresent());
+            assertThrown(IllegalArgumentException.class,
+                () -> factory.createEnvironment(b -> b.addFileSource(null)),
+                "Path must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> factory.createEnvironment(b -> b.addFileSource(file, Duration.ZERO)),
+                "Interval must be positive.");
+        });
+    }
+    
+    @Test
+    default void environment_addMappedSource_Works() throws IOException {
+        final Path file = Files.createTempFile("variants", ".vrnt");
+        try {
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final MappedSources mappedSources = claimContract(MappedSources.CONTRACT);
+                final Map<String, Object> map = new HashMap<>();
+                for (int i = 0; i < 100; i++) {
+                    map.put("key" + i, i % 2 == 0 ? "even" : i);
+                }
+                map.put("text", "\u00e9t\u00e9");
+                map.put("empty", "");
+                mappedSources.write(map, file);
+                final Variant<String> textVariant = variantFactory.createVariant(b -> b
+                    .key("text")
+                    .parser(Object::toString));
+                final Variant<String> emptyVariant = variantFactory.createVariant(b -> b
+                    .key("empty")
+                    .parser(Object::toString));
+                final IntVariant intVariant = variantFactory.createIntVariant(b -> b.key("missing").link(
+                    variantFactory.createIntVariant(l -> l.key("key99"))));
+                final Environment environment = factory.createEnvironment(b -> b.addMappedSource(file));
+                
+                assertEquals("\u00e9t\u00e9", environment.getVariance(textVariant));
+                assertEquals("", environment.getVariance(emptyVariant));
+                assertEquals(99, environment.getInt(intVariant));
+                for (int i = 0; i < 100; i++) {
+                    final String key = "key" + i;
+                    assertEquals(map.get(key).toString(), mappedSources.open(file).getSourceText(key)
+                        .map(CharSequence::toString).orElse(null));
+                }
+                assertFalse(mappedSources.open(file).getSourceText("key100").isPresent());
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_addMappedSource_WithManySources_FindsEachKey() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try {
+            for (int sourceIndex = 0; sourceIndex < 4; sourceIndex++) {
+                files.add(Files.createTempFile("variants", ".vrnt"));
+            }
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final MappedSources mappedSources = claimContract(MappedSources.CONTRACT);
+                final List<IntVariant> intVariants = new ArrayList<>();
+                for (int sourceIndex = 0; sourceIndex < files.size(); sourceIndex++) {
+                    final Map<String, Object> map = new HashMap<>();
+                    for (int i = 0; i < 50; i++) {
+                        map.put("source" + sourceIndex + ".key" + i, sourceIndex * 100 + i);
+                    }
+                    map.put("shared", sourceIndex);
+                    mappedSources.write(map, files.get(sourceIndex));
+                    final String key = "source" + sourceIndex + ".key7";
+                    intVariants.add(variantFactory.createIntVariant(b -> b.keys("missing", key)));
+                }
+                final IntVariant sharedVariant = variantFactory.createIntVariant(b -> b.key("shared"));
+                for (int mode = 0; mode < 3; mode++) {
+                    final boolean useCache = mode == 1;
+                    final boolean useSnapshots = mode == 2;
+                    final Environment environment = factory.createEnvironment(b -> {
+                        files.forEach(b::addMappedSource);
+                        b.useCache(useCache).useSnapshots(useSnapshots);
+                    });
+                    final Variances variances = environment.findVariances(intVariants);
+                    
+                    for (int sourceIndex = 0; sourceIndex < files.size(); sourceIndex++) {
+                        assertEquals(sourceIndex * 100 + 7, environment.getInt(intVariants.get(sourceIndex)));
+                        assertEquals(sourceIndex * 100 + 7, variances.getVariance(intVariants.get(sourceIndex)));
+                    }
+                    assertEquals(0, environment.getInt(sharedVariant));
+                }
+            });
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Test
+    default void environment_useIndex_MatchesSearch() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try {
+            for (int sourceIndex = 0; sourceIndex < 3; sourceIndex++) {
+                files.add(Files.createTempFile("variants", ".vrnt"));
+            }
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final MappedSources mappedSources = claimContract(MappedSources.CONTRACT);
+                for (int sourceIndex = 0; sourceIndex < files.size(); sourceIndex++) {
+                    final Map<String, Object> map = new HashMap<>();
+                    map.put("a", sourceIndex == 0 ? " " : sourceIndex);
+                    map.put("b" + sourceIndex, sourceIndex * 10);
+                    mappedSources.write(map, files.get(sourceIndex));
+                }
+                final List<IntVariant> intVariants = Arrays.asList(
+                    variantFactory.createIntVariant(b -> b.key("a")),
+                    variantFactory.createIntVariant(b -> b.keys("b2", "a")),
+                    variantFactory.createIntVariant(b -> b.keys("missing", "b1")),
+                    variantFactory.createIntVariant(b -> b.key("missing").link(
+                        variantFactory.createIntVariant(l -> l.key("b2")))),
+                    variantFactory.createIntVariant(b -> b.key("missing").fallback(() -> 7)),
+                    variantFactory.createIntVariant(b -> b.key("missing")));
+                for (int mode = 0; mode < 3; mode++) {
+                    final boolean useCache = mode == 1;
+                    final boolean useSnapshots = mode == 2;
+                    final Environment searched = factory.createEnvironment(b -> {
+                        files.forEach(b::addMappedSource);
+                        b.useCache(useCache).useSnapshots(useSnapshots);
+                    });
+                    final Environment indexed = factory.createEnvironment(b -> {
+                        final Environment.Config.Builder returnBuilder = b.useIndex(true);
+                        assertEquals(b, returnBuilder);
+                        assertTrue(b.useIndex(), "Indexing should be enabled.");
+                        files.forEach(b::addMappedSource);
+                        b.useCache(useCache).useSnapshots(useSnapshots);
+                    });
+                    final Variances searchedVariances = searched.findVariances(intVariants);
+                    final Variances indexedVariances = indexed.findVariances(intVariants);
+                    
+                    assertEquals(1, indexed.getInt(intVariants.get(0)), "Blank text should continue to the next source.");
+                    assertEquals(1, indexed.getInt(intVariants.get(1)), "Keys should be searched breadth first.");
+                    for (IntVariant intVariant : intVariants) {
+                        assertEquals(searched.findVariance(intVariant), indexed.findVariance(intVariant));
+                        assertEquals(searched.findInt(intVariant), indexed.findInt(intVariant));
+                        assertEquals(searchedVariances.findVariance(intVariant), indexedVariances.findVariance(intVariant));
+                    }
+                }
+            });
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Test
+    default void environment_addMappedSource_WithProperties_Works() throws IOException {
+        final Path file = Files.createTempFile("variants", ".vrnt");
+        try {
+            withVariants((contracts, variants) -> {
+                final MappedSources mappedSources = claimContract(MappedSources.CONTRACT);
+                final Properties properties = new Properties();
+                properties.setProperty("key", "value");
+                mappedSources.write(properties, file);
+                mappedSources.write(properties, file);
+                
+                assertEquals("value", mappedSources.open(file).getSourceText("key")
+                    .map(CharSequence::toString).orElse(null));
+                assertThrown(IllegalArgumentException.class,
+                    () -> mappedSources.write((Properties) null, file),
+                    "Properties must be present.");
+                assertThrown(IllegalArgumentException.class,
+                    () -> mappedSources.write(properties, null),
+                    "Path must be present.");
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_addMappedSource_WithInvalidFile_Throws() throws IOException {
+        final Path file = Files.createTempFile("variants", ".properties");
+        try {
+            Files.write(file, Collections.singletonList("key=value"), StandardCharsets.UTF_8);
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final Path missing = Paths.get("variants-missing-" + UUID.randomUUID() + ".vrnt");
+                
+                assertThrown(VariantException.class,
+                    () -> factory.createEnvironment(b -> b.addMappedSource(file)));
+                assertThrown(VariantException.class,
+                    () -> factory.createEnvironment(b -> b.addMappedSource(missing)));
+                assertThrown(IllegalArgumentException.class,
+                    () -> factory.createEnvironment(b -> b.addMappedSource(null)),
+                    "Path must be present.");
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_listener_WithMetrics_CountsLookups() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final EnvironmentMetrics metrics = factory.createMetrics();
+            final VariantSource firstSource = k -> "first".equals(k) ? Optional.of("1") : Optional.empty();
+            final VariantSource secondSource = k -> "second".equals(k) ? Optional.of("2") : Optional.empty();
+            final IntVariant firstVariant = variantFactory.createIntVariant(b -> b.key("first"));
+            final IntVariant secondVariant = variantFactory.createIntVariant(b -> b.key("second"));
+            final Variant<String> missingVariant = variantFactory.createVariant(b -> b
+                .key("missing")
+                .fallback(() -> "fallback")
+                .parser(Object::toString));
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSource(firstSource)
+                .addSource(secondSource)
+                .listener(metrics));
+            
+            assertEquals(1, environment.getInt(firstVariant));
+            assertEquals(2, environment.getInt(secondVariant));
+            assertEquals("fallback", environment.getVariance(missingVariant));
+            
+            assertEquals(3, metrics.getLookups(firstSource));
+            assertEquals(1, metrics.getHits(firstSource));
+            assertEquals(2, metrics.getLookups(secondSource));
+            assertEquals(1, metrics.getHits(secondSource));
+            assertEquals(3, Arrays.stream(metrics.getLatencies(firstSource)).sum());
+            assertEquals(EnvironmentMetrics.LATENCY_BUCKETS, metrics.getLatencies(secondSource).length);
+            assertEquals(1, metrics.getHits(firstVariant));
+            assertEquals(0, metrics.getMisses(firstVariant));
+            assertEquals(0, metrics.getHits(missingVariant));
+            assertEquals(1, metrics.getMisses(missingVariant));
+            assertEquals(1, metrics.getFallbacks(missingVariant));
+            
+            metrics.reset();
+            assertEquals(0, metrics.getLookups(firstSource));
+            assertEquals(0, metrics.getMisses(missingVariant));
+        });
+    }
+    
+    @Test
+    default void environment_listener_WithMetricsAndVariantsOnTheFly_CountsByName() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final EnvironmentMetrics metrics = factory.createMetrics();
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSingletonSource("key", "1")
+                .listener(metrics));
+            
+            for (int i = 0; i < 10; i++) {
+                assertEquals(1, environment.getInt(variantFactory.createIntVariant(b -> b.key("key"))));
+            }
+            assertEquals(10, metrics.getHits(variantFactory.createIntVariant(b -> b.key("key"))),
+                "Variants with the same name should share their counters.");
+        });
+    }
+    
+    @Test
+    default void environment_listener_WithContextAndDisabled_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final AtomicBoolean enabled = new AtomicBoolean(true);
+            final List<Object> contexts = new ArrayList<>();
+            final IntVariant variant = variantFactory.createIntVariant(b -> b.key("key"));
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSingletonSource("key", "1")
+                .listener(new EnvironmentListener() {
+                    @Override
+                    public boolean isEnabled() {
+                        return enabled.get();
+                    }
+                    
+                    @Override
+                    public Object onResolving(Variant<?> resolving) {
+                        return "context";
+                    }
+                    
+                    @Override
+                    public void onResolved(Resolution resolution) {
+                        contexts.add(resolution.getContext());
+                    }
+                }));
+            
+            assertEquals(1, environment.getInt(variant));
+            assertEquals(Collections.singletonList("context"), contexts);
+            enabled.set(false);
+            assertEquals(1, environment.getInt(variant));
+            assertEquals(1, environment.findVariances(Collections.singletonList(variant)).findVariance(variant).orElse(null));
+            assertEquals(1, contexts.size(), "A disabled listener should not be notified.");
+        });
+    }
+    
+    @Test
+    default void environment_listener_WithParseFailure_Reports() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final EnvironmentMetrics metrics = factory.createMetrics();
+            final Variant<String> emptyVariant = variantFactory.createVariant(b -> b
+                .key("key")
+                .name("empty")
+                .fallback(() -> "fallback")
+                .parser(t -> null));
+            final IntVariant intVariant = variantFactory.createIntVariant(b -> b.key("key"));
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSingletonSource("key", "not a number")
+                .listener(metrics));
+            
+            assertEquals("fallback", environment.getVariance(emptyVariant));
+            assertThrown(RuntimeException.class, () -> environment.getInt(intVariant));
+            assertEquals(1, metrics.getParseFailures(emptyVariant));
+            assertEquals(1, metrics.getParseFailures(intVariant));
+            assertEquals(1, metrics.getFallbacks(emptyVariant));
+        });
+    }
+    
+    @Test
+    default void environment_listener_WithFindVariancesAndSnapshots_Reports() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final List<String> events = new ArrayList<>();
+            final VariantSource source = k -> "key".equals(k) ? Optional.of("value") : Optional.empty();
+            final Variant<String> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .parser(Object::toString));
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSource(source)
+                .useSnapshots(true)
+                .listener(new EnvironmentListener() {
+                    @Override
+                    public void onSourceLookup(VariantSource lookupSource, boolean found, long nanos) {
+                        events.add("source " + (lookupSource == source) + " " + found);
+                    }
+                    
+                    @Override
+                    public void onResolved(Variant<?> resolvedVariant, boolean found) {
+                        events.add("resolved " + (resolvedVariant == variant) + " " + found);
+                    }
+                }));
+            
+            assertEquals("value", environment.findVariances(Collections.singletonList(variant)).getVariance(variant));
+            assertEquals(Arrays.asList("resolved true true", "source true true"), events);
+        });
+    }
+    
+    @Test
+    default void environment_createMetrics_WithDefault_Throws() {
+        final EnvironmentFactory factory = new EnvironmentFactory() {
+            @Override
+            public Environment createEnvironment(Environment.Config config) {
+                return null;
+            }
+            
+            @Override
+            public Environment createEnvironment(Consumer<Environment.Config.Builder> builderConsumer) {
+                return null;
+            }
+        };
+        
+        assertThrown(VariantException.class,
+            factory::createMetrics,
+            "Metrics are not supported.");
+    }
+    
+    @Test
+    default void environment_listener_WithNull_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> factory.createEnvironment(b -> b.listener(null)),
+                "Listener must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> factory.createEnvironment(new Environment.Config() {
+                    @Override
+                    public EnvironmentListener getListener() {
+                        return null;
+                    }
+                }),
+                "Listener must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_explain_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final VariantSource firstSource = k -> "bad".equals(k) ? Optional.of("not a number") : Optional.empty();
+            final VariantSource secondSource = k -> "linked".equals(k) ? Optional.of("5") : Optional.empty();
+            final IntVariant linkVariant = variantFactory.createIntVariant(b -> b.key("linked"));
+            final IntVariant variant = variantFactory.createIntVariant(b -> b
+                .keys("missing", "blank")
+                .link(linkVariant));
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSource(firstSource)
+                .addSource(secondSource)
+                .useCache(true));
+            
+            final Explanation<Integer> explanation = environment.explain(variant);
+            
+            assertSame(variant, explanation.getVariant());
+            assertEquals(Optional.of(5), explanation.getVariance());
+            assertFalse(explanation.getFallbackVariant().isPresent());
+            assertFalse(explanation.getFailure().isPresent());
+            assertEquals(6, explanation.getSteps().size());
+            final Explanation.Step firstStep = explanation.getSteps().get(0);
+            assertSame(firstSource, firstStep.getSource());
+            assertEquals(0, firstStep.getSourceIndex());
+            assertEquals("missing", firstStep.getKey());
+            assertSame(variant, firstStep.getOwner());
+            assertEquals(0, firstStep.getLinkDepth());
+            assertFalse(firstStep.getText().isPresent());
+            final Explanation.Step lastStep = explanation.getSteps().get(5);
+            assertSame(secondSource, lastStep.getSource());
+            assertEquals(1, lastStep.getSourceIndex());
+            assertEquals("linked", lastStep.getKey());
+            assertSame(linkVariant, lastStep.getOwner());
+            assertEquals(1, lastStep.getLinkDepth());
+            assertEquals("5", lastStep.getText().map(CharSequence::toString).orElse(null));
+            assertEquals(Optional.of(5), lastStep.getValue());
+            assertTrue(explanation.toString().contains("key 'linked'"));
+        });
+    }
+    
+    @Test
+    default void environment_explain_WithFallbackAndFailure_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final IntVariant fallbackVariant = variantFactory.createIntVariant(b -> b
+                .key("missing")
+                .link(variantFactory.createIntVariant(l -> l.key("other").fallback(() -> 7))));
+            final IntVariant badVariant = variantFactory.createIntVariant(b -> b.key("bad"));
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSingletonSource("bad", "not a number")
+                .useSnapshots(true));
+            
+            final Explanation<Integer> fallbackExplanation = environment.explain(fallbackVariant);
+            final Explanation<Integer> badExplanation = environment.explain(badVariant);
+            
+            assertEquals(Optional.of(7), fallbackExplanation.getVariance());
+            assertEquals(fallbackVariant.getLink(), fallbackExplanation.getFallbackVariant());
+            assertEquals(2, fallbackExplanation.getSteps().size());
+            assertFalse(badExplanation.getVariance().isPresent());
+            assertTrue(badExplanation.getFailure().isPresent());
+            assertTrue(badExplanation.getSteps().get(0).getFailure().isPresent());
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.explain(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_bind_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Map<String, String> map = new HashMap<>();
+            map.put("server.host", "localhost");
+            map.put("server.port", " 8080 ");
+            map.put("server.timeout", "PT5S");
+            map.put("server.state", "RUNNABLE");
+            map.put("server.retries", "3");
+            for (int mode = 0; mode < 3; mode++) {
+                final boolean useCache = mode == 1;
+                final boolean useSnapshots = mode == 2;
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addMapSource(map)
+                    .useCache(useCache)
+                    .useSnapshots(useSnapshots));
+                
+                final BoundServer server = environment.bind(BoundServer.class, "server.");
+                
+                assertEquals("localhost", server.host);
+                assertEquals(8080, server.port);
+                assertEquals(Duration.ofSeconds(5), server.timeout);
+                assertEquals(Optional.of(Thread.State.RUNNABLE), server.state);
+                assertEquals(3, server.retries.getAsInt());
+                assertFalse(server.weight.isPresent());
+                assertNotSame(server, environment.bind(BoundServer.class, "server."));
+            }
+        });
+    }
+    
+    @Test
+    default void environment_bind_WithMissingRequired_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSingletonSource("host", "localhost"));
+            
+            final VariantException thrown = assertThrows(VariantException.class,
+                () -> environment.bind(BoundServer.class));
+            
+            assertTrue(thrown.getMessage().startsWith("Variant not found."));
+        });
+    }
+    
+    @Test
+    default void environment_bind_WithInvalid_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSingletonSource("host", "localhost"));
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.bind(null),
+                "Type must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.bind(BoundServer.class, null),
+                "Prefix must be present.");
+            assertThrows(IllegalArgumentException.class,
+                () -> environment.bind(Runnable.class));
+            assertThrows(IllegalArgumentException.class,
+                () -> environment.bind(BoundUnsupported.class));
+        });
+    }
+    
+    @Test
+    default void environment_overlay_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final IntVariant linkVariant = variantFactory.createIntVariant(b -> b.key("linked").fallback(() -> 9));
+            final IntVariant variant = variantFactory.createIntVariant(b -> b.key("main").link(linkVariant));
+            for (int mode = 0; mode < 3; mode++) {
+                final boolean useCache = mode == 1;
+                final boolean useSnapshots = mode == 2;
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addSingletonSource("main", "1")
+                    .useCache(useCache)
+                    .useSnapshots(useSnapshots));
+                
+                final Environment overlay = environment.overlay(k -> "linked".equals(k) ? Optional.of("2") : Optional.empty());
+                final Environment nested = overlay.overlay(k -> "main".equals(k) ? Optional.of("3") : Optional.empty());
+                final Environment empty = environment.overlay();
+                
+                assertEquals(1, environment.getInt(variant));
+                assertEquals(2, overlay.getInt(variant), "overlay source is searched with every key first");
+                assertEquals(3, nested.getInt(variant));
+                assertEquals(1, empty.getInt(variant));
+                assertEquals(9, empty.getInt(linkVariant));
+                assertEquals(Optional.of(2), overlay.findVariances(Arrays.asList(variant, linkVariant)).findVariance(linkVariant));
+                assertEquals(Optional.of(3), nested.findVariances(Arrays.asList(variant, linkVariant)).findVariance(variant));
+                assertEquals(3, nested.snapshot().getInt(variant));
+                assertEquals(2, overlay.explain(variant).getSteps().size());
+                assertEquals(1, environment.getInt(variant));
+            }
+        });
+    }
+    
+    @Test
+    default void environment_overlay_invalidate_KeepsParent() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final IntVariant variant = variantFactory.createIntVariant(b -> b.key("main"));
+            final AtomicReference<String> text = new AtomicReference<>("1");
+            final Environment environment = factory.createEnvironment(b -> b
+                .addSource(k -> "main".equals(k) ? Optional.ofNullable(text.get()) : Optional.empty())
+                .useCache(true));
+            final Environment overlay = environment.overlay(k -> Optional.empty());
+            final List<Optional<Integer>> received = new ArrayList<>();
+            
+            assertEquals(1, overlay.getInt(variant));
+            text.set("2");
+            overlay.invalidate();
+            assertEquals(1, overlay.getInt(variant), "Invalidating an overlay should keep the parent cache.");
+            try (AutoClose subscription = overlay.subscribe(variant, received::add)) {
+                ignore(subscription);
+                environment.invalidate();
+                assertEquals(Collections.singletonList(Optional.of(2)), received, "Overlay subscribers should hear of parent changes.");
+            }
+            text.set("3");
+            environment.invalidate();
+            assertEquals(1, received.size(), "A closed subscription should not be notified.");
+        });
+    }
+    
+    @Test
+    default void environment_overlay_WithNull_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Environment environment = factory.createEnvironment(b -> b.addSingletonSource("main", "1"));
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.overlay((VariantSource[]) null),
+                "Sources must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.overlay((VariantSource) null),
+                "Source must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_stable_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final BooleanVariant variant = variantFactory.createBooleanVariant(b -> b.key("flag").fallback(() -> false));
+            final AtomicReference<String> text = new AtomicReference<>();
+            for (int mode = 0; mode < 3; mode++) {
+                final boolean useCache = mode == 1;
+                final boolean useSnapshots = mode == 2;
+                text.set("true");
+                final Environment environment = factory.createEnvironment(b -> b
+                    .addSource(k -> "flag".equals(k) ? Optional.ofNullable(text.get()) : Optional.empty())
+                    .useCache(useCache)
+                    .useSnapshots(useSnapshots));
+                
+                final StableVariance<Boolean> stable = environment.stable(variant);
+                
+                assertSame(variant, stable.getVariant());
+                assertEquals(Optional.of(true), stable.get());
+                assertEquals(Optional.of(true), invokeStable(stable));
+                text.set("false");
+                assertEquals(Optional.of(true), stable.get(), "Stable variance only changes when notified.");
+                environment.invalidate();
+                assertEquals(Optional.of(false), stable.get());
+                assertEquals(Optional.of(false), invokeStable(stable));
+                stable.close();
+                text.set("true");
+                environment.invalidate();
+                assertEquals(Optional.of(false), stable.get(), "Closed stable variance retains the last value.");
+            }
+        });
+    }
+    
+    @Test
+    default void environment_stable_WithNull_Throws() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Environment environment = factory.createEnvironment(b -> {});
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> environment.stable(null),
+                "Variant must be present.");
+        });
+    }
+    
+    @Test
+    default void environment_builtInSources_AreEnumerable() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final Map<String, Object> map = new HashMap<>();
+            map.put("server.host", "localhost");
+            map.put("server.port", 8080);
+            map.put("timeout", "PT1S");
+            final Properties defaults = new Properties();
+            defaults.setProperty("inherited", "value");
+            final Properties properties = new Properties(defaults);
+            properties.setProperty("own", "value");
+            
+            factory.createEnvironment(b -> {
+                b.addMapSource(map)
+                    .addPropertiesSource(properties)
+                    .addSingletonSource("key", "value")
+                    .addSystemPropertiesSource()
+                    .addSystemEnvironmentSource();
+                for (VariantSource source : b.getSources()) {
+                    assertTrue(source instanceof EnumerableVariantSource, "Built-in sources should be enumerable.");
+                }
+                final EnumerableVariantSource mapSource = (EnumerableVariantSource) b.getSources().get(0);
+                final EnumerableVariantSource propertiesSource = (EnumerableVariantSource) b.getSources().get(1);
+                final EnumerableVariantSource singletonSource = (EnumerableVariantSource) b.getSources().get(2);
+                
+                assertEquals(map.keySet(), new HashSet<>(listKeys(mapSource.getKeys())));
+                assertEquals(Arrays.asList("server.host", "server.port"), sortedKeys(mapSource.getKeys("server.")));
+                assertEquals(3, mapSource.getSizeHint());
+                assertEquals(EnumerableVariantSource.UNKNOWN_VERSION, mapSource.getKeysVersion(),
+                    "A Map can change, its version should be unknown.");
+                assertEquals(Arrays.asList("inherited", "own"), sortedKeys(propertiesSource.getKeys()));
+                assertEquals(Collections.singletonList("key"), listKeys(singletonSource.getKeys()));
+                assertNotEquals(EnumerableVariantSource.UNKNOWN_VERSION, singletonSource.getKeysVersion(),
+                    "A singleton can not change, its version should be known.");
+            });
+        });
+    }
+    
+    @Test
+    default void environment_enumerableVariantSource_Defaults() {
+        final EnumerableVariantSource source = new EnumerableVariantSource() {
+            @Override
+            public Iterable<String> getKeys() {
+                return Arrays.asList("a.1", "b.1", "a.2");
+            }
+            
+            @Override
+            public Optional<CharSequence> getSourceText(String key) {
+                return Optional.of(key);
+            }
+        };
+        
+        assertEquals(Arrays.asList("a.1", "a.2"), listKeys(source.getKeys("a.")));
+        assertEquals(3, listKeys(source.getKeys("")).size());
+        assertTrue(source.getSizeHint() < 0, "By default the size should not be known.");
+        assertEquals(EnumerableVariantSource.UNKNOWN_VERSION, source.getKeysVersion());
+        assertThrown(IllegalArgumentException.class,
+            () -> source.getKeys(null),
+            "Prefix must be present.");
+    }
+    
+    @Test
+    default void environment_addMapSource_WhenMapChanges_FindsNewText() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final IntVariant variant = variantFactory.createIntVariant(b -> b.key("added"));
+            final Map<String, Object> map = new HashMap<>();
+            final Environment environment = factory.createEnvironment(b -> b.addMapSource(map));
+            
+            assertFalse(environment.findInt(variant).isPresent());
+            map.put("added", 5);
+            assertEquals(5, environment.getInt(variant), "Changes to the Map should be seen.");
+        });
+    }
+    
+    @Test
+    default void environment_mappedSource_getKeys_WithPrefix_Works() throws IOException {
+        final Path file = Files.createTempFile("variants", ".vrnt");
+        try {
+            withVariants((contracts, variants) -> {
+                final MappedSources mappedSources = claimContract(MappedSources.CONTRACT);
+                final Map<String, Object> map = new HashMap<>();
+                for (String key : Arrays.asList("a", "db", "db.host", "db.port", "dc", "server.host")) {
+                    map.put(key, key.length());
+                }
+                mappedSources.write(map, file);
+                final EnumerableVariantSource source = (EnumerableVariantSource) mappedSources.open(file);
+                
+                assertEquals(6, source.getSizeHint());
+                assertEquals(Arrays.asList("db.host", "db.port"), listKeys(source.getKeys("db.")));
+                assertEquals(Arrays.asList("db", "db.host", "db.port"), listKeys(source.getKeys("db")));
+                assertEquals(Collections.singletonList("server.host"), listKeys(source.getKeys("server.host")));
+                assertTrue(listKeys(source.getKeys("z")).isEmpty(), "No key should start with the prefix.");
+                assertEquals(6, listKeys(source.getKeys("")).size());
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    default void environment_addSystemPropertiesSnapshot_CopiesAgainOnInvalidate() {
+        final String key = "variants.test." + UUID.randomUUID();
+        final String addedKey = key + ".added";
+        try {
+            withVariants((contracts, variants) -> {
+                final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+                final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+                final IntVariant variant = variantFactory.createIntVariant(b -> b.key(key));
+                final IntVariant addedVariant = variantFactory.createIntVariant(b -> b.key(addedKey));
+                for (int mode = 0; mode < 3; mode++) {
+                    final boolean useSnapshots = mode == 1;
+                    final boolean useIndex = mode == 2;
+                    System.setProperty(key, "1");
+                    System.clearProperty(addedKey);
+                    final Environment environment = factory.createEnvironment(b -> b
+                        .addSystemPropertiesSnapshot()
+                        .useSnapshots(useSnapshots)
+                        .useIndex(useIndex));
+                    
+                    assertEquals(1, environment.getInt(variant));
+                    assertFalse(environment.findInt(addedVariant).isPresent());
+                    System.setProperty(key, "2");
+                    System.setProperty(addedKey, "3");
+                    assertEquals(1, environment.getInt(variant), "The copy should not see later changes.");
+                    assertFalse(environment.findInt(addedVariant).isPresent(), "The copy should not see later keys.");
+                    environment.invalidate();
+                    assertEquals(2, environment.getInt(variant), "Invalidate should copy the properties again.");
+                    assertEquals(3, environment.getInt(addedVariant), "Invalidate should copy new keys.");
+                }
+            });
+        } finally {
+            System.clearProperty(key);
+            System.clearProperty(addedKey);
+        }
+    }
+    
+    @Test
+    default void environment_addSystemEnvironmentSnapshot_Works() {
+        withVariants((contracts, variants) -> {
+            final EnvironmentFactory factory = claimContract(EnvironmentFactory.CONTRACT);
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final Environment environment = factory.createEnvironment(b -> b.addSystemEnvironmentSnapshot());
+            final Environment liveEnvironment = factory.createEnvironment(b -> b.addSystemEnvironmentSource());
+            
+            for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+                final Variant<String> variant = variantFactory.createVariant(b -> b
+                    .key(entry.getKey())
+                    .parser(Object::toString));
+                assertEquals(liveEnvironment.findVariance(variant), environment.findVariance(variant));
+            }
+            final Variant<String> missingVariant = variantFactory.createVariant(b -> b
+                .key("variants.test." + UUID.randomUUID())
+                .parser(Object::toString));
+            assertFalse(environment.findVariance(missingVariant).isPresent());
+        });
+    }
+    
+    static List<String> listKeys(Iterable<String> keys) {
+        final List<String> list = new ArrayList<>();
+        keys.forEach(list::add);
+        return list;
+    }
+    
+    static List<String> sortedKeys(Iterable<String> keys) {
+        final List<String> list = listKeys(keys);
+        Collections.sort(list);
+        return list;
+    }
+    
+    static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException thrown) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    static Optional<?> invokeStable(StableVariance<?> stable) {
+        try {
+            return (Optional<?>) stable.getHandle().invokeExact();
+        } catch (Throwable thrown) {
+            throw new AssertionError(thrown);
+        }
+    }
+    
+    /**
+     * Bound by {@link #environment_bind_Works()}, requires the test sources compiled with -parameters
+     */
+    final class BoundServer {
+        public BoundServer(String host, int port, Duration timeout, Optional<Thread.State> state,
+                           OptionalInt retries, OptionalDouble weight) {
+            this.host = host;
+            this.port = port;
+            this.timeout = timeout;
+            this.state = state;
+            this.retries = retries;
+            this.weight = weight;
+        }
+        
+        private final String host;
+        private final int port;
+        private final Duration timeout;
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        private final Optional<Thread.State> state;
+        private final OptionalInt retries;
+        private final OptionalDouble weight;
+    }
+    
+    final class BoundUnsupported {
+        public BoundUnsupported(Object host) {
+            this.host = host;
+        }
+        
+        private final Object host;
+    }
 }
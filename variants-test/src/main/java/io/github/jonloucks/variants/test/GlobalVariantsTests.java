@@ -320,4 +320,23 @@ public interface GlobalVariantsTests {
             );
         }
     }
+    
+    @Test
+    default void globalVariants_createPrimitiveVariants_Works() {
+        final Environment environment = GlobalVariants.createEnvironment(b -> b
+            .addSingletonSource("int", "1")
+            .addSingletonSource("long", "2")
+            .addSingletonSource("double", "3.5")
+            .addSingletonSource("boolean", "true"));
+        
+        final IntVariant intVariant = GlobalVariants.createIntVariant(b -> b.key("int"));
+        final LongVariant longVariant = GlobalVariants.createLongVariant(b -> b.key("long"));
+        final DoubleVariant doubleVariant = GlobalVariants.createDoubleVariant(b -> b.key("double"));
+        final BooleanVariant booleanVariant = GlobalVariants.createBooleanVariant(b -> b.key("boolean"));
+        
+        assertEquals(1, environment.getInt(intVariant));
+        assertEquals(2L, environment.getLong(longVariant));
+        assertEquals(3.5d, environment.getDouble(doubleVariant));
+        assertTrue(environment.getBoolean(booleanVariant));
+    }
 }
@@ -2,6 +2,7 @@ package io.github.jonloucks.variants.test;
 
 
 import io.github.jonloucks.variants.api.Parsers;
+import io.github.jonloucks.variants.api.VariantException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,9 +14,15 @@ import org.mockito.quality.Strictness;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import static io.github.jonloucks.contracts.test.Tools.assertObject;
 import static io.github.jonloucks.contracts.test.Tools.assertThrown;
@@ -444,6 +451,107 @@ public interface ParsersTests {
         });
     }
     
+    @Test
+    default void parsers_enumParser_WithIgnoreCaseAndAliases_Works() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final Map<String, Thread.State> aliases = new HashMap<>();
+            aliases.put("run", Thread.State.RUNNABLE);
+            final Function<CharSequence, Thread.State> parser = parsers.enumParser(Thread.State.class, true, aliases);
+            final Function<CharSequence, Thread.State> exactParser = parsers.enumParser(Thread.State.class, false, aliases);
+            
+            assertEquals(Thread.State.BLOCKED, parser.apply(toCharSequence("blocked")));
+            assertEquals(Thread.State.RUNNABLE, parser.apply(toCharSequence("RUN")));
+            assertEquals(Thread.State.RUNNABLE, exactParser.apply(toCharSequence("run")));
+            assertEquals(Thread.State.NEW, parser.apply(toCharSequence(Thread.State.NEW.ordinal())));
+            assertThrown(IllegalArgumentException.class, () -> exactParser.apply(toCharSequence("RUN")));
+            assertThrown(IllegalArgumentException.class, () -> parser.apply(toCharSequence(" BLOCKED ")));
+            assertEquals(Thread.State.WAITING,
+                parsers.ofEnum(Thread.State.class, true, aliases).apply(toCharSequence(" Waiting ")).orElse(null));
+        });
+    }
+    
+    @Test
+    default void parsers_enumParser_WithDigitAliases_MatchesAliasesFirst() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final Map<String, Thread.State> aliases = new HashMap<>();
+            aliases.put("2x", Thread.State.WAITING);
+            aliases.put("0", Thread.State.TERMINATED);
+            final Function<CharSequence, Thread.State> parser = parsers.enumParser(Thread.State.class, false, aliases);
+            
+            assertEquals(Thread.State.WAITING, parser.apply(toCharSequence("2x")));
+            assertEquals(Thread.State.TERMINATED, parser.apply(toCharSequence("0")));
+            assertEquals(Thread.State.BLOCKED, parser.apply(toCharSequence(Thread.State.BLOCKED.ordinal())));
+            assertThrown(IllegalArgumentException.class, () -> parser.apply(toCharSequence("3x")),
+                "Invalid State value '3x'.");
+        });
+    }
+    
+    @Test
+    default void parsers_enumParser_WithDefaults_Works() {
+        withVariants((contracts,variants) -> {
+            final Parsers actual = contracts.claim(Parsers.CONTRACT);
+            final Parsers parsers = new Parsers() {
+                @Override
+                public <T extends Enum<T>> Function<CharSequence, T> enumParser(Class<T> enumClass) {
+                    return actual.enumParser(enumClass);
+                }
+                
+                @Override
+                public CharSequence trim(CharSequence text) {
+                    return actual.trim(text);
+                }
+                
+                @Override
+                public <T> Function<CharSequence, Optional<List<T>>> ofList(Function<CharSequence, Optional<T>> of, String delimiter) {
+                    return actual.ofList(of, delimiter);
+                }
+            };
+            final Map<String, Thread.State> aliases = new HashMap<>();
+            final Function<CharSequence, Thread.State> parser = parsers.enumParser(Thread.State.class, false, aliases);
+            
+            assertEquals(Thread.State.BLOCKED, parser.apply(toCharSequence("BLOCKED")));
+            assertThrown(VariantException.class,
+                () -> parsers.enumParser(Thread.State.class, true, aliases),
+                "Enum case and aliases are not supported.");
+            aliases.put("run", Thread.State.RUNNABLE);
+            assertThrown(VariantException.class,
+                () -> parsers.enumParser(Thread.State.class, false, aliases),
+                "Enum case and aliases are not supported.");
+        });
+    }
+    
+    @Test
+    default void parsers_enumParser_WithAmbiguousAlias_Throws() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final Map<String, Thread.State> aliases = new HashMap<>();
+            aliases.put("new", Thread.State.RUNNABLE);
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> parsers.enumParser(Thread.State.class, true, aliases),
+                "Ambiguous enum value 'new'.");
+            assertThrown(IllegalArgumentException.class,
+                () -> parsers.enumParser(Thread.State.class, true, null),
+                "Aliases must be present.");
+        });
+    }
+    
+    @Test
+    default void parsers_enumParser_WithInvalidOrdinal_Throws() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final Function<CharSequence, Thread.State> parser = parsers.enumParser(Thread.State.class);
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> parser.apply(toCharSequence(Thread.State.values().length)),
+                "Invalid State value '" + Thread.State.values().length + "'.");
+            assertThrown(IllegalArgumentException.class, () -> parser.apply(toCharSequence("99999999999")));
+            assertThrown(IllegalArgumentException.class, () -> parser.apply(toCharSequence("1x")));
+        });
+    }
+    
     @Test
     default void parsers_ofEnum_WithNullText_IsEmpty() {
         withVariants((contracts,variants) -> {
@@ -601,4 +709,124 @@ public interface ParsersTests {
             assertEquals(Arrays.asList(1,2,3), optional.get());
         });
     }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"", "a", ",", "a,b", ",a", "a,", ",,a,,b,,", ",,,", " a , b "})
+    default void parsers_ofList_MatchesStringSplit(String text) {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final List<String> expected = Arrays.asList(text.split(","));
+            final Optional<List<String>> expectedOptional = expected.isEmpty() ? Optional.empty() : Optional.of(expected);
+            
+            assertEquals(expectedOptional, parsers.ofList(parsers.ofRawString(), ",").apply(toCharSequence(text)));
+            assertEquals(expectedOptional, parsers.ofList(parsers.ofRawString(), ',').apply(toCharSequence(text)));
+        });
+    }
+    
+    @Test
+    default void parsers_ofList_WithRegex_Works() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final Function<CharSequence, Optional<List<Integer>>> of = parsers.ofList(parsers.ofInteger(), "[;|]");
+            
+            assertEquals(Arrays.asList(1, 2, 3), of.apply(toCharSequence("1;2|3")).orElse(null));
+            assertEquals(Arrays.asList(1, 2), parsers.ofList(parsers.ofInteger(), '|').apply("1|2").orElse(null));
+        });
+    }
+    
+    @Test
+    default void parsers_toIntParser_Works() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final ToIntFunction<CharSequence> parser = parsers.toIntParser();
+            
+            assertEquals(-1, parser.applyAsInt(toCharSequence("-1")));
+            assertEquals(0, parser.applyAsInt(toCharSequence(" 0 ")));
+            assertEquals(Integer.MAX_VALUE, parser.applyAsInt(toCharSequence(Integer.MAX_VALUE)));
+            assertThrown(IllegalArgumentException.class, () -> parser.applyAsInt(null), "Text must be present.");
+            assertThrown(NumberFormatException.class, () -> parser.applyAsInt(toCharSequence("junk")));
+        });
+    }
+    
+    @Test
+    default void parsers_toLongParser_Works() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final ToLongFunction<CharSequence> parser = parsers.toLongParser();
+            
+            assertEquals(-1L, parser.applyAsLong(toCharSequence("-1")));
+            assertEquals(Long.MIN_VALUE, parser.applyAsLong(toCharSequence(" " + Long.MIN_VALUE + " ")));
+            assertThrown(IllegalArgumentException.class, () -> parser.applyAsLong(null), "Text must be present.");
+            assertThrown(NumberFormatException.class, () -> parser.applyAsLong(toCharSequence("")));
+        });
+    }
+    
+    @Test
+    default void parsers_toDoubleParser_Works() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final ToDoubleFunction<CharSequence> parser = parsers.toDoubleParser();
+            
+            assertEquals(-1.5d, parser.applyAsDouble(toCharSequence("-1.5")));
+            assertEquals(1e10d, parser.applyAsDouble(toCharSequence(" 1e10 ")));
+            assertThrown(IllegalArgumentException.class, () -> parser.applyAsDouble(null), "Text must be present.");
+            assertThrown(NumberFormatException.class, () -> parser.applyAsDouble(toCharSequence("junk")));
+        });
+    }
+    
+    @Test
+    default void parsers_toBooleanParser_Works() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            final Predicate<CharSequence> parser = parsers.toBooleanParser();
+            
+            assertTrue(parser.test(toCharSequence("true")));
+            assertTrue(parser.test(toCharSequence(" TrUe ")));
+            assertFalse(parser.test(toCharSequence("false")));
+            assertFalse(parser.test(toCharSequence("trux")));
+            assertFalse(parser.test(toCharSequence("")));
+            assertThrown(IllegalArgumentException.class, () -> parser.test(null), "Text must be present.");
+        });
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0", "+1", "1.", ".5", "-12.5", "0.1", "0.3", "3.14159265358979",
+        "9007199254740991", "9007199254740993", "123456789012345678.5", "0.0000000001", "1.23456789",
+        "1e10", "-1E-5", "NaN", "-Infinity", "0x1p3", "1d", "2f"})
+    default void parsers_decimalParsers_MatchJdk(String text) {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            
+            assertEquals(Double.parseDouble(text), parsers.doubleParser().apply(toCharSequence(text)));
+            assertEquals(Double.parseDouble(text), parsers.ofDouble().apply(toCharSequence(" " + text + " ")).get());
+            assertEquals(Double.parseDouble(text), parsers.toDoubleParser().applyAsDouble(toCharSequence(text)));
+            assertEquals(Float.parseFloat(text), parsers.floatParser().apply(toCharSequence(text)));
+            assertEquals(Float.parseFloat(text), parsers.ofFloat().apply(toCharSequence(" " + text + " ")).get());
+        });
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"-", "+", ".", "1..2", "1-", "junk"})
+    default void parsers_decimalParsers_WithInvalidText_Throws(String text) {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            
+            assertThrown(NumberFormatException.class, () -> parsers.doubleParser().apply(toCharSequence(text)));
+            assertThrown(NumberFormatException.class, () -> parsers.floatParser().apply(toCharSequence(text)));
+        });
+    }
+    
+    @Test
+    default void parsers_integerParser_WithWhiteSpace_Throws() {
+        withVariants((contracts,variants) -> {
+            final Parsers parsers = contracts.claim(Parsers.CONTRACT);
+            
+            assertThrown(NumberFormatException.class, () -> parsers.integerParser().apply(toCharSequence(" 1")));
+            assertThrown(NumberFormatException.class, () -> parsers.longParser().apply(toCharSequence("1 ")));
+            assertEquals(1, parsers.ofInteger().apply(toCharSequence(" 1 ")).get());
+            assertEquals(1L, parsers.ofLong().apply(toCharSequence(" 1 ")).get());
+            assertFalse(parsers.ofInteger().apply(toCharSequence("  ")).isPresent());
+            assertFalse(parsers.ofLong().apply(toCharSequence("  ")).isPresent());
+        });
+    }
 }
@@ -1,12 +1,13 @@
 package io.github.jonloucks.variants.test;
 
-import io.github.jonloucks.variants.api.Variant;
-import io.github.jonloucks.variants.api.VariantFactory;
+import io.github.jonloucks.variants.api.*;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -223,4 +224,196 @@ public interface VariantTests {
             assertEquals(duration, variant.of(duration.toString()).get(), "Parsed value should match.");
         });
     }
+    
+    @Test
+    default void variant_createIntVariant_WithNullBuilder_Throws() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            assertThrown(IllegalArgumentException.class,
+                () -> variantFactory.createIntVariant(null),
+                "Builder consumer must be present.");
+        });
+    }
+    
+    @Test
+    default void variant_createIntVariant_Works() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final IntVariant variant = variantFactory.createIntVariant(b -> b
+                .name("name")
+                .description("description")
+                .key("key")
+                .fallback(() -> 7));
+            
+            assertObject(variant);
+            assertEquals(asList("key"), variant.getKeys(), "Keys should match.");
+            assertEquals("name", variant.getName().orElse(null), "Name should match.");
+            assertEquals("description", variant.getDescription().orElse(null), "Description should match.");
+            assertEquals(7, variant.getFallback().orElse(null), "Fallback should match.");
+            assertFalse(variant.getLink().isPresent(), "Link should not be present.");
+            assertEquals(42, variant.ofInt(" 42 "));
+            assertEquals(42, variant.of("42").orElse(null));
+            assertFalse(variant.of(null).isPresent(), "Null text should be empty.");
+            assertFalse(variant.of("  ").isPresent(), "Blank text should be empty.");
+            assertThrown(IllegalArgumentException.class, () -> variant.ofInt("junk"));
+        });
+    }
+    
+    @Test
+    default void variant_createLongVariant_Works() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final LongVariant variant = variantFactory.createLongVariant(b -> b.key("key"));
+            
+            assertEquals(Long.MAX_VALUE, variant.ofLong(Long.toString(Long.MAX_VALUE)));
+            assertEquals(-1L, variant.of(" -1 ").orElse(null));
+            assertFalse(variant.of("").isPresent(), "Empty text should be empty.");
+        });
+    }
+    
+    @Test
+    default void variant_createDoubleVariant_Works() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final DoubleVariant variant = variantFactory.createDoubleVariant(b -> b.key("key"));
+            
+            assertEquals(1.25d, variant.ofDouble(" 1.25 "));
+            assertEquals(-3d, variant.of("-3").orElse(null));
+            assertFalse(variant.of(" ").isPresent(), "Blank text should be empty.");
+        });
+    }
+    
+    @Test
+    default void variant_createBooleanVariant_Works() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final BooleanVariant variant = variantFactory.createBooleanVariant(b -> b.key("key"));
+            
+            assertTrue(variant.ofBoolean(" True "));
+            assertFalse(variant.ofBoolean("junk"));
+            assertEquals(Boolean.FALSE, variant.of("false").orElse(null));
+            assertFalse(variant.of("").isPresent(), "Empty text should be empty.");
+        });
+    }
+    
+    @Test
+    default void variant_VariantFactory_WithDefaults_Throws() {
+        final VariantFactory variantFactory = new VariantFactory() {
+            @Override
+            public <T> Variant<T> createVariant(Consumer<Variant.Config.Builder<T>> builderConsumer) {
+                return null;
+            }
+            
+            @Override
+            public <T> Variant<T> createVariant(BiConsumer<Variant.Config.Builder<T>, Parsers> builderConsumer) {
+                return null;
+            }
+            
+            @Override
+            public <T> Variant<T> createVariant(Variant.Config<T> config) {
+                return null;
+            }
+        };
+        
+        assertThrown(VariantException.class,
+            () -> variantFactory.createIntVariant(b -> b.key("key")),
+            "Int Variants are not supported.");
+        assertThrown(VariantException.class,
+            () -> variantFactory.createLongVariant(b -> b.key("key")),
+            "Long Variants are not supported.");
+        assertThrown(VariantException.class,
+            () -> variantFactory.createDoubleVariant(b -> b.key("key")),
+            "Double Variants are not supported.");
+        assertThrown(VariantException.class,
+            () -> variantFactory.createBooleanVariant(b -> b.key("key")),
+            "Boolean Variants are not supported.");
+    }
+    
+    @Test
+    default void variant_createIntVariant_WithParser_Works() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final IntVariant variant = variantFactory.createIntVariant(b -> b
+                .key("key")
+                .parser(text -> text.length()));
+            final IntVariant nullVariant = variantFactory.createIntVariant(b -> b
+                .key("key")
+                .parser(text -> null));
+            
+            assertEquals(5, variant.ofInt("hello"));
+            assertThrown(IllegalArgumentException.class,
+                () -> nullVariant.ofInt("hello"),
+                "Parser must return a value.");
+        });
+    }
+    
+    @Test
+    default void variant_lazyFallback_IsDeferredAndRetained() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final EnvironmentFactory environmentFactory = claimContract(EnvironmentFactory.CONTRACT);
+            final AtomicInteger calls = new AtomicInteger();
+            final IntVariant variant = variantFactory.createIntVariant(b -> b
+                .key("key")
+                .lazyFallback(() -> 7 + calls.getAndIncrement()));
+            
+            assertEquals(0, calls.get(), "Lazy fallback should not be invoked on create.");
+            final Environment environment = environmentFactory.createEnvironment(b -> {});
+            assertEquals(7, environment.getInt(variant));
+            assertEquals(7, environment.getInt(variant));
+            assertEquals(7, variant.getFallback().orElse(null), "Fallback should match.");
+            assertEquals(1, calls.get(), "Lazy fallback should be invoked once.");
+        });
+    }
+    
+    @Test
+    default void variant_dynamicFallback_IsInvokedPerLookup() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final EnvironmentFactory environmentFactory = claimContract(EnvironmentFactory.CONTRACT);
+            final AtomicInteger calls = new AtomicInteger();
+            final Variant<Integer> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .dynamicFallback(calls::incrementAndGet));
+            
+            assertEquals(0, calls.get(), "Dynamic fallback should not be invoked on create.");
+            final Environment environment = environmentFactory.createEnvironment(b -> {});
+            assertEquals(1, environment.getVariance(variant));
+            assertEquals(2, environment.getVariance(variant));
+        });
+    }
+    
+    @Test
+    default void variant_dynamicFallback_WithListenerOrExplain_IsInvokedOncePerLookup() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            final EnvironmentFactory environmentFactory = claimContract(EnvironmentFactory.CONTRACT);
+            final AtomicInteger calls = new AtomicInteger();
+            final Variant<Integer> variant = variantFactory.createVariant(b -> b
+                .key("key")
+                .dynamicFallback(calls::incrementAndGet));
+            final EnvironmentMetrics metrics = environmentFactory.createMetrics();
+            final Environment environment = environmentFactory.createEnvironment(b -> b.listener(metrics));
+            
+            assertEquals(1, environment.getVariance(variant));
+            assertEquals(1, metrics.getFallbacks(variant));
+            assertEquals(2, environment.findVariances(asList(variant)).findVariance(variant).orElse(null));
+            assertEquals(Optional.of(3), environment.explain(variant).getVariance());
+            assertEquals(3, calls.get(), "Dynamic fallback should be invoked once per lookup.");
+        });
+    }
+    
+    @Test
+    default void variant_lazyFallback_WithNull_Throws() {
+        withVariants((contracts, variants) -> {
+            final VariantFactory variantFactory = claimContract(VariantFactory.CONTRACT);
+            
+            assertThrown(IllegalArgumentException.class,
+                () -> variantFactory.createVariant(b -> b.key("key").lazyFallback(null)),
+                "Fallback must be present.");
+            assertThrown(IllegalArgumentException.class,
+                () -> variantFactory.createVariant(b -> b.key("key").dynamicFallback(null)),
+                "Fallback must be present.");
+        });
+    }
 }